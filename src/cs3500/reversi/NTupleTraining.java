@@ -0,0 +1,229 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AlphaBetaStrategy;
+import cs3500.reversi.player.Evaluator;
+import cs3500.reversi.player.FeatureEvaluator;
+import cs3500.reversi.player.NTupleEvaluator;
+import cs3500.reversi.player.NTupleTrainer;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Trains the weights of an n-tuple evaluator offline and writes them to a file. Self-play
+ * games are played on many threads at once by the alpha-beta search strategy with the
+ * feature evaluator, each starting with a few random moves so the games spread over many
+ * openings. The evaluator is then trained on the positions of the games, the speed of its
+ * evaluation is measured, and a search with it plays a search with the feature evaluator.
+ */
+public final class NTupleTraining {
+  // the number of moves at the start of each game that are chosen at random
+  private static final int RANDOM_PLIES = 6;
+  // the depth searched for each move of the self-play games and of the match
+  private static final int SEARCH_DEPTH = 2;
+  // the number of passes over the positions, and the share of the error each corrects
+  private static final int EPOCHS = 200;
+  private static final double RATE = 0.5;
+  // the number of games of the match between the two evaluators, half as each color
+  private static final int MATCH_GAMES = 20;
+  // the seed of the games, so that the same arguments train the same weights
+  private static final long SEED = 2025;
+
+  /**
+   * Runs the training and writes the weights.
+   *
+   * @param args the file to write the weights to, the board size, the number of games and
+   *             the number of threads, which default to ntuple.bin, 7, 2000 and the number
+   *             of processors.
+   * @throws IOException if the weights cannot be written or read back.
+   */
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get((args.length > 0) ? args[0] : "ntuple.bin");
+    int size = (args.length > 1) ? Integer.parseInt(args[1]) : 7;
+    int games = (args.length > 2) ? Integer.parseInt(args[2]) : 2000;
+    int threads = (args.length > 3) ? Integer.parseInt(args[3])
+            : Runtime.getRuntime().availableProcessors();
+    NTupleEvaluator evaluator = new NTupleEvaluator(size);
+    NTupleTrainer trainer = new NTupleTrainer(evaluator, threads);
+    AtomicInteger next = new AtomicInteger();
+    long start = System.nanoTime();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(() -> {
+        for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+          trainer.addGame(playGame(size, new SplittableRandom(SEED + game)));
+        }
+      }, "self-play-" + i);
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("played %d games in %.1f s (%.1f games/s), %d positions%n",
+            trainer.getGameCount(), seconds, trainer.getGameCount() / seconds,
+            trainer.getPositionCount());
+    System.out.printf("%d patterns, %d weights, error before training %.1f%n",
+            evaluator.getPatternCount(), evaluator.getWeightCount(),
+            trainer.meanSquaredError());
+    start = System.nanoTime();
+    double error = trainer.train(EPOCHS, RATE);
+    seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("trained %d epochs in %.1f s, error after training %.1f%n", EPOCHS,
+            seconds, error);
+    evaluator.write(file);
+    NTupleEvaluator trained = NTupleEvaluator.open(file);
+    System.out.printf("wrote the weights to %s, %.2f million evaluations/s%n", file,
+            evaluationsPerSecond(trained, size) / 1e6);
+    int[] results = new int[3];
+    for (int game = 0; game < MATCH_GAMES; game++) {
+      PlayerColor color = (game % 2 == 0) ? PlayerColor.BLACK : PlayerColor.WHITE;
+      int difference = playMatchGame(size, trained, color,
+              new SplittableRandom(SEED - 1 - game / 2));
+      results[(difference > 0) ? 0 : (difference < 0) ? 1 : 2]++;
+    }
+    System.out.printf("n-tuple against feature evaluator at depth %d: %d wins, %d losses, "
+            + "%d ties%n", SEARCH_DEPTH, results[0], results[1], results[2]);
+  }
+
+  /**
+   * Plays one self-play game.
+   *
+   * @param size   the size of the board.
+   * @param random the randomness of the game's opening moves.
+   * @return the cell index of every move of the game, where a pass is NTupleTrainer.PASS.
+   */
+  private static List<Integer> playGame(int size, SplittableRandom random) {
+    ReversiModel model = new ReversiModelStandard(size);
+    Strategy strategy = new AlphaBetaStrategy(model, 60_000, SEARCH_DEPTH,
+            new FeatureEvaluator());
+    List<Integer> moves = new ArrayList<>();
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = (moves.size() < RANDOM_PLIES)
+              ? randomMove(model, color, random) : strategy.chooseMove(color);
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+        moves.add(model.indexOf(move.get().getQ(), move.get().getR()));
+      } else {
+        model.pass(color);
+        moves.add(NTupleTrainer.PASS);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    return moves;
+  }
+
+  /**
+   * Plays one game between a search with the trained evaluator and a search with the
+   * feature evaluator, after the same random opening moves.
+   *
+   * @param size    the size of the board.
+   * @param trained the trained evaluator.
+   * @param color   the color played with the trained evaluator.
+   * @param random  the randomness of the game's opening moves.
+   * @return the final difference in tiles for the color of the trained evaluator.
+   */
+  private static int playMatchGame(int size, Evaluator trained, PlayerColor color,
+                                   SplittableRandom random) {
+    ReversiModel model = new ReversiModelStandard(size);
+    Strategy tuples = new AlphaBetaStrategy(model, 60_000, SEARCH_DEPTH, trained);
+    Strategy features = new AlphaBetaStrategy(model, 60_000, SEARCH_DEPTH,
+            new FeatureEvaluator());
+    PlayerColor toMove = PlayerColor.BLACK;
+    int ply = 0;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = (ply < RANDOM_PLIES) ? randomMove(model, toMove, random)
+              : ((toMove == color) ? tuples : features).chooseMove(toMove);
+      if (move.isPresent()) {
+        model.placeTile(toMove, move.get().getQ(), move.get().getR());
+      } else {
+        model.pass(toMove);
+      }
+      toMove = (toMove == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+      ply++;
+    }
+    PlayerColor other = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    return model.getBoard().getScore(color) - model.getBoard().getScore(other);
+  }
+
+  /**
+   * Chooses a legal move of the given color at random.
+   *
+   * @param model  the model of the game.
+   * @param color  the color to move.
+   * @param random the randomness of the choice.
+   * @return a random legal move, or an empty move if the color has none.
+   */
+  private static Optional<HexCoordinates> randomMove(ReversiModel model, PlayerColor color,
+                                                     SplittableRandom random) {
+    List<LegalMove> legal = model.getLegalMoves(color);
+    return legal.isEmpty() ? Optional.empty()
+            : Optional.of(legal.get(random.nextInt(legal.size())).getCoordinates());
+  }
+
+  /**
+   * Measures how many positions the given evaluator scores per second, over the positions
+   * of a game of random moves.
+   *
+   * @param evaluator the evaluator to measure.
+   * @param size      the size of the board.
+   * @return the number of evaluations per second.
+   */
+  private static double evaluationsPerSecond(Evaluator evaluator, int size) {
+    List<Board> positions = new ArrayList<>();
+    ReversiModel model = new ReversiModelStandard(size);
+    SplittableRandom random = new SplittableRandom(SEED);
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = randomMove(model, color, random);
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+        Board position = model.getBoard();
+        evaluator.prepare(position);
+        positions.add(position);
+      } else {
+        model.pass(color);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    long sum = 0;
+    // the positions are scored many times before timing, so the evaluation is compiled
+    for (int pass = 0; pass < 2000; pass++) {
+      for (Board board : positions) {
+        sum += evaluator.evaluate(board, PlayerColor.BLACK);
+      }
+    }
+    long evaluations = 0;
+    long start = System.nanoTime();
+    long elapsed = 0;
+    while (elapsed < 1_000_000_000L) {
+      for (Board board : positions) {
+        sum += evaluator.evaluate(board, PlayerColor.BLACK);
+      }
+      evaluations += positions.size();
+      elapsed = System.nanoTime() - start;
+    }
+    // the sum is printed nowhere, but using it keeps the evaluations from being skipped
+    return (sum == Long.MIN_VALUE) ? 0 : evaluations / (elapsed / 1e9);
+  }
+}
@@ -0,0 +1,113 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.MonteCarloStrategy;
+import cs3500.reversi.player.OpeningBook;
+import cs3500.reversi.player.OpeningBookBuilder;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Builds an opening book from batches of self-play games, which are played on many threads
+ * at once. Each game starts with a few random moves, so the games spread over many openings,
+ * and is then played by the Monte Carlo tree search strategy for both colors.
+ */
+public final class OpeningBookSelfPlay {
+  // the number of moves at the start of each game that are chosen at random
+  private static final int RANDOM_PLIES = 4;
+  // the playouts the strategy plays for each move of a game
+  private static final int PLAYOUTS_PER_MOVE = 300;
+  // the seed of the games, so that the same arguments build the same book
+  private static final long SEED = 2024;
+
+  /**
+   * Runs the self-play games and writes the book.
+   *
+   * @param args the file to write the book to, the board size, the number of games, the
+   *             number of plies of each game to collect, and the number of threads, which
+   *             default to book.bin, 7, 200, 12 and the number of processors.
+   * @throws IOException if the book cannot be written or read back.
+   */
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get((args.length > 0) ? args[0] : "book.bin");
+    int size = (args.length > 1) ? Integer.parseInt(args[1]) : 7;
+    int games = (args.length > 2) ? Integer.parseInt(args[2]) : 200;
+    int plies = (args.length > 3) ? Integer.parseInt(args[3]) : 12;
+    int threads = (args.length > 4) ? Integer.parseInt(args[4])
+            : Runtime.getRuntime().availableProcessors();
+    OpeningBookBuilder builder = new OpeningBookBuilder(size, plies);
+    AtomicInteger next = new AtomicInteger();
+    long start = System.nanoTime();
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      Thread worker = new Thread(() -> {
+        for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+          builder.addGame(playGame(size, new SplittableRandom(SEED + game)));
+        }
+      }, "self-play-" + i);
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    builder.write(file);
+    OpeningBook book = OpeningBook.open(file);
+    System.out.printf("played %d games in %.1f s (%.1f games/s)%n", builder.getGameCount(),
+            seconds, builder.getGameCount() / seconds);
+    System.out.printf("wrote %d positions and %d moves to %s%n", builder.getPositionCount(),
+            book.getEntryCount(), file);
+  }
+
+  /**
+   * Plays one self-play game.
+   *
+   * @param size   the size of the board.
+   * @param random the randomness of the game's moves.
+   * @return the cell index of every move of the game, where a pass is OpeningBookBuilder.PASS.
+   */
+  private static List<Integer> playGame(int size, SplittableRandom random) {
+    ReversiModel model = new ReversiModelStandard(size);
+    Strategy strategy = new MonteCarloStrategy(model, 60_000, PLAYOUTS_PER_MOVE, 1,
+            random.nextLong());
+    List<Integer> moves = new ArrayList<>();
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move;
+      if (moves.size() < RANDOM_PLIES) {
+        List<LegalMove> legal = model.getLegalMoves(color);
+        move = legal.isEmpty() ? Optional.empty()
+                : Optional.of(legal.get(random.nextInt(legal.size())).getCoordinates());
+      } else {
+        move = strategy.chooseMove(color);
+      }
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+        moves.add(model.indexOf(move.get().getQ(), move.get().getR()));
+      } else {
+        model.pass(color);
+        moves.add(OpeningBookBuilder.PASS);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    return moves;
+  }
+}
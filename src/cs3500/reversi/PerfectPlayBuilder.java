@@ -0,0 +1,90 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AlphaBetaStrategy;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.MonteCarloStrategy;
+import cs3500.reversi.player.PerfectPlayStrategy;
+import cs3500.reversi.player.PerfectPlayTable;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Builds the table of every position of the size 5 board and writes it to a file, then
+ * measures the other strategies against it by playing each of them against perfect play
+ * as both colors, and comparing the final difference in tiles with the value of the game.
+ */
+public final class PerfectPlayBuilder {
+  // the size of the board solved
+  private static final int SIZE = 5;
+
+  /**
+   * Runs the builder.
+   *
+   * @param args the file to write the table to, which defaults to perfect5.bin.
+   * @throws IOException if the table cannot be written or read back.
+   */
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get((args.length > 0) ? args[0] : "perfect5.bin");
+    long start = System.nanoTime();
+    PerfectPlayTable.build(SIZE).write(file);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    PerfectPlayTable table = PerfectPlayTable.open(file);
+    System.out.printf("solved %d positions in %.3f s, written to %s%n",
+            table.getPositionCount(), seconds, file);
+    int value = PerfectPlayTable.getValue(table.probe(new Board(SIZE), PlayerColor.BLACK));
+    System.out.println("value of the game for black: " + value);
+    Map<String, Function<ReversiModel, Strategy>> strategies = new LinkedHashMap<>();
+    strategies.put("capture", CapturePieceStrategy::new);
+    strategies.put("corner", CheckCornersStrategy::new);
+    strategies.put("search", model -> new AlphaBetaStrategy(model, 100));
+    strategies.put("mcts", model -> new MonteCarloStrategy(model, 100));
+    for (Map.Entry<String, Function<ReversiModel, Strategy>> entry : strategies.entrySet()) {
+      int asBlack = play(table, entry.getValue(), PlayerColor.BLACK);
+      int asWhite = play(table, entry.getValue(), PlayerColor.WHITE);
+      // perfect play by the strategy gets the value of the game as either color
+      System.out.printf("%-8s as black: %+d (perfect %+d), as white: %+d (perfect %+d)%n",
+              entry.getKey(), asBlack, value, asWhite, -value);
+    }
+  }
+
+  /**
+   * Plays one game between the given strategy and perfect play.
+   *
+   * @param table    the table of every position.
+   * @param strategy the strategy to measure, given the model of the game.
+   * @param color    the color the strategy plays.
+   * @return the final difference in tiles for the strategy's color.
+   */
+  private static int play(PerfectPlayTable table, Function<ReversiModel, Strategy> strategy,
+                          PlayerColor color) {
+    ReversiModel model = new ReversiModelStandard(SIZE);
+    Strategy measured = strategy.apply(model);
+    Strategy perfect = new PerfectPlayStrategy(model, table);
+    PlayerColor toMove = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = ((toMove == color) ? measured : perfect)
+              .chooseMove(toMove);
+      if (move.isPresent()) {
+        model.placeTile(toMove, move.get().getQ(), move.get().getR());
+      } else {
+        model.pass(toMove);
+      }
+      toMove = (toMove == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    PlayerColor other = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    return model.getBoard().getScore(color) - model.getBoard().getScore(other);
+  }
+}
@@ -0,0 +1,59 @@
+package cs3500.reversi;
+
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.MonteCarloStrategy;
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * Benchmark of the Monte Carlo tree search strategy with one thread against many threads.
+ * For each of a few board sizes, the strategy plays out the first move of a game for a fixed
+ * time, once with one thread and once with the given number of threads, and the playouts
+ * played per second are printed, which tells how many playouts a move gets on the hardware.
+ */
+public final class PlayoutBenchmark {
+  // the board sizes played out
+  private static final int[] SIZES = {11, 15, 21};
+  // the seed of the random moves of every run, so runs are comparable
+  private static final long SEED = 42;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of threads to compare against one thread, which defaults to the
+   *             number of processors, and the time to play out each move for in
+   *             milliseconds, which defaults to 2000.
+   */
+  public static void main(String[] args) {
+    int threads = (args.length > 0) ? Integer.parseInt(args[0])
+            : Runtime.getRuntime().availableProcessors();
+    long millis = (args.length > 1) ? Long.parseLong(args[1]) : 2000;
+    System.out.println("threads: " + threads);
+    for (int size : SIZES) {
+      // the first run of each size only warms up the compiler
+      playOut(size, millis, 1);
+      double one = playOut(size, millis, 1);
+      double many = playOut(size, millis, threads);
+      System.out.printf("size %d:%n", size);
+      System.out.printf("  1 thread:   %12.0f playouts/s%n", one);
+      System.out.printf("  %d threads: %12.0f playouts/s  speedup %.2f%n", threads, many,
+              many / one);
+    }
+  }
+
+  /**
+   * Plays out the first move of a game on a board of the given size.
+   *
+   * @param size    the size of the board.
+   * @param millis  the time to play out for, in milliseconds.
+   * @param threads the number of threads to play out with.
+   * @return the playouts played per second.
+   */
+  private static double playOut(int size, long millis, int threads) {
+    ReversiModel model = new ReversiModelStandard(size);
+    MonteCarloStrategy strategy = new MonteCarloStrategy(model, millis, Long.MAX_VALUE,
+            threads, SEED);
+    strategy.chooseMove(PlayerColor.BLACK);
+    return strategy.getLastPlayoutsPerSecond();
+  }
+}
@@ -1,20 +1,30 @@
 package cs3500.reversi;
 
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
 
 import cs3500.reversi.controller.BlackTileController;
 import cs3500.reversi.controller.ReversiController;
 import cs3500.reversi.controller.WhiteTileController;
+import cs3500.reversi.model.ReadonlyReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AlphaBetaStrategy;
+import cs3500.reversi.player.AsyncMachinePlayer;
 import cs3500.reversi.player.CapturePieceStrategy;
 import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.EndgameStrategy;
 import cs3500.reversi.player.HumanPlayer;
-import cs3500.reversi.player.MachinePlayer;
+import cs3500.reversi.player.MonteCarloStrategy;
 import cs3500.reversi.player.MultipleStrategies;
 import cs3500.reversi.player.PlayerActions;
-import cs3500.reversi.view.BoardView;
+import cs3500.reversi.player.Strategy;
 import cs3500.reversi.view.ReversiFrame;
 
 
@@ -22,16 +32,34 @@ import cs3500.reversi.view.ReversiFrame;
  * Main runner class for a game of reversi.
  */
 public final class Reversi {
+  // the most empty cells at which the "endgame" player solves the rest of the game exactly
+  private static final int ENDGAME_EMPTIES = 14;
+
   /**
    * The entry point playing a reversi game.
    * @param args The command line arguments for this game.
    */
   public static void main(String[] args) {
     ReversiModel model = new ReversiModelStandard(7);
-    BoardView player1View = new ReversiFrame(model);
-    BoardView player2View = new ReversiFrame(model);
-    PlayerActions player1 = createPlayer(args[1], model);
-    PlayerActions player2 = createPlayer(args[0], model);
+    ReversiFrame player1View = new ReversiFrame(model);
+    ReversiFrame player2View = new ReversiFrame(model);
+    // machine players think on this thread, and make their moves on the event thread
+    ExecutorService searcher = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "reversi-machine-player");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // closing either window interrupts any move being chosen
+    WindowAdapter closer = new WindowAdapter() {
+      @Override
+      public void windowClosing(WindowEvent e) {
+        searcher.shutdownNow();
+      }
+    };
+    player1View.addWindowListener(closer);
+    player2View.addWindowListener(closer);
+    PlayerActions player1 = createPlayer(args[1], model, searcher);
+    PlayerActions player2 = createPlayer(args[0], model, searcher);
     ReversiController controller1 = new WhiteTileController(model, player1, player1View);
     ReversiController controller2 = new BlackTileController(model, player2, player2View);
     model.startGame();
@@ -40,27 +68,65 @@ public final class Reversi {
 
   /**
    * Creates a player for the given model based on the given string, where a string
-   * "human" creates a human player, "capture" creates a machine player which uses
-   * the capture strategy, "corner" creates a machine player which uses the corner
-   * strategy, and "both" creates a machine player which uses both the corner and
-   * capture strategy.
+   * "human" creates a human player, and any other string creates a machine player using
+   * the strategy createStrategy makes for it, which chooses its moves on the given executor
+   * so the windows keep responding while it thinks.
    * @param playerType    The string representation of a type of player.
    * @param model   The model for a player.
+   * @param searcher    The executor machine players choose their moves on.
    * @return    The type of player associated with the given string.
    * @throws IllegalArgumentException   if the given string is not a valid argument.
    */
-
-  private static PlayerActions createPlayer(String playerType, ReversiModel model) {
+  private static PlayerActions createPlayer(String playerType, ReversiModel model,
+                                            ExecutorService searcher) {
     if (playerType.equalsIgnoreCase("human")) {
       return new HumanPlayer(model);
-    } else if (playerType.equalsIgnoreCase("capture")) {
-      return new MachinePlayer(model, new CapturePieceStrategy(model));
-    } else if (playerType.equalsIgnoreCase("corner")) {
-      return new MachinePlayer(model, new CheckCornersStrategy(model));
-    } else if (playerType.equalsIgnoreCase("both")) {
-      return new MachinePlayer(model, new MultipleStrategies(new ArrayList<>(Arrays.asList(
-              new CapturePieceStrategy(model), new CheckCornersStrategy(model)))));
+    }
+    return new AsyncMachinePlayer(model, createStrategy(playerType, model), searcher,
+            SwingUtilities::invokeLater);
+  }
+
+  /**
+   * Creates a strategy for the given model based on the given string, where a string
+   * "capture" creates the capture strategy, "corner" creates the corner strategy,
+   * "both" creates a strategy using both the corner and capture strategy, "search"
+   * creates a strategy which searches ahead for one second per move, "endgame" creates
+   * a strategy which searches ahead until the end of the game can be solved exactly,
+   * and "mcts" creates a strategy which plays out random games for one second per move.
+   * @param strategyType    The string representation of a type of strategy.
+   * @param model   The model for a strategy.
+   * @return    The strategy associated with the given string.
+   * @throws IllegalArgumentException   if the given string is not a valid argument.
+   */
+  static Strategy createStrategy(String strategyType, ReadonlyReversiModel model) {
+    return createStrategy(strategyType, model, System.nanoTime());
+  }
+
+  /**
+   * Creates a strategy for the given model based on the given string, as createStrategy
+   * does, where any randomness of the strategy comes from the given seed.
+   * @param strategyType    The string representation of a type of strategy.
+   * @param model   The model for a strategy.
+   * @param seed    The seed of the strategy's randomness.
+   * @return    The strategy associated with the given string.
+   * @throws IllegalArgumentException   if the given string is not a valid argument.
+   */
+  static Strategy createStrategy(String strategyType, ReadonlyReversiModel model, long seed) {
+    if (strategyType.equalsIgnoreCase("capture")) {
+      return new CapturePieceStrategy(model);
+    } else if (strategyType.equalsIgnoreCase("corner")) {
+      return new CheckCornersStrategy(model);
+    } else if (strategyType.equalsIgnoreCase("both")) {
+      return new MultipleStrategies(new ArrayList<>(Arrays.asList(
+              new CapturePieceStrategy(model), new CheckCornersStrategy(model))));
+    } else if (strategyType.equalsIgnoreCase("search")) {
+      return new AlphaBetaStrategy(model, 1000);
+    } else if (strategyType.equalsIgnoreCase("endgame")) {
+      return new EndgameStrategy(model, ENDGAME_EMPTIES, new AlphaBetaStrategy(model, 1000));
+    } else if (strategyType.equalsIgnoreCase("mcts")) {
+      return new MonteCarloStrategy(model, 1000, Long.MAX_VALUE,
+              Runtime.getRuntime().availableProcessors(), seed);
     }
     throw new IllegalArgumentException("Invalid player type");
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package cs3500.reversi;
+
+import java.util.List;
+
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AlphaBetaStrategy;
+import cs3500.reversi.player.MobilityEvaluator;
+import cs3500.reversi.player.MoveOrdering;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.TranspositionTable;
+
+/**
+ * Benchmark of the alpha-beta search strategy with one thread against many threads.
+ * For each of a fixed set of positions, the search is run to a fixed depth, once with one
+ * thread and once with the given number of threads, each with a new transposition table.
+ * The time taken to reach the depth, the positions searched per second, and the speedup of
+ * the threads over one thread are printed for each position.
+ * Run with "ordering" as its first argument, the benchmark instead searches each position
+ * with one thread and each set of move ordering heuristics, and prints the number of
+ * positions each searched, which fewer of means the moves were better ordered.
+ */
+public final class SearchBenchmark {
+  // the board size, the number of opening moves played, and the depth searched,
+  // of each of the fixed positions
+  private static final int[][] POSITIONS = {
+      {7, 2, 18},
+      {7, 4, 18},
+      {9, 0, 15},
+      {9, 6, 15},
+      {11, 0, 14},
+      {11, 10, 14},
+  };
+  // the memory used by the transposition table of each search
+  private static final int TABLE_MEGABYTES = 64;
+  // the sets of move ordering heuristics compared, each adding one to the set before it
+  private static final int[] ORDERINGS = {
+      MoveOrdering.HASH_MOVE,
+      MoveOrdering.HASH_MOVE | MoveOrdering.KILLERS,
+      MoveOrdering.HASH_MOVE | MoveOrdering.KILLERS | MoveOrdering.HISTORY,
+      MoveOrdering.ALL,
+  };
+  // the names of the sets of move ordering heuristics
+  private static final String[] ORDERING_NAMES = {
+      "hash move", "+ killers", "+ history", "+ priors",
+  };
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of threads to compare against one thread, which defaults to the
+   *             number of processors, or "ordering" to compare move orderings, and how many
+   *             depths deeper to search than the default depth of each position, which
+   *             defaults to 0.
+   */
+  public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals("ordering")) {
+      compareOrderings((args.length > 1) ? Integer.parseInt(args[1]) : 0);
+      return;
+    }
+    int threads = (args.length > 0) ? Integer.parseInt(args[0])
+            : Runtime.getRuntime().availableProcessors();
+    int extraDepth = (args.length > 1) ? Integer.parseInt(args[1]) : 0;
+    System.out.println("threads: " + threads);
+    double totalOne = 0;
+    double totalMany = 0;
+    for (int[] position : POSITIONS) {
+      int size = position[0];
+      int depth = position[2] + extraDepth;
+      // the first run of each position only warms up the compiler
+      search(size, position[1], depth, 1);
+      Result one = search(size, position[1], depth, 1);
+      Result many = search(size, position[1], depth, threads);
+      totalOne += one.seconds;
+      totalMany += many.seconds;
+      System.out.printf("size %d after %d moves, depth %d:%n", size, position[1], depth);
+      System.out.printf("  1 thread:   %8.3f s %12.0f nodes/s%n", one.seconds,
+              one.nodes / one.seconds);
+      System.out.printf("  %d threads: %8.3f s %12.0f nodes/s  speedup %.2f%n", threads,
+              many.seconds, many.nodes / many.seconds, one.seconds / many.seconds);
+    }
+    System.out.printf("total time-to-depth speedup: %.2f%n", totalOne / totalMany);
+  }
+
+  /**
+   * Searches every fixed position with each set of move ordering heuristics, and prints the
+   * positions visited by each search and the total for each set.
+   *
+   * @param extraDepth how many depths deeper to search than the default depth of each
+   *                   position.
+   */
+  private static void compareOrderings(int extraDepth) {
+    long[] totals = new long[ORDERINGS.length];
+    for (int[] position : POSITIONS) {
+      int depth = position[2] + extraDepth;
+      System.out.printf("size %d after %d moves, depth %d:%n", position[0], position[1],
+              depth);
+      for (int i = 0; i < ORDERINGS.length; i++) {
+        Result result = search(position[0], position[1], depth, 1, ORDERINGS[i]);
+        totals[i] += result.nodes;
+        System.out.printf("  %-10s %12d nodes %8.3f s%n", ORDERING_NAMES[i], result.nodes,
+                result.seconds);
+      }
+    }
+    System.out.println("total:");
+    for (int i = 0; i < ORDERINGS.length; i++) {
+      System.out.printf("  %-10s %12d nodes  %.2f of hash move alone%n", ORDERING_NAMES[i],
+              totals[i], (double) totals[i] / totals[0]);
+    }
+  }
+
+  /**
+   * Searches one of the fixed positions to the given depth with every move ordering
+   * heuristic.
+   *
+   * @param size    the size of the board.
+   * @param opening the number of moves played from the start before searching.
+   * @param depth   the depth to search to.
+   * @param threads the number of threads to search with.
+   * @return the time taken and the positions visited.
+   */
+  private static Result search(int size, int opening, int depth, int threads) {
+    return search(size, opening, depth, threads, MoveOrdering.ALL);
+  }
+
+  /**
+   * Searches one of the fixed positions to the given depth.
+   *
+   * @param size     the size of the board.
+   * @param opening  the number of moves played from the start before searching.
+   * @param depth    the depth to search to.
+   * @param threads  the number of threads to search with.
+   * @param ordering the move ordering heuristics to use, as MoveOrdering features.
+   * @return the time taken and the positions visited.
+   */
+  private static Result search(int size, int opening, int depth, int threads, int ordering) {
+    ReversiModel model = new ReversiModelStandard(size);
+    PlayerColor color = playOpening(model, opening);
+    // the time budget is long enough that every search reaches its depth
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(model, 3_600_000, depth,
+            new MobilityEvaluator(), new TranspositionTable(TABLE_MEGABYTES), threads,
+            ordering);
+    long start = System.nanoTime();
+    strategy.chooseMove(color);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    return new Result(seconds, strategy.getLastNodes());
+  }
+
+  /**
+   * Plays the given number of moves from the start of a game, where each color plays the
+   * middle one of its legal moves, so that the positions are the same in every run.
+   *
+   * @param model   a model at the start of a game.
+   * @param opening the number of moves to play.
+   * @return the color to move after the opening.
+   */
+  private static PlayerColor playOpening(ReversiModel model, int opening) {
+    PlayerColor color = PlayerColor.BLACK;
+    for (int i = 0; i < opening; i++) {
+      List<LegalMove> moves = model.getLegalMoves(color);
+      if (moves.isEmpty()) {
+        model.pass(color);
+      } else {
+        LegalMove move = moves.get(moves.size() / 2);
+        model.placeTile(color, move.getQ(), move.getR());
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    return color;
+  }
+
+  /**
+   * The time taken and the positions visited by one search.
+   */
+  private static final class Result {
+    private final double seconds;
+    private final long nodes;
+
+    /**
+     * Constructs the result of a search.
+     *
+     * @param seconds the time the search took, in seconds.
+     * @param nodes   the number of positions the search visited.
+     */
+    private Result(double seconds, long nodes) {
+      this.seconds = seconds;
+      this.nodes = nodes;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package cs3500.reversi;
+
+import cs3500.reversi.controller.HeadlessGame;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.model.Scores;
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * Plays many games in a row between two strategies with no view, and prints how the games
+ * went and how fast they were played. Each game gets a new model and new strategies, and is
+ * played by a HeadlessGame. The strategies are named as for Reversi, so any machine player
+ * of the game can be measured, and the games per second and moves per second tell how much
+ * self-play the hardware can run, such as for evaluating a change to a strategy overnight.
+ */
+public final class SelfPlayRunner {
+
+  /**
+   * Runs the games and prints the results.
+   *
+   * @param args the strategy of black, the strategy of white, the board size and the number
+   *             of games, which default to capture, corner, 7 and 100.
+   * @throws IllegalArgumentException if a strategy is not a machine player of Reversi, or
+   *                                  the size or number of games is not valid.
+   */
+  public static void main(String[] args) {
+    String blackType = (args.length > 0) ? args[0] : "capture";
+    String whiteType = (args.length > 1) ? args[1] : "corner";
+    int size = (args.length > 2) ? Integer.parseInt(args[2]) : 7;
+    int games = (args.length > 3) ? Integer.parseInt(args[3]) : 100;
+    if (games <= 0) {
+      throw new IllegalArgumentException("the number of games must be positive");
+    }
+    int[] results = new int[3];
+    long difference = 0;
+    long moves = 0;
+    long blackNanos = 0;
+    long whiteNanos = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < games; i++) {
+      ReversiModel model = new ReversiModelStandard(size);
+      HeadlessGame game = new HeadlessGame(model, Reversi.createStrategy(blackType, model),
+              Reversi.createStrategy(whiteType, model));
+      Scores scores = game.play();
+      int blackLead = scores.getDifference(PlayerColor.BLACK);
+      results[(blackLead > 0) ? 0 : (blackLead < 0) ? 1 : 2]++;
+      difference += blackLead;
+      moves += game.getMoveCount();
+      blackNanos += game.getThinkingNanos(PlayerColor.BLACK);
+      whiteNanos += game.getThinkingNanos(PlayerColor.WHITE);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%s (black) against %s (white), size %d, %d games%n", blackType,
+            whiteType, size, games);
+    System.out.printf("black won %d, white won %d, %d ties, average lead for black %.2f%n",
+            results[0], results[1], results[2], (double) difference / games);
+    System.out.printf("%.1f s, %.2f games/s, %.1f moves/s%n", seconds, games / seconds,
+            moves / seconds);
+    System.out.printf("thinking time per game: black %.2f ms, white %.2f ms%n",
+            blackNanos / 1e6 / games, whiteNanos / 1e6 / games);
+  }
+}
@@ -0,0 +1,64 @@
+package cs3500.reversi;
+
+import java.util.Arrays;
+import java.util.List;
+
+import cs3500.reversi.controller.Tournament;
+import cs3500.reversi.model.ReversiModelStandard;
+
+/**
+ * Plays a round robin or gauntlet tournament between strategies named as for Reversi, and
+ * prints the record of each entrant with how fast the games were played. Running it twice
+ * with the same arguments plays the same openings, so changes to a strategy can be compared
+ * from one night to the next.
+ */
+public final class TournamentRunner {
+  // the number of random moves each opening starts with
+  private static final int OPENING_PLIES = 4;
+
+  /**
+   * Runs the tournament and prints the results.
+   *
+   * @param args "roundrobin" or "gauntlet", the board size, the number of openings of each
+   *             match, the number of threads, the seed, and then the strategies of the
+   *             entrants, where the first is the challenger of a gauntlet. The strategies
+   *             default to capture, corner and both.
+   * @throws IllegalArgumentException if there are too few arguments or one is not valid.
+   */
+  public static void main(String[] args) {
+    if (args.length < 5) {
+      throw new IllegalArgumentException("Expected a mode, size, openings, threads and seed.");
+    }
+    boolean gauntlet = args[0].equalsIgnoreCase("gauntlet");
+    if (!gauntlet && !args[0].equalsIgnoreCase("roundrobin")) {
+      throw new IllegalArgumentException("Invalid tournament mode");
+    }
+    int size = Integer.parseInt(args[1]);
+    int openings = Integer.parseInt(args[2]);
+    int threads = Integer.parseInt(args[3]);
+    long seed = Long.parseLong(args[4]);
+    List<String> entrants = (args.length > 5)
+            ? Arrays.asList(args).subList(5, args.length)
+            : Arrays.asList("capture", "corner", "both");
+    Tournament tournament = new Tournament(size, openings, OPENING_PLIES, seed);
+    for (String entrant : entrants) {
+      // making a strategy once checks its name before any game is played
+      Reversi.createStrategy(entrant, new ReversiModelStandard(size));
+      tournament.addEntrant(entrant,
+              (model, gameSeed) -> Reversi.createStrategy(entrant, model, gameSeed));
+    }
+    long start = System.nanoTime();
+    List<Tournament.Record> records = gauntlet
+            ? tournament.gauntlet(entrants.get(0), threads) : tournament.roundRobin(threads);
+    double seconds = (System.nanoTime() - start) / 1e9;
+    int games = 0;
+    for (Tournament.Record record : records) {
+      System.out.println(record);
+      games += record.getGames();
+    }
+    // every game is in the records of both of its entrants
+    games /= 2;
+    System.out.printf("%d games on %d threads in %.1f s, %.2f games/s%n", games, threads,
+            seconds, games / seconds);
+  }
+}
@@ -0,0 +1,132 @@
+package cs3500.reversi.controller;
+
+import java.util.Optional;
+
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.Scores;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Plays a game of reversi between two strategies with no view and no players, for running
+ * many games in a row as fast as the strategies allow. The game is played by asking the
+ * strategy of the color whose turn it is for a move until the game is over, where a color
+ * passes only when its strategy finds no move, and any other move the strategy chooses must
+ * be legal. Nothing listens to the model, so a move is only the strategy's choice and
+ * the change to the board.
+ */
+public final class HeadlessGame {
+  // the model of the game, which only this game changes
+  private final ReversiModel model;
+  // the strategies of the two colors
+  private final Strategy black;
+  private final Strategy white;
+  // the number of tiles placed and the number of passes so far
+  private int moves;
+  private int passes;
+  // the total time each color's strategy has spent choosing moves, in nanoseconds
+  private long blackNanos;
+  private long whiteNanos;
+
+  /**
+   * The constructor for a headless game.
+   *
+   * @param model the model of the game, which each strategy reads.
+   * @param black the strategy of black, which reads the given model.
+   * @param white the strategy of white, which reads the given model.
+   * @throws IllegalArgumentException if any argument is null.
+   */
+  public HeadlessGame(ReversiModel model, Strategy black, Strategy white) {
+    if (model == null || black == null || white == null) {
+      throw new IllegalArgumentException("model and strategies cannot be null");
+    }
+    this.model = model;
+    this.black = black;
+    this.white = white;
+  }
+
+  /**
+   * Plays the game until it is over.
+   *
+   * @return the final scores of the game.
+   * @throws IllegalStateException if the game is already over, or a strategy chooses a
+   *                               move that is not legal.
+   */
+  public Scores play() {
+    if (this.model.isGameOver()) {
+      throw new IllegalStateException("The game is already over.");
+    }
+    while (!this.model.isGameOver()) {
+      this.playTurn();
+    }
+    return this.model.getScores();
+  }
+
+  /**
+   * Plays the turn of the color to move, which places the tile its strategy chooses or
+   * passes if its strategy finds no move.
+   *
+   * @throws IllegalStateException if the strategy chooses a move that is not legal, such as
+   *                               a cell that already has a tile.
+   */
+  private void playTurn() {
+    PlayerColor color = this.model.curPlayer();
+    long start = System.nanoTime();
+    Optional<HexCoordinates> move = ((color == PlayerColor.BLACK) ? this.black : this.white)
+            .chooseMove(color);
+    long elapsed = System.nanoTime() - start;
+    if (color == PlayerColor.BLACK) {
+      this.blackNanos += elapsed;
+    } else {
+      this.whiteNanos += elapsed;
+    }
+    if (move.isPresent()) {
+      int q = move.get().getQ();
+      int r = move.get().getR();
+      if (!this.model.isValidMove(q, r, color)) {
+        throw new IllegalStateException("The strategy of " + color
+                + " chose a move that is not legal.");
+      }
+      this.model.placeTile(color, q, r);
+      this.moves++;
+    } else {
+      this.model.pass(color);
+      this.passes++;
+    }
+  }
+
+  /**
+   * Returns the number of tiles placed in this game so far.
+   *
+   * @return the number of moves, not counting passes.
+   */
+  public int getMoveCount() {
+    return this.moves;
+  }
+
+  /**
+   * Returns the number of times a color passed in this game so far.
+   *
+   * @return the number of passes.
+   */
+  public int getPassCount() {
+    return this.passes;
+  }
+
+  /**
+   * Returns the total time the strategy of the given color has spent choosing moves.
+   *
+   * @param color the color to get the time of.
+   * @return the time in nanoseconds.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  public long getThinkingNanos(PlayerColor color) {
+    if (color == PlayerColor.BLACK) {
+      return this.blackNanos;
+    } else if (color == PlayerColor.WHITE) {
+      return this.whiteNanos;
+    }
+    throw new IllegalArgumentException("the empty color does not play");
+  }
+}
@@ -0,0 +1,359 @@
+package cs3500.reversi.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReadonlyReversiModel;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.model.Scores;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Plays matches between strategies as a round robin, where every entrant plays every other,
+ * or as a gauntlet, where one entrant plays each of the others. Each match is played from the
+ * same set of openings of a few random moves, and every opening is played twice with the
+ * colors swapped, so neither entrant gains from the openings or from moving first. Every game
+ * is played headless on its own model with new strategies, so the games of a tournament run
+ * at once on a work-stealing pool of threads. The openings, and the seed each game's
+ * strategies are made with, come only from the seed and the order of the games, and the
+ * results are added up in the order of the games after all of them are over, so the same
+ * seed gives the same results however the threads run, as long as the strategies themselves
+ * choose the same moves given the same position and seed, which searches with a time budget
+ * may not.
+ */
+public final class Tournament {
+  // the size of the board of every game
+  private final int size;
+  // the number of openings each match is played from, each played once as each color
+  private final int openings;
+  // the number of random moves of each opening
+  private final int openingPlies;
+  // the seed the openings and the seeds of the games are chosen from
+  private final long seed;
+  // the name and strategy maker of each entrant, in the order they were added
+  private final List<String> names;
+  private final List<BiFunction<ReadonlyReversiModel, Long, Strategy>> factories;
+
+  /**
+   * The constructor for a tournament with no entrants.
+   *
+   * @param size         the size of the board of every game.
+   * @param openings     the number of openings each match is played from, so each match is
+   *                     twice this many games.
+   * @param openingPlies the number of random moves each opening starts with.
+   * @param seed         the seed the openings and the seeds of the games are chosen from.
+   * @throws IllegalArgumentException if the size is not a board size, the openings are not
+   *                                  positive or the opening plies are negative.
+   */
+  public Tournament(int size, int openings, int openingPlies, long seed) {
+    // constructing a board checks the size
+    new Board(size);
+    if (openings <= 0) {
+      throw new IllegalArgumentException("openings must be positive");
+    }
+    if (openingPlies < 0) {
+      throw new IllegalArgumentException("opening plies cannot be negative");
+    }
+    this.size = size;
+    this.openings = openings;
+    this.openingPlies = openingPlies;
+    this.seed = seed;
+    this.names = new ArrayList<>();
+    this.factories = new ArrayList<>();
+  }
+
+  /**
+   * Adds an entrant to this tournament.
+   *
+   * @param name    the name of the entrant, which no other entrant has.
+   * @param factory makes the entrant's strategy for a game from the model and the seed of
+   *                that game, where the seed is for any randomness of the strategy, and may
+   *                be called from many threads at once.
+   * @throws IllegalArgumentException if an argument is null or the name is taken.
+   */
+  public void addEntrant(String name,
+                         BiFunction<ReadonlyReversiModel, Long, Strategy> factory) {
+    if (name == null || factory == null) {
+      throw new IllegalArgumentException("name and factory cannot be null");
+    }
+    if (this.names.contains(name)) {
+      throw new IllegalArgumentException("There is already an entrant named " + name + ".");
+    }
+    this.names.add(name);
+    this.factories.add(factory);
+  }
+
+  /**
+   * Plays a match between every two entrants.
+   *
+   * @param threads the number of threads to play the games on.
+   * @return the record of each entrant, in the order the entrants were added.
+   * @throws IllegalArgumentException if there are fewer than two entrants or the threads
+   *                                  are not positive.
+   * @throws IllegalStateException    if a strategy chooses a move that is not legal, or the
+   *                                  calling thread is interrupted.
+   */
+  public List<Record> roundRobin(int threads) {
+    List<int[]> matches = new ArrayList<>();
+    for (int first = 0; first < this.names.size(); first++) {
+      for (int second = first + 1; second < this.names.size(); second++) {
+        matches.add(new int[]{first, second});
+      }
+    }
+    return this.play(matches, threads);
+  }
+
+  /**
+   * Plays a match between the given entrant and every other entrant.
+   *
+   * @param challenger the name of the entrant who plays every match.
+   * @param threads    the number of threads to play the games on.
+   * @return the record of each entrant, in the order the entrants were added.
+   * @throws IllegalArgumentException if there is no entrant of the given name, there are
+   *                                  fewer than two entrants or the threads are not positive.
+   * @throws IllegalStateException    if a strategy chooses a move that is not legal, or the
+   *                                  calling thread is interrupted.
+   */
+  public List<Record> gauntlet(String challenger, int threads) {
+    int first = this.names.indexOf(challenger);
+    if (first < 0) {
+      throw new IllegalArgumentException("There is no entrant named " + challenger + ".");
+    }
+    List<int[]> matches = new ArrayList<>();
+    for (int second = 0; second < this.names.size(); second++) {
+      if (second != first) {
+        matches.add(new int[]{first, second});
+      }
+    }
+    return this.play(matches, threads);
+  }
+
+  /**
+   * Plays every game of the given matches on a pool of threads, and adds up the results in
+   * the order of the games.
+   *
+   * @param matches the two entrants of each match.
+   * @param threads the number of threads to play the games on.
+   * @return the record of each entrant, in the order the entrants were added.
+   * @throws IllegalArgumentException if there are fewer than two entrants or the threads
+   *                                  are not positive.
+   * @throws IllegalStateException    if a game cannot be played, or the calling thread is
+   *                                  interrupted.
+   */
+  private List<Record> play(List<int[]> matches, int threads) {
+    if (this.names.size() < 2) {
+      throw new IllegalArgumentException("a tournament needs at least two entrants");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    List<List<HexCoordinates>> openingMoves = new ArrayList<>();
+    for (int opening = 0; opening < this.openings; opening++) {
+      openingMoves.add(this.opening(new SplittableRandom(this.seed + opening)));
+    }
+    // the seed of each game is the next seed of this stream in the order of the games, so
+    // it only depends on the tournament's seed and the game's place in that order
+    SplittableRandom gameSeeds = new SplittableRandom(this.seed).split();
+    // the games in order: each match, then each opening, then the first entrant as black
+    // and as white
+    List<Callable<Scores>> games = new ArrayList<>();
+    for (int[] match : matches) {
+      for (List<HexCoordinates> opening : openingMoves) {
+        long firstSeed = gameSeeds.nextLong();
+        long secondSeed = gameSeeds.nextLong();
+        games.add(() -> this.playGame(opening, match[0], match[1], firstSeed));
+        games.add(() -> this.playGame(opening, match[1], match[0], secondSeed));
+      }
+    }
+    List<Record> records = new ArrayList<>();
+    for (String name : this.names) {
+      records.add(new Record(name));
+    }
+    ExecutorService pool = Executors.newWorkStealingPool(threads);
+    try {
+      List<Future<Scores>> results = pool.invokeAll(games);
+      for (int game = 0; game < results.size(); game++) {
+        int[] match = matches.get(game / (2 * this.openings));
+        boolean swapped = game % 2 == 1;
+        int difference = results.get(game).get().getDifference(PlayerColor.BLACK);
+        records.get(swapped ? match[1] : match[0]).add(difference);
+        records.get(swapped ? match[0] : match[1]).add(-difference);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The tournament was interrupted.");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game could not be played: " + e.getCause().getMessage(),
+              e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return records;
+  }
+
+  /**
+   * Chooses the moves of an opening at random, stopping early if a color has no move.
+   *
+   * @param random the randomness of the moves.
+   * @return the moves of the opening in order, starting with black.
+   */
+  private List<HexCoordinates> opening(SplittableRandom random) {
+    ReversiModel model = new ReversiModelStandard(this.size);
+    List<HexCoordinates> moves = new ArrayList<>();
+    for (int ply = 0; ply < this.openingPlies; ply++) {
+      PlayerColor color = model.curPlayer();
+      List<LegalMove> legal = model.getLegalMoves(color);
+      if (legal.isEmpty()) {
+        break;
+      }
+      HexCoordinates move = legal.get(random.nextInt(legal.size())).getCoordinates();
+      model.placeTile(color, move.getQ(), move.getR());
+      moves.add(move);
+    }
+    return moves;
+  }
+
+  /**
+   * Plays one game from the given opening on a new model.
+   *
+   * @param opening the moves the game starts with.
+   * @param black   the entrant who plays black.
+   * @param white   the entrant who plays white.
+   * @param seed    the seed both strategies of the game are made with.
+   * @return the final scores of the game.
+   */
+  private Scores playGame(List<HexCoordinates> opening, int black, int white, long seed) {
+    ReversiModel model = new ReversiModelStandard(this.size);
+    for (HexCoordinates move : opening) {
+      model.placeTile(model.curPlayer(), move.getQ(), move.getR());
+    }
+    return new HeadlessGame(model, this.factories.get(black).apply(model, seed),
+            this.factories.get(white).apply(model, seed)).play();
+  }
+
+  /**
+   * The wins, losses, draws and tiles of one entrant of a tournament. A record never
+   * changes once the tournament returns it.
+   */
+  public static final class Record {
+    // the name of the entrant
+    private final String name;
+    // the number of games won, lost and drawn
+    private int wins;
+    private int losses;
+    private int draws;
+    // the sum over every game of the entrant's final difference in tiles
+    private long differential;
+
+    /**
+     * The constructor for the record of an entrant who has played no games.
+     *
+     * @param name the name of the entrant.
+     */
+    private Record(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Adds a game to this record.
+     *
+     * @param difference the entrant's final difference in tiles in the game.
+     */
+    private void add(int difference) {
+      if (difference > 0) {
+        this.wins++;
+      } else if (difference < 0) {
+        this.losses++;
+      } else {
+        this.draws++;
+      }
+      this.differential += difference;
+    }
+
+    /**
+     * Returns the name of the entrant.
+     *
+     * @return the name.
+     */
+    public String getName() {
+      return this.name;
+    }
+
+    /**
+     * Returns the number of games the entrant won.
+     *
+     * @return the wins.
+     */
+    public int getWins() {
+      return this.wins;
+    }
+
+    /**
+     * Returns the number of games the entrant lost.
+     *
+     * @return the losses.
+     */
+    public int getLosses() {
+      return this.losses;
+    }
+
+    /**
+     * Returns the number of games the entrant drew.
+     *
+     * @return the draws.
+     */
+    public int getDraws() {
+      return this.draws;
+    }
+
+    /**
+     * Returns the number of games the entrant played.
+     *
+     * @return the games.
+     */
+    public int getGames() {
+      return this.wins + this.losses + this.draws;
+    }
+
+    /**
+     * Returns the sum of the entrant's final difference in tiles over every game.
+     *
+     * @return the disc differential, which is negative if the entrant had fewer tiles.
+     */
+    public long getDifferential() {
+      return this.differential;
+    }
+
+    /**
+     * Returns the points of the entrant, one for each win and a half for each draw.
+     *
+     * @return the points.
+     */
+    public double getPoints() {
+      return this.wins + this.draws / 2.0;
+    }
+
+    /**
+     * Returns this record as one line of a table of results.
+     *
+     * @return the name, wins, losses, draws, points and differential of the entrant.
+     */
+    @Override
+    public String toString() {
+      return String.format("%s: %d wins, %d losses, %d draws, %.1f points, differential %+d",
+              this.name, this.wins, this.losses, this.draws, this.getPoints(), this.differential);
+    }
+  }
+}
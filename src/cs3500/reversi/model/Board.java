@@ -1,7 +1,10 @@
 package cs3500.reversi.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.random.RandomGenerator;
 
 import cs3500.reversi.player.PlayerColor;
 
@@ -11,18 +14,51 @@ import cs3500.reversi.player.PlayerColor;
  * is made up of axial coordinates q,r and each hex coordinate is mapped to
  * a color, where a color can be one of BLACK, WHITE, or EMPTY. A board
  * cannot have an even size and have a size greater than three.
+ * Internally every hex coordinate is given a linear cell index, and the tiles
+ * of each color are stored as a bitset over those indices, so that checking,
+ * placing and counting tiles are done with word operations. The board also keeps a
+ * Zobrist hash of its tiles up to date with every placement and flip.
  */
 public class Board {
-  // maps the Axial Hex Coordinates to a PlayerColor
-  // the coordinates have a q and r component
-  // the PlayerColor is one of Black, White, or Empty for tiles that players have not moved to yet
-  private HashMap<HexCoordinates, PlayerColor> board;
   // the size of the board which cannot be less than 5 or even
   private final int size;
   // CLASS INVARIANT: SIZE CANNOT BE EVEN OR LESS THAN OR EQUAL TO THREE
   // AS THE CONSTRUCTOR WILL ENFORCE THIS SIZE BY THROWING AN ILLEGAL ARGUMENT
   // EXCEPTION IF IT IS NOT A VALID SIZE
 
+  // the cell indices and diagonals of this board, shared with every board of the same size
+  private final BoardGeometry geometry;
+
+  // the set of cell indices with a black tile and with a white tile, where a cell
+  // in neither set is EMPTY
+  // INVARIANT: NO CELL INDEX IS IN BOTH SETS
+  private final long[] black;
+  private final long[] white;
+  // the number of black tiles and white tiles on this board, which are kept up to date
+  // by every move so that scores never need to count the bitsets
+  private int blackCount;
+  private int whiteCount;
+  // the Zobrist hash of the tiles on this board, which is kept up to date by every move
+  private long hash;
+  // the set of empty playable cells next to at least one tile, which are the only cells
+  // a legal move can be made at, kept up to date by every move so that finding moves
+  // scales with the number of tiles instead of the area of the board
+  private final long[] frontier;
+  // the frontier tiles, corner tiles and stable tiles of each color, which are kept up to
+  // date by every move so that evaluating a position never scans the board, or null if
+  // this board does not track them because it is never evaluated
+  private BoardFeatures features;
+  // scratch bitsets reused by every move to collect the tiles being flipped and the tiles
+  // becoming stable, so making a move does not allocate, which are never shared between
+  // boards
+  private final long[] flips;
+  private final long[] stable;
+  // the records of the undoable moves made on this board that have not been unmade yet,
+  // from oldest to newest, where the records past the depth are kept to be reused
+  private MoveRecord[] history;
+  // the number of undoable moves that have not been unmade yet
+  private int depth;
+
   /**
    * The constructor for this Board.
    *
@@ -30,8 +66,40 @@ public class Board {
    */
   public Board(int size) {
     this.size = this.checkBoardSize(size);
-    this.board = new HashMap<>();
+    this.geometry = BoardGeometry.of(size);
+    this.black = new long[this.geometry.words()];
+    this.white = new long[this.geometry.words()];
+    this.flips = new long[this.geometry.words()];
+    this.stable = new long[this.geometry.words()];
+    this.history = new MoveRecord[0];
     this.initBoard();
+    this.blackCount = 3;
+    this.whiteCount = 3;
+    this.hash = this.computeHash();
+    this.frontier = this.computeFrontier();
+  }
+
+  /**
+   * Constructs a copy of the given board, which shares the given board's geometry
+   * and has its own copy of the tiles, and tracks its features iff the given board does.
+   *
+   * @param other the board to copy.
+   */
+  private Board(Board other) {
+    this.size = other.size;
+    this.geometry = other.geometry;
+    this.black = other.black.clone();
+    this.white = other.white.clone();
+    this.blackCount = other.blackCount;
+    this.whiteCount = other.whiteCount;
+    this.hash = other.hash;
+    this.frontier = other.frontier.clone();
+    if (other.features != null) {
+      this.features = new BoardFeatures(other.features, this.black, this.white);
+    }
+    this.flips = new long[this.geometry.words()];
+    this.stable = new long[this.geometry.words()];
+    this.history = new MoveRecord[0];
   }
 
   /**
@@ -58,31 +126,12 @@ public class Board {
    * are initialized as EMPTY.
    */
   private void initBoard() {
-    // iterates over q to go through the horizontal rows
-    PlayerColor prev = PlayerColor.BLACK;
-    for (int q = -size + 1; q < size; q++) {
-      // gets the diagonal values r1 and r2
-      int r1 = Math.max(-size + 1, -size - q);
-      int r2 = Math.min(size - 1, size - q - 1);
-      for (int r = r1; r <= r2; r++) {
-        HexCoordinates axialCoords = new HexCoordinates(q, r);
-        int s = -(q + r);
-        // place tiles around the center
-        if (Math.abs(q) + Math.abs(s) + Math.abs(r) == 2) {
-          board.put(axialCoords, prev);
-          // check this so that the initialization correctly does every other around the center
-          if (r != 1) {
-            if (prev == PlayerColor.BLACK) {
-              prev = PlayerColor.WHITE;
-            } else {
-              prev = PlayerColor.BLACK;
-            }
-          }
-        } else {
-          board.put(axialCoords, PlayerColor.EMPTY);
-        }
-      }
-    }
+    setBit(this.black, this.geometry.indexOf(1, -1));
+    setBit(this.black, this.geometry.indexOf(-1, 0));
+    setBit(this.black, this.geometry.indexOf(0, 1));
+    setBit(this.white, this.geometry.indexOf(0, -1));
+    setBit(this.white, this.geometry.indexOf(1, 0));
+    setBit(this.white, this.geometry.indexOf(-1, 1));
   }
 
   /**
@@ -91,7 +140,12 @@ public class Board {
    * @return the hashmap representation of this board.
    */
   public HashMap<HexCoordinates, PlayerColor> getBoard() {
-    return new HashMap<>(this.board);
+    HashMap<HexCoordinates, PlayerColor> map = new HashMap<>();
+    for (int index = 0; index < this.geometry.cellCount(); index++) {
+      map.put(new HexCoordinates(this.geometry.qAt(index), this.geometry.rAt(index)),
+              this.colorAt(index));
+    }
+    return map;
   }
 
   /**
@@ -107,160 +161,325 @@ public class Board {
    * @throws IllegalArgumentException if the color passed in is EMPTY
    */
   void makeMove(int q, int r, PlayerColor color) {
+    this.applyMove(q, r, color, this.flips, this.stable);
+  }
+
+  /**
+   * Makes a move the same way as makeMove, and returns a record of the move which can be
+   * given to unmakeMove to put this board back the way it was before the move. Undoable
+   * moves must be unmade in the reverse order they were made, which lets a search walk
+   * down and back up a tree of moves on one board without copying it. Records are reused
+   * by this board, so making undoable moves does not allocate once the deepest line of
+   * moves has been reached.
+   *
+   * @param q     q coordinate of the hex tile
+   * @param r     r coordinate of the hex tile
+   * @param color color of the tile being played.
+   * @return the record of the move, which is valid until it is unmade.
+   * @throws IllegalArgumentException if the color passed in is EMPTY or the coordinates
+   *                                  are not on the board
+   * @throws IllegalStateException    if it is not a valid move
+   */
+  public MoveRecord makeUndoableMove(int q, int r, PlayerColor color) {
+    if (this.depth == this.history.length) {
+      this.history = Arrays.copyOf(this.history, Math.max(8, 2 * this.depth));
+    }
+    if (this.history[this.depth] == null) {
+      this.history[this.depth] = new MoveRecord(this.geometry.words());
+    }
+    MoveRecord record = this.history[this.depth];
+    int flipped = this.applyMove(q, r, color, record.getFlips(), record.getStable());
+    record.set(this.geometry.indexOf(q, r), q, r, color, flipped);
+    this.depth++;
+    return record;
+  }
+
+  /**
+   * Unmakes the given move, which removes the placed tile and flips every tile that the
+   * move flipped back to the opposite color.
+   *
+   * @param record the record of the most recent undoable move made on this board.
+   * @throws IllegalStateException if the record is not the most recent undoable move
+   *                               that has not been unmade.
+   */
+  public void unmakeMove(MoveRecord record) {
+    if (this.depth == 0 || this.history[this.depth - 1] != record) {
+      throw new IllegalStateException("Only the most recent move can be unmade.");
+    }
+    PlayerColor color = record.getColor();
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    long[] flipped = record.getFlips();
+    if (this.features != null) {
+      this.features.unplacing(record.getCell(), color, flipped, record.getStable());
+    }
+    for (int word = 0; word < flipped.length; word++) {
+      own[word] &= ~flipped[word];
+      other[word] |= flipped[word];
+    }
+    clearBit(own, record.getCell());
+    this.updateFrontierAround(record.getCell());
+    this.hash ^= this.geometry.tileKey(record.getCell(), color) ^ this.flipHash(flipped);
+    this.addToScore(color, -(record.getFlipCount() + 1));
+    this.addToScore(opposite(color), record.getFlipCount());
+    this.depth--;
+  }
+
+  /**
+   * Checks that the given move can be made, and makes it by placing the tile and
+   * flipping every sandwiched tile.
+   *
+   * @param q      q coordinate of the hex tile
+   * @param r      r coordinate of the hex tile
+   * @param color  color of the tile being played.
+   * @param mask   the bitset to fill with the cells that are flipped.
+   * @param stable the bitset to fill with the tiles that become stable.
+   * @return the number of tiles flipped.
+   * @throws IllegalArgumentException if the color passed in is EMPTY or the coordinates
+   *                                  are not on the board
+   * @throws IllegalStateException    if it is not a valid move
+   */
+  private int applyMove(int q, int r, PlayerColor color, long[] mask, long[] stable) {
     isColorEmpty(color);
-    boolean anyFlipped = false;
     if (!isValidCoordinates(q, r)) {
       throw new IllegalArgumentException("Invalid coordinates.");
     }
-    // have to add this so that when we clone the model, it doesn't throw an error for the original
+    // the tiles surrounding the center are never able to be played on
     boolean isNotOriginal = Math.abs(q) + Math.abs(r) + Math.abs(-q - r) != 2;
-    if (!this.isValidMove(q, r, color) && isNotOriginal) {
+    int index = this.geometry.indexOf(q, r);
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    int flipped = (!isNotOriginal || this.isOccupied(index))
+            ? 0 : this.collectFlips(index, own, other, mask);
+    if (flipped == 0) {
       throw new IllegalStateException("Not a valid move for this tile.");
-    } else {
-      if (!isNotOriginal) {
-        throw new IllegalStateException("Not a valid move for this tile.");
+    }
+    for (int word = 0; word < mask.length; word++) {
+      own[word] |= mask[word];
+      other[word] &= ~mask[word];
+    }
+    setBit(own, index);
+    this.updateFrontierAround(index);
+    if (this.features != null) {
+      this.features.placed(index, color, mask, stable);
+    }
+    this.hash ^= this.geometry.tileKey(index, color) ^ this.flipHash(mask);
+    this.addToScore(color, flipped + 1);
+    this.addToScore(opposite(color), -flipped);
+    return flipped;
+  }
+
+  /**
+   * Brings the frontier up to date at the given cell and at each cell next to it, after a
+   * tile has been placed at or removed from the given cell. Flipping tiles never changes
+   * the frontier, as it only depends on which cells have tiles.
+   *
+   * @param index the cell index a tile was placed at or removed from.
+   */
+  private void updateFrontierAround(int index) {
+    this.updateFrontierAt(index);
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(index, dir);
+      if (ray.length > 0) {
+        this.updateFrontierAt(ray[0]);
       }
-      ArrayList<ArrayList<HexCoordinates>> moves = this.findAllMoves(q, r, color);
-      for (ArrayList<HexCoordinates> move : moves) {
-        if (!move.isEmpty()) {
-          if (this.checkAllColors(move, color, q, r)) {
-            anyFlipped = true;
-          }
-        }
+    }
+  }
+
+  /**
+   * Adds the given cell to the frontier if it is an empty playable cell next to a tile,
+   * and removes it from the frontier otherwise.
+   *
+   * @param index a cell index of this board.
+   */
+  private void updateFrontierAt(int index) {
+    if (this.isFrontierCell(index)) {
+      setBit(this.frontier, index);
+    } else {
+      clearBit(this.frontier, index);
+    }
+  }
+
+  /**
+   * Determines if the given cell belongs in the frontier, which is when it is an empty
+   * playable cell next to at least one tile.
+   *
+   * @param index a cell index of this board.
+   * @return true iff a legal move could be made at the cell.
+   */
+  private boolean isFrontierCell(int index) {
+    if (this.isOccupied(index)
+            || (this.geometry.playableWord(index >>> 6) & (1L << index)) == 0) {
+      return false;
+    }
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(index, dir);
+      if (ray.length > 0 && this.isOccupied(ray[0])) {
+        return true;
       }
-      if (!anyFlipped) {
-        throw new IllegalStateException("Not a valid move for this tile.");
+    }
+    return false;
+  }
+
+  /**
+   * Computes the frontier of this board from its tiles. The board keeps its frontier up to
+   * date with every move, so this is only used to start it and to check it.
+   *
+   * @return the set of empty playable cells next to at least one tile.
+   */
+  long[] computeFrontier() {
+    long[] cells = new long[this.geometry.words()];
+    for (int index = 0; index < this.geometry.cellCount(); index++) {
+      if (this.isFrontierCell(index)) {
+        setBit(cells, index);
       }
     }
+    return cells;
   }
 
   /**
-   * determines if the coordinates are valid.
+   * Returns a copy of the frontier this board keeps up to date.
    *
-   * @param q the q value of the coordinate
-   * @param r the r value of the coordinate
-   * @return true iff the coordinate is within the board
+   * @return the set of empty playable cells next to at least one tile.
    */
-  boolean isValidCoordinates(int q, int r) {
-    return q >= -(size / 2)
-            && q <= (size / 2)
-            && r >= -(size / 2)
-            && r <= (size / 2)
-            && Math.abs(-q - r) + Math.abs(q) + Math.abs(r) <= (size - 1);
+  long[] getFrontier() {
+    return this.frontier.clone();
   }
 
+  /**
+   * Determines the change in this board's hash from flipping every tile in the given set.
+   *
+   * @param mask a bitset of the cells being flipped.
+   * @return the combined flip keys of the cells.
+   */
+  private long flipHash(long[] mask) {
+    long change = 0;
+    for (int word = 0; word < mask.length; word++) {
+      long bits = mask[word];
+      while (bits != 0) {
+        change ^= this.geometry.flipKey((word << 6) + Long.numberOfTrailingZeros(bits));
+        bits &= bits - 1;
+      }
+    }
+    return change;
+  }
 
   /**
-   * Produces a list of all possible lists of coordinates on diagonals from the given
-   * q, r axial coordinate which have another tile of the given color.
+   * Computes the Zobrist hash of the tiles on this board from scratch.
    *
-   * @param q     The q axial hex coordinate.
-   * @param r     The r axial hex coordinate.
-   * @param color The player color of the tile being placed on this board.
-   * @return A list of all possible lists of coordinates on diagonal from the given axial
-   *          coordinate that contain a valid move, returns an empty list if no possible moves
-   *          for the given player color at the given q,r coordinate.
+   * @return the combined keys of every tile on this board.
    */
-  private ArrayList<ArrayList<HexCoordinates>> findAllMoves(int q, int r, PlayerColor color) {
-    ArrayList<ArrayList<HexCoordinates>> findAllMoves = new ArrayList<>();
-    for (int qCoord = -1; qCoord <= 1; qCoord++) {
-      for (int rCoord = -1; rCoord <= 1; rCoord++) {
-        if (qCoord != rCoord) {
-          findAllMoves.add(this.findPossibleMoves(q, r, color, qCoord, rCoord));
-        }
+  long computeHash() {
+    long fresh = 0;
+    for (int index = 0; index < this.geometry.cellCount(); index++) {
+      PlayerColor color = this.colorAt(index);
+      if (color != PlayerColor.EMPTY) {
+        fresh ^= this.geometry.tileKey(index, color);
       }
     }
-    return findAllMoves;
+    return fresh;
   }
 
   /**
-   * Checks if all the player colors which the given list of axial coordinates are mapped to
-   * are all the same and of the opposite color of the given color, if so flips all
-   * of these tiles to be the given color and places a tile at the given q,r coordinate.
+   * Returns the Zobrist hash of the tiles on this board, which is the hash of this
+   * position with BLACK to move. Boards with the same tiles always have the same hash,
+   * and different positions have different hashes except in very rare collisions, so
+   * the hash can be used to key positions in tables.
    *
-   * @param hex   the hexagons we are checking to flip
-   * @param color the player color of the tile being placed.
+   * @return the hash of the tiles on this board.
    */
-  private boolean checkAllColors(ArrayList<HexCoordinates> hex, PlayerColor color, int q, int r) {
-    // see which color we need to flip
-    PlayerColor colorToCheck = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
-    boolean allSame = this.checkAllSame(hex, colorToCheck);
+  public long getHash() {
+    return this.hash;
+  }
 
-    if (allSame) {
-      this.flipColors(hex, color);
-      HexCoordinates hc = new HexCoordinates(q, r);
-      this.board.replace(hc, color);
-      return true;
-    }
-    return false;
+  /**
+   * Returns the Zobrist hash of this position with the given color to move.
+   *
+   * @param toMove the color that moves next.
+   * @return the hash of the tiles on this board combined with the color to move.
+   * @throws IllegalArgumentException if the color passed in is EMPTY
+   */
+  public long getHash(PlayerColor toMove) {
+    isColorEmpty(toMove);
+    return (toMove == PlayerColor.WHITE) ? this.hash ^ this.geometry.whiteToMoveKey() : this.hash;
   }
 
+  /**
+   * Adds the given amount to the number of tiles of the given color on this board.
+   *
+   * @param color  a BLACK or WHITE color.
+   * @param amount the change in the number of tiles of that color.
+   */
+  private void addToScore(PlayerColor color, int amount) {
+    if (color == PlayerColor.BLACK) {
+      this.blackCount += amount;
+    } else {
+      this.whiteCount += amount;
+    }
+  }
 
   /**
-   * Determines if the given list of coordinates are mapped to the given color
-   * in this board.
+   * Collects every tile that would be flipped by placing a tile at the cell at the
+   * given index into the given bitset, clearing anything the bitset held before.
    *
-   * @param hex   A list of hex axial coordinates.
-   * @param color A player color to check what
-   * @return true iff the given list of hex coordinates are all mapped to the given
-   *            color in this board.
+   * @param index the cell index a tile is being placed at.
+   * @param own   the tiles of the color being placed.
+   * @param other the tiles of the opposite color.
+   * @param mask  the bitset to fill with the cells that would be flipped.
+   * @return the number of tiles that would be flipped.
    */
-  private boolean checkAllSame(ArrayList<HexCoordinates> hex, PlayerColor color) {
-    for (HexCoordinates hc : hex) {
-      if (this.board.get(hc) != color) {
-        return false;
+  private int collectFlips(int index, long[] own, long[] other, long[] mask) {
+    Arrays.fill(mask, 0L);
+    int num = 0;
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(index, dir);
+      int captured = capturedAlong(ray, own, other);
+      for (int i = 0; i < captured; i++) {
+        setBit(mask, ray[i]);
       }
+      num += captured;
     }
-    return true;
+    return num;
   }
 
   /**
-   * flip the colors of the tiles.
+   * Determines if there is a tile of either color at the cell at the given index.
    *
-   * @param hex   the hexagon tiles we are flipping
-   * @param color the color that we are changing them to
+   * @param index a cell index of this board.
+   * @return true iff the cell is not EMPTY.
    */
-  private void flipColors(ArrayList<HexCoordinates> hex, PlayerColor color) {
-    for (HexCoordinates h : hex) {
-      this.board.replace(h, color);
-    }
+  private boolean isOccupied(int index) {
+    return testBit(this.black, index) || testBit(this.white, index);
   }
 
   /**
-   * Determines if another tile of the same color exists on the diagonal
-   * given by the qIncrement and rIncrement values. If it does, returns the
-   * list of all coordinates between the given q,r coordinate and the first
-   * tile of the same color. If no such tile exists returns an empty list
-   * of coordinates.
+   * determines if the coordinates are valid.
    *
-   * @param q          the q coordinate on the axial coordinate system
-   * @param r          the r coordinate on the axial coordinate system
-   * @param color      the color of a tile to be placed
-   * @param qIncrement the amount that we have to increment q by each time
-   * @param rIncrement the amount that we have to increment r by each time
-   * @return The list of coordinates between the given q,r coordinate and the first
-   *            tile of the same color on the given diagonal. If no such tile exists
-   *            returns an empty list.
+   * @param q the q value of the coordinate
+   * @param r the r value of the coordinate
+   * @return true iff the coordinate is within the board
    */
-  private ArrayList<HexCoordinates> findPossibleMoves(int q, int r, PlayerColor color,
-                                                      int qIncrement, int rIncrement) {
-    HexCoordinates hc = new HexCoordinates(q, r);
-    ArrayList<HexCoordinates> pc = new ArrayList<>();
+  boolean isValidCoordinates(int q, int r) {
+    return this.geometry.isPlayable(q, r);
+  }
 
-    boolean contains = true;
-    while (contains) {
-      q += qIncrement;
-      r += rIncrement;
-      HexCoordinates coords = new HexCoordinates(q, r);
-      if (this.board.get(coords) == null) {
-        contains = false;
-      } else if (this.board.get(coords) == color) {
-        return pc;
-      } else {
-        pc.add(coords);
+  /**
+   * Determines the number of tiles of the other color sandwiched between a placed tile
+   * and the first tile of the own color on the given diagonal.
+   *
+   * @param ray   the cells along a diagonal, moving away from the placed tile.
+   * @param own   the tiles of the color being placed.
+   * @param other the tiles of the opposite color.
+   * @return the number of tiles that would be flipped on the diagonal, which is 0 if the
+   *         run of opposite colored tiles is not closed off by a tile of the own color.
+   */
+  private static int capturedAlong(int[] ray, long[] own, long[] other) {
+    for (int i = 0; i < ray.length; i++) {
+      if (!testBit(other, ray[i])) {
+        return testBit(own, ray[i]) ? i : 0;
       }
     }
-    return new ArrayList<>();
+    return 0;
   }
 
   /**
@@ -270,14 +489,17 @@ public class Board {
    * @return true iff a tile of the given color has any valid moves left on the board.
    * @throws IllegalArgumentException when the empty color is passed in as an argument
    */
-  boolean hasValidMove(PlayerColor color) {
+  public boolean hasValidMove(PlayerColor color) {
     isColorEmpty(color);
-    // iterate through the coordinates of the game
-    for (int q = -size + 1; q < size; q++) {
-      for (int r = Math.max(-size + 1, -size - q); r <= Math.min(size - 1, size - q - 1); r++) {
-        int s = -q - r;
-        // if there is at least one valid move, return true
-        if (Math.abs(q) + Math.abs(r) + Math.abs(s) <= (size - 1) && isValidMove(q, r, color)) {
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    for (int word = 0; word < this.geometry.words(); word++) {
+      // only the empty cells next to a tile can be played on
+      long open = this.frontier[word];
+      while (open != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(open);
+        open &= open - 1;
+        if (this.capturesAny(index, own, other)) {
           return true;
         }
       }
@@ -285,6 +507,146 @@ public class Board {
     return false;
   }
 
+  /**
+   * Counts the legal moves of the given color on this board without listing them, which
+   * is how search strategies measure the mobility of a color.
+   *
+   * @param color the color to count moves for.
+   * @return the number of cells the color can place a tile at.
+   * @throws IllegalArgumentException when the empty color is passed in as an argument
+   */
+  public int countLegalMoves(PlayerColor color) {
+    isColorEmpty(color);
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    int count = 0;
+    for (int word = 0; word < this.geometry.words(); word++) {
+      long open = this.frontier[word];
+      while (open != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(open);
+        open &= open - 1;
+        if (this.capturesAny(index, own, other)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Finds every legal move for the given color on this board along with the number of
+   * tiles each move captures, walking the diagonals of each frontier cell only once.
+   * The moves are in the order of q and then r.
+   *
+   * @param color the color to find moves for.
+   * @return the list of every legal move for the color, which is empty if it must pass.
+   * @throws IllegalArgumentException when the empty color is passed in as an argument
+   */
+  public List<LegalMove> findLegalMoves(PlayerColor color) {
+    return this.findLegalMoves(color, false);
+  }
+
+  /**
+   * Finds every legal move for the given color on this board along with the number of
+   * tiles each move captures, walking the diagonals of each frontier cell only once.
+   * The moves are in the order of q and then r.
+   *
+   * @param color     the color to find moves for.
+   * @param withFlips whether each move should also carry the set of tiles it flips.
+   * @return the list of every legal move for the color, which is empty if it must pass.
+   * @throws IllegalArgumentException when the empty color is passed in as an argument
+   */
+  public List<LegalMove> findLegalMoves(PlayerColor color, boolean withFlips) {
+    isColorEmpty(color);
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    List<LegalMove> moves = new ArrayList<>();
+    for (int word = 0; word < this.geometry.words(); word++) {
+      long open = this.frontier[word];
+      while (open != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(open);
+        open &= open - 1;
+        long[] mask = null;
+        int captured;
+        if (withFlips) {
+          mask = new long[this.geometry.words()];
+          captured = this.collectFlips(index, own, other, mask);
+        } else {
+          captured = 0;
+          for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+            captured += capturedAlong(this.geometry.ray(index, dir), own, other);
+          }
+        }
+        if (captured > 0) {
+          moves.add(new LegalMove(this.geometry.qAt(index), this.geometry.rAt(index), captured,
+                  this.geometry, mask));
+        }
+      }
+    }
+    return moves;
+  }
+
+  /**
+   * Picks one of the legal moves of the given color on this board at random, with every
+   * move equally likely, without listing the moves, which is how random playouts choose
+   * their moves without allocating.
+   *
+   * @param color  the color to pick a move for.
+   * @param random the source of randomness to pick with.
+   * @return the cell index of the picked move, or -1 if the color has no legal move.
+   * @throws IllegalArgumentException when the empty color is passed in as an argument
+   */
+  public int randomLegalMove(PlayerColor color, RandomGenerator random) {
+    isColorEmpty(color);
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
+    int picked = -1;
+    int seen = 0;
+    for (int word = 0; word < this.geometry.words(); word++) {
+      long open = this.frontier[word];
+      while (open != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(open);
+        open &= open - 1;
+        // each move replaces the one picked so far with a chance of one over the number
+        // of moves seen, which leaves every move equally likely to be kept
+        if (this.capturesAny(index, own, other) && random.nextInt(++seen) == 0) {
+          picked = index;
+        }
+      }
+    }
+    return (picked < 0) ? -1 : this.geometry.publicIndexAt(picked);
+  }
+
+  /**
+   * Finds every legal move for the given color on this board as a set that can be
+   * asked about any coordinate in constant time.
+   *
+   * @param color the color to find moves for.
+   * @return the set of every legal move for the color on this board as it is now.
+   * @throws IllegalArgumentException when the empty color is passed in as an argument
+   */
+  LegalMoveSet findLegalMoveSet(PlayerColor color) {
+    return new LegalMoveSet(this.geometry, this.findLegalMoves(color));
+  }
+
+  /**
+   * Determines if placing a tile at the cell at the given index would capture at least
+   * one tile on any diagonal.
+   *
+   * @param index the cell index a tile is being placed at.
+   * @param own   the tiles of the color being placed.
+   * @param other the tiles of the opposite color.
+   * @return true iff at least one tile would be flipped.
+   */
+  private boolean capturesAny(int index, long[] own, long[] other) {
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      if (capturedAlong(this.geometry.ray(index, dir), own, other) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * throws an exception if the color passed in is of type EMPTY.
    * @param color of the PlayerColor passed in
@@ -296,6 +658,72 @@ public class Board {
     }
   }
 
+  /**
+   * Determines the color opposite to the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return WHITE if the given color is BLACK, otherwise BLACK.
+   */
+  private static PlayerColor opposite(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+  }
+
+  /**
+   * Returns the set of cell indices that hold a tile of the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the bitset of the tiles of the given color.
+   */
+  private long[] tilesOf(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.black : this.white;
+  }
+
+  /**
+   * Determines the color of the tile at the given cell index.
+   *
+   * @param index a cell index of this board.
+   * @return the color at the cell, or EMPTY if there is no tile there.
+   */
+  private PlayerColor colorAt(int index) {
+    if (testBit(this.black, index)) {
+      return PlayerColor.BLACK;
+    } else if (testBit(this.white, index)) {
+      return PlayerColor.WHITE;
+    }
+    return PlayerColor.EMPTY;
+  }
+
+  /**
+   * Determines if the given cell index is in the given bitset.
+   *
+   * @param bits  a bitset of cell indices.
+   * @param index a cell index.
+   * @return true iff the bit for the cell index is set.
+   */
+  private static boolean testBit(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Adds the given cell index to the given bitset.
+   *
+   * @param bits  a bitset of cell indices.
+   * @param index a cell index.
+   */
+  private static void setBit(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  /**
+   * Removes the given cell index from the given bitset.
+   *
+   * @param bits  a bitset of cell indices.
+   * @param index a cell index.
+   */
+  private static void clearBit(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
   /**
    * determines if there is a valid move at the specific coordinate.
    * Note: this is a default method since the model needs to access it
@@ -305,17 +733,10 @@ public class Board {
    * @return true iff there is a valid move at this tile
    */
   boolean isValidMove(int q, int r, PlayerColor color) {
-    if (board.get(new HexCoordinates(q, r)) == PlayerColor.EMPTY) {
-      ArrayList<ArrayList<HexCoordinates>> hc = this.findAllMoves(q, r, color);
-      for (ArrayList<HexCoordinates> hexCoordinates : hc) {
-        PlayerColor colSwitch = (color == PlayerColor.BLACK)
-                ? PlayerColor.WHITE : PlayerColor.BLACK;
-        if (!hexCoordinates.isEmpty()) {
-          if (this.checkAllSame(hexCoordinates, colSwitch)) {
-            return true;
-          }
-        }
-      }
+    int index = this.geometry.indexOf(q, r);
+    // the geometry also has cells just past the edge, which are never playable
+    if (index >= 0 && this.geometry.isPlayableCell(index) && !this.isOccupied(index)) {
+      return this.capturesAny(index, this.tilesOf(color), this.tilesOf(opposite(color)));
     }
     return false; // the tile is not empty, so not a valid move.
   }
@@ -337,15 +758,95 @@ public class Board {
    * @return the color of the tile at the specified coordinates
    */
   public PlayerColor getColorAt(int q, int r) throws IllegalStateException {
-    HexCoordinates coords = new HexCoordinates(q, r);
-    if (this.board.containsKey(coords)) {
-      return this.board.get(coords);
+    int index = this.geometry.indexOf(q, r);
+    if (index >= 0) {
+      return this.colorAt(index);
     }
     else {
       throw new IllegalArgumentException("Invalid coordinates.");
     }
   }
 
+  /**
+   * Returns the number of cells a tile can be placed on, which are given cell indices
+   * from 0 to one less than this count, row by row in the order of r and then q.
+   *
+   * @return the number of playable cells on this board.
+   */
+  public int cellCount() {
+    return this.geometry.playableCount();
+  }
+
+  /**
+   * Returns the coordinates of the cell at the given cell index.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the q,r coordinates of the cell, which are shared and never change.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  public HexCoordinates cellAt(int index) {
+    this.checkCellIndex(index);
+    return this.geometry.playableCoordinates(index);
+  }
+
+  /**
+   * Returns the color of the tile at the given cell index.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the color of the tile at the cell.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  public PlayerColor getColorAt(int index) {
+    this.checkCellIndex(index);
+    return this.colorAt(this.geometry.playableCell(index));
+  }
+
+  /**
+   * Determines the base 3 code of the tiles on the given cells, where each cell is a digit
+   * that is 0 if the cell is empty, 1 if it has a black tile and 2 if it has a white tile,
+   * and the first cell is the most significant digit. Pattern evaluators look up a weight
+   * by this code, so a pattern is read with one bit test per cell.
+   *
+   * @param cells the cell indices of the pattern, each from 0 to cellCount - 1, of which
+   *              there are at most 19 so the code fits in an int.
+   * @return the code of the pattern on this board, from 0 to 3 to the number of cells.
+   * @throws IllegalArgumentException if an index is not the index of a cell.
+   */
+  public int patternCode(int[] cells) {
+    int code = 0;
+    for (int cell : cells) {
+      this.checkCellIndex(cell);
+      int index = this.geometry.playableCell(cell);
+      long bit = 1L << index;
+      int digit = ((this.black[index >>> 6] & bit) != 0) ? 1
+              : ((this.white[index >>> 6] & bit) != 0) ? 2 : 0;
+      code = 3 * code + digit;
+    }
+    return code;
+  }
+
+  /**
+   * Determines the cell index of the given q,r coordinate.
+   *
+   * @param q the q coordinate of the tile
+   * @param r the r coordinate of the tile
+   * @return the cell index of the coordinate, or -1 if a tile cannot be placed there.
+   */
+  public int indexOf(int q, int r) {
+    return this.geometry.publicIndexOf(q, r);
+  }
+
+  /**
+   * throws an exception if the given index is not the index of a cell.
+   * @param index a cell index.
+   * @throws IllegalArgumentException if the index is negative or not less than cellCount
+   */
+  private void checkCellIndex(int index) {
+    if (index < 0 || index >= this.geometry.playableCount()) {
+      throw new IllegalArgumentException("Invalid cell index.");
+    }
+  }
+
   /**
    * Determines the number of tiles captured by placing a tile of the given color
    * at the given q,r axial coordinate.
@@ -354,37 +855,23 @@ public class Board {
    * @param color   The color of the tile being placed.
    * @return    The number of tiles captured by placing a tile of the given color at the given
    *            q,r coordinates.
+   * @throws IllegalArgumentException if the color passed in is EMPTY
    */
   public int numTilesCaptured(int q, int r, PlayerColor color) {
+    isColorEmpty(color);
+    int index = this.geometry.indexOf(q, r);
+    if (index < 0 || !this.geometry.isPlayableCell(index)) {
+      return 0;
+    }
+    long[] own = this.tilesOf(color);
+    long[] other = this.tilesOf(opposite(color));
     int num = 0;
-    ArrayList<ArrayList<HexCoordinates>> possibleTilesCapture = this.findAllMoves(q, r, color);
-    PlayerColor colorToCheck = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
-    for (ArrayList<HexCoordinates> hexCoordinates : possibleTilesCapture) {
-      if (!hexCoordinates.isEmpty()) {
-        num += this.checkNumSame(hexCoordinates, colorToCheck);
-      }
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      num += capturedAlong(this.geometry.ray(index, dir), own, other);
     }
     return num;
   }
 
-
-  /**
-   * Determines the number of tiles of the given color in the at the given list of
-   * hex coordinates.
-   * @param hc    A list of hex coordinates.
-   * @param color   A color of a tile.
-   * @return    The number of tiles of the given color in the list of hex coordinates
-   *            iff they are all of the color, if they are not all the same color,
-   *            return 0.
-   */
-  private int checkNumSame(ArrayList<HexCoordinates> hc, PlayerColor color) {
-    if (this.checkAllSame(hc, color)) {
-      return hc.size();
-    } else {
-      return 0;
-    }
-  }
-
   /**
    * Determines the number of tiles with the given player color that are on this board.
    *
@@ -393,34 +880,111 @@ public class Board {
    *          the given player color in this board.
    * @throws IllegalArgumentException if empty is passed in as the color
    */
-  int getScore(PlayerColor playerColor) {
-    int score = 0;
+  public int getScore(PlayerColor playerColor) {
     isColorEmpty(playerColor);
-    for (HexCoordinates coords : this.board.keySet()) {
-      if (this.board.get(coords) == playerColor) {
-        score = score + 1;
-      }
+    return (playerColor == PlayerColor.BLACK) ? this.blackCount : this.whiteCount;
+  }
+
+  /**
+   * Returns the scores of both colors on this board.
+   *
+   * @return the number of black tiles and white tiles on this board.
+   */
+  public Scores getScores() {
+    return new Scores(this.blackCount, this.whiteCount);
+  }
+
+  /**
+   * Starts keeping the frontier tiles, corner tiles and stable tiles of this board up to
+   * date with every move it makes and unmakes, so they can be read without scanning the
+   * board, as an evaluator does at every position of a search. Boards that are never
+   * evaluated do not track them, so their moves are not slowed down by it. Copies of a
+   * board that tracks its features track them too. Tracking a board that already tracks
+   * its features does nothing.
+   *
+   * @throws IllegalStateException if an undoable move has been made and not unmade.
+   */
+  public void trackFeatures() {
+    if (this.features != null) {
+      return;
     }
-    return score;
+    if (this.depth > 0) {
+      throw new IllegalStateException("Features cannot be tracked with moves to unmake.");
+    }
+    this.features = new BoardFeatures(this.geometry, this.black, this.white);
   }
 
+  /**
+   * Returns the features of this board, which are computed from scratch if this board does
+   * not track them.
+   *
+   * @return the current features of this board.
+   */
+  private BoardFeatures currentFeatures() {
+    if (this.features != null) {
+      return this.features;
+    }
+    return new BoardFeatures(this.geometry, this.black, this.white);
+  }
 
   /**
-   * Produces a copy of this board.
-   * @return  a copy of this board.
+   * Determines the number of tiles of the given color that are next to an empty playable
+   * cell, which this board keeps up to date with every move if it tracks its features.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of frontier tiles of the color.
+   * @throws IllegalArgumentException if empty is passed in as the color
    */
-  Board getCopy() {
-    Board b = new Board(this.size);
-    b.setBoard(this.getBoard());
-    return b;
+  public int getFrontierTiles(PlayerColor color) {
+    isColorEmpty(color);
+    return this.currentFeatures().frontierTiles(color);
   }
 
   /**
-   * Sets this board to the given board.
-   * @param p A board to set this board to.
+   * Determines the number of tiles of the given color on the six corners of the board,
+   * which this board keeps up to date with every move if it tracks its features.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of corner tiles of the color.
+   * @throws IllegalArgumentException if empty is passed in as the color
    */
-  private void setBoard(HashMap<HexCoordinates, PlayerColor> p) {
-    this.board = p;
+  public int getCornerTiles(PlayerColor color) {
+    isColorEmpty(color);
+    return this.currentFeatures().cornerTiles(color);
+  }
+
+  /**
+   * Determines the number of tiles of the given color that can never be flipped again,
+   * which this board keeps up to date with every move if it tracks its features. The count
+   * is a lower bound, as it only counts tiles held in place on every line through them by
+   * the edge of the board, by stable tiles of the same color, or by the line being full.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of stable tiles of the color.
+   * @throws IllegalArgumentException if empty is passed in as the color
+   */
+  public int getStableTiles(PlayerColor color) {
+    isColorEmpty(color);
+    return this.currentFeatures().stableTiles(color);
+  }
+
+  /**
+   * Returns the features this board keeps up to date, so they can be checked against the
+   * features computed from scratch.
+   *
+   * @return the features of this board, or null if it does not track them.
+   */
+  BoardFeatures getFeatures() {
+    return this.features;
+  }
+
+
+  /**
+   * Produces a copy of this board.
+   * @return  a copy of this board.
+   */
+  Board getCopy() {
+    return new Board(this);
   }
 
 
@@ -433,12 +997,10 @@ public class Board {
   public boolean equals(Object o) {
     if (o instanceof Board) {
       Board b = (Board) o;
-      for (HexCoordinates h: this.board.keySet()) {
-        if (!b.board.containsKey(h) || !this.board.get(h).equals(b.board.get(h))) {
-          return false;
-        }
-      }
-      return true;
+      return this.size == b.size
+              && this.hash == b.hash
+              && Arrays.equals(this.black, b.black)
+              && Arrays.equals(this.white, b.white);
     }
     return false;
   }
@@ -449,6 +1011,6 @@ public class Board {
    */
   @Override
   public int hashCode() {
-    return this.size + this.board.size();
+    return (int) (this.hash ^ (this.hash >>> 32)) + this.size;
   }
-}
\ No newline at end of file
+}
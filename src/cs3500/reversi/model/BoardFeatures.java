@@ -0,0 +1,539 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * The positional features of the tiles of one board that an evaluation scores, kept up to
+ * date by the board with every move it makes and unmakes, so that scoring a position never
+ * scans the whole board. For each color the features are the number of frontier tiles,
+ * which are tiles next to an empty playable cell, the number of tiles on a corner, and the
+ * number of stable tiles, which are tiles that can never be flipped again.
+ * A tile is counted as stable when, along each of the three lines through it, it is next to
+ * the edge of the playable cells or to a stable tile of its own color on one side, or the
+ * line has no empty playable cell left. Stable tiles stay stable for the rest of the game,
+ * so a move can only add stable tiles, and the ones it adds are recorded so that unmaking
+ * the move can take them away again.
+ */
+final class BoardFeatures {
+  // the cell indices and diagonals of the board
+  private final BoardGeometry geometry;
+  // the tiles of the board, which are the board's own bitsets and are changed by it
+  private final long[] black;
+  private final long[] white;
+  // the number of empty playable cells next to each cell
+  private final int[] emptyNeighbors;
+  // the number of empty playable cells on each line of the geometry
+  private final int[] emptyOnLine;
+  // the number of black and white tiles next to an empty playable cell
+  private int blackFrontier;
+  private int whiteFrontier;
+  // the number of black and white tiles on a corner
+  private int blackCorners;
+  private int whiteCorners;
+  // the set of stable black tiles and stable white tiles
+  private final long[] blackStable;
+  private final long[] whiteStable;
+  // the number of stable black tiles and stable white tiles
+  private int blackStableCount;
+  private int whiteStableCount;
+  // scratch stack of the cells still to be checked for stability after a move, and the set
+  // of cells on it, so no cell is on it twice and it never needs to grow
+  private final int[] pending;
+  private final long[] queued;
+
+  /**
+   * Constructs the features of the given tiles, computed from scratch.
+   *
+   * @param geometry the geometry of the board.
+   * @param black    the bitset of black tiles, which the board keeps changing.
+   * @param white    the bitset of white tiles, which the board keeps changing.
+   */
+  BoardFeatures(BoardGeometry geometry, long[] black, long[] white) {
+    this.geometry = geometry;
+    this.black = black;
+    this.white = white;
+    this.emptyNeighbors = new int[geometry.cellCount()];
+    this.emptyOnLine = new int[geometry.lineCount()];
+    this.blackStable = new long[geometry.words()];
+    this.whiteStable = new long[geometry.words()];
+    this.pending = new int[geometry.cellCount()];
+    this.queued = new long[geometry.words()];
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+        int[] ray = geometry.ray(index, dir);
+        if (ray.length > 0 && geometry.isPlayableCell(ray[0]) && !this.isOccupied(ray[0])) {
+          this.emptyNeighbors[index]++;
+        }
+      }
+      PlayerColor color = this.colorAt(index);
+      if (color == PlayerColor.EMPTY && geometry.isPlayableCell(index)) {
+        for (int axis = 0; axis < BoardGeometry.AXES; axis++) {
+          this.emptyOnLine[this.geometry.line(index, axis)]++;
+        }
+      }
+      if (color != PlayerColor.EMPTY) {
+        if (this.emptyNeighbors[index] > 0) {
+          this.addFrontier(color, 1);
+        }
+        if (geometry.isCornerCell(index)) {
+          this.addCorners(color, 1);
+        }
+      }
+    }
+    long[] stable = this.computeStable(false);
+    for (int word = 0; word < stable.length; word++) {
+      this.blackStable[word] = stable[word] & black[word];
+      this.whiteStable[word] = stable[word] & white[word];
+      this.blackStableCount += Long.bitCount(this.blackStable[word]);
+      this.whiteStableCount += Long.bitCount(this.whiteStable[word]);
+    }
+  }
+
+  /**
+   * Constructs a copy of the given features for a copy of their board.
+   *
+   * @param other the features to copy.
+   * @param black the bitset of black tiles of the copied board.
+   * @param white the bitset of white tiles of the copied board.
+   */
+  BoardFeatures(BoardFeatures other, long[] black, long[] white) {
+    this.geometry = other.geometry;
+    this.black = black;
+    this.white = white;
+    this.emptyNeighbors = other.emptyNeighbors.clone();
+    this.emptyOnLine = other.emptyOnLine.clone();
+    this.blackFrontier = other.blackFrontier;
+    this.whiteFrontier = other.whiteFrontier;
+    this.blackCorners = other.blackCorners;
+    this.whiteCorners = other.whiteCorners;
+    this.blackStable = other.blackStable.clone();
+    this.whiteStable = other.whiteStable.clone();
+    this.blackStableCount = other.blackStableCount;
+    this.whiteStableCount = other.whiteStableCount;
+    this.pending = new int[other.pending.length];
+    this.queued = new long[other.queued.length];
+  }
+
+  /**
+   * Brings the features up to date after a move, once the board has placed the tile and
+   * flipped the tiles.
+   *
+   * @param index  the cell index the tile was placed at.
+   * @param color  the color of the placed tile.
+   * @param flips  the set of cells whose tiles were flipped.
+   * @param stable the bitset to fill with the tiles that became stable.
+   */
+  void placed(int index, PlayerColor color, long[] flips, long[] stable) {
+    // a flipped tile is still next to the same empty cells, it just changes color
+    int flippedFrontier = this.countFrontier(flips);
+    this.addFrontier(opposite(color), -flippedFrontier);
+    this.addFrontier(color, flippedFrontier);
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(index, dir);
+      if (ray.length > 0 && --this.emptyNeighbors[ray[0]] == 0) {
+        this.addFrontierAt(ray[0], -1);
+      }
+    }
+    if (this.emptyNeighbors[index] > 0) {
+      this.addFrontier(color, 1);
+    }
+    if (this.geometry.isCornerCell(index)) {
+      this.addCorners(color, 1);
+    }
+    for (int axis = 0; axis < BoardGeometry.AXES; axis++) {
+      this.emptyOnLine[this.geometry.line(index, axis)]--;
+    }
+    this.addStable(index, flips, stable);
+  }
+
+  /**
+   * Takes back the changes to the features made by a move, before the board removes the
+   * tile and flips the tiles back, so the tiles are still as the move left them.
+   *
+   * @param index  the cell index the tile was placed at.
+   * @param color  the color of the placed tile.
+   * @param flips  the set of cells whose tiles were flipped.
+   * @param stable the tiles that became stable from the move.
+   */
+  void unplacing(int index, PlayerColor color, long[] flips, long[] stable) {
+    for (int word = 0; word < stable.length; word++) {
+      this.blackStableCount -= Long.bitCount(this.blackStable[word] & stable[word]);
+      this.whiteStableCount -= Long.bitCount(this.whiteStable[word] & stable[word]);
+      this.blackStable[word] &= ~stable[word];
+      this.whiteStable[word] &= ~stable[word];
+    }
+    for (int axis = 0; axis < BoardGeometry.AXES; axis++) {
+      this.emptyOnLine[this.geometry.line(index, axis)]++;
+    }
+    if (this.geometry.isCornerCell(index)) {
+      this.addCorners(color, -1);
+    }
+    if (this.emptyNeighbors[index] > 0) {
+      this.addFrontier(color, -1);
+    }
+    for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(index, dir);
+      if (ray.length > 0 && this.emptyNeighbors[ray[0]]++ == 0) {
+        this.addFrontierAt(ray[0], 1);
+      }
+    }
+    int flippedFrontier = this.countFrontier(flips);
+    this.addFrontier(color, -flippedFrontier);
+    this.addFrontier(opposite(color), flippedFrontier);
+  }
+
+  /**
+   * Finds the tiles that became stable from a move and marks them stable. Only the placed
+   * tile, the flipped tiles, and the tiles on a line the move filled can become stable by
+   * themselves, and any other tile only by a tile next to it becoming stable, so those are
+   * the only tiles checked.
+   *
+   * @param index  the cell index the tile was placed at.
+   * @param flips  the set of cells whose tiles were flipped.
+   * @param stable the bitset to fill with the tiles that became stable.
+   */
+  private void addStable(int index, long[] flips, long[] stable) {
+    Arrays.fill(stable, 0);
+    int size = this.push(index, 0);
+    for (int word = 0; word < flips.length; word++) {
+      for (long bits = flips[word]; bits != 0; bits &= bits - 1) {
+        size = this.push((word << 6) + Long.numberOfTrailingZeros(bits), size);
+      }
+    }
+    for (int axis = 0; axis < BoardGeometry.AXES; axis++) {
+      if (this.emptyOnLine[this.geometry.line(index, axis)] == 0) {
+        for (int side = 0; side < 2; side++) {
+          int dir = (side == 0) ? axis : BoardGeometry.DIRECTIONS - 1 - axis;
+          for (int cell : this.geometry.ray(index, dir)) {
+            if (!this.isOccupied(cell)) {
+              break;
+            }
+            size = this.push(cell, size);
+          }
+        }
+      }
+    }
+    while (size > 0) {
+      int cell = this.pending[--size];
+      this.queued[cell >>> 6] &= ~(1L << cell);
+      PlayerColor color = this.colorAt(cell);
+      long[] own = this.stableOf(color);
+      if ((own[cell >>> 6] & (1L << cell)) != 0 || !this.isStable(cell, own, false)) {
+        continue;
+      }
+      own[cell >>> 6] |= 1L << cell;
+      stable[cell >>> 6] |= 1L << cell;
+      this.addStableCount(color, 1);
+      long[] tiles = (color == PlayerColor.BLACK) ? this.black : this.white;
+      for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+        int[] ray = this.geometry.ray(cell, dir);
+        if (ray.length > 0 && (tiles[ray[0] >>> 6] & (1L << ray[0])) != 0
+                && (own[ray[0] >>> 6] & (1L << ray[0])) == 0) {
+          size = this.push(ray[0], size);
+        }
+      }
+    }
+  }
+
+  /**
+   * Pushes the given cell onto the stack of cells to check, unless it is already on it.
+   *
+   * @param cell a cell index with a tile.
+   * @param size the number of cells on the stack.
+   * @return the number of cells on the stack after the push.
+   */
+  private int push(int cell, int size) {
+    if ((this.queued[cell >>> 6] & (1L << cell)) != 0) {
+      return size;
+    }
+    this.queued[cell >>> 6] |= 1L << cell;
+    this.pending[size] = cell;
+    return size + 1;
+  }
+
+  /**
+   * Determines if the tile at the given cell is stable, given the stable tiles of its color.
+   *
+   * @param cell a cell index with a tile.
+   * @param own  the stable tiles of the color of the tile.
+   * @param scan whether to find if a line is full by walking it instead of by its count of
+   *             empty cells.
+   * @return true iff the tile is held on every line through it.
+   */
+  private boolean isStable(int cell, long[] own, boolean scan) {
+    for (int axis = 0; axis < BoardGeometry.AXES; axis++) {
+      if (this.isHeld(cell, axis, own)
+              || this.isHeld(cell, BoardGeometry.DIRECTIONS - 1 - axis, own)) {
+        continue;
+      }
+      boolean full = scan ? this.isLineFull(cell, axis)
+              : this.emptyOnLine[this.geometry.line(cell, axis)] == 0;
+      if (!full) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Determines if the tile at the given cell is held in the given direction, which is when
+   * the next cell that way is not playable or has a stable tile of the same color.
+   *
+   * @param cell a cell index with a tile.
+   * @param dir  a direction from the cell.
+   * @param own  the stable tiles of the color of the tile.
+   * @return true iff the tile can never be flanked from the given direction.
+   */
+  private boolean isHeld(int cell, int dir, long[] own) {
+    int[] ray = this.geometry.ray(cell, dir);
+    return ray.length == 0 || !this.geometry.isPlayableCell(ray[0])
+            || (own[ray[0] >>> 6] & (1L << ray[0])) != 0;
+  }
+
+  /**
+   * Determines if every playable cell on the line through the given cell along the given
+   * axis has a tile by walking the line. The playable cells of a line are next to each
+   * other, as the playable cells form a hexagon.
+   *
+   * @param cell a cell index.
+   * @param axis an axis from 0 to 2, which is a direction and its opposite.
+   * @return true iff the line has no empty playable cell.
+   */
+  private boolean isLineFull(int cell, int axis) {
+    for (int side = 0; side < 2; side++) {
+      int dir = (side == 0) ? axis : BoardGeometry.DIRECTIONS - 1 - axis;
+      for (int next : this.geometry.ray(cell, dir)) {
+        if (!this.isOccupied(next)) {
+          if (this.geometry.isPlayableCell(next)) {
+            return false;
+          }
+          break;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the stable tiles of the board from scratch, by marking tiles stable until no
+   * more tiles can be marked. The features are kept up to date with every move, so this is
+   * only used to start them and to check them.
+   *
+   * @param scan whether to find if a line is full by walking it instead of by its count of
+   *             empty cells, which checks the counts as well.
+   * @return the set of stable tiles of both colors.
+   */
+  long[] computeStable(boolean scan) {
+    long[] blackFound = new long[this.geometry.words()];
+    long[] whiteFound = new long[this.geometry.words()];
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int index = 0; index < this.geometry.cellCount(); index++) {
+        PlayerColor color = this.colorAt(index);
+        long[] found = (color == PlayerColor.BLACK) ? blackFound : whiteFound;
+        if (color != PlayerColor.EMPTY && (found[index >>> 6] & (1L << index)) == 0
+                && this.isStable(index, found, scan)) {
+          found[index >>> 6] |= 1L << index;
+          changed = true;
+        }
+      }
+    }
+    for (int word = 0; word < blackFound.length; word++) {
+      blackFound[word] |= whiteFound[word];
+    }
+    return blackFound;
+  }
+
+  /**
+   * Returns the set of stable tiles of both colors these features keep up to date.
+   *
+   * @return a copy of the stable tiles.
+   */
+  long[] getStable() {
+    long[] stable = this.blackStable.clone();
+    for (int word = 0; word < stable.length; word++) {
+      stable[word] |= this.whiteStable[word];
+    }
+    return stable;
+  }
+
+  /**
+   * Counts the tiles of the given color next to an empty playable cell from scratch, to
+   * check the count these features keep up to date.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of frontier tiles of the color.
+   */
+  int computeFrontierTiles(PlayerColor color) {
+    int count = 0;
+    for (int index = 0; index < this.geometry.cellCount(); index++) {
+      if (this.colorAt(index) != color) {
+        continue;
+      }
+      for (int dir = 0; dir < BoardGeometry.DIRECTIONS; dir++) {
+        int[] ray = this.geometry.ray(index, dir);
+        if (ray.length > 0 && this.geometry.isPlayableCell(ray[0])
+                && !this.isOccupied(ray[0])) {
+          count++;
+          break;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of tiles of the given color next to an empty playable cell.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of frontier tiles.
+   */
+  int frontierTiles(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackFrontier : this.whiteFrontier;
+  }
+
+  /**
+   * Returns the number of tiles of the given color on a corner.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of corner tiles.
+   */
+  int cornerTiles(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackCorners : this.whiteCorners;
+  }
+
+  /**
+   * Returns the number of stable tiles of the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the number of stable tiles.
+   */
+  int stableTiles(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackStableCount : this.whiteStableCount;
+  }
+
+  /**
+   * Adds the given amount to the frontier tiles of the given color.
+   *
+   * @param color  a BLACK or WHITE color.
+   * @param amount the change in the count.
+   */
+  private void addFrontier(PlayerColor color, int amount) {
+    if (color == PlayerColor.BLACK) {
+      this.blackFrontier += amount;
+    } else {
+      this.whiteFrontier += amount;
+    }
+  }
+
+  /**
+   * Counts the tiles in the given set that are next to an empty playable cell.
+   *
+   * @param cells a bitset of cells with tiles.
+   * @return the number of those tiles in the frontier.
+   */
+  private int countFrontier(long[] cells) {
+    int count = 0;
+    for (int word = 0; word < cells.length; word++) {
+      for (long bits = cells[word]; bits != 0; bits &= bits - 1) {
+        if (this.emptyNeighbors[(word << 6) + Long.numberOfTrailingZeros(bits)] > 0) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Adds the given amount to the frontier tiles of the color of the tile at the given cell,
+   * if the cell has a tile.
+   *
+   * @param index  a cell index.
+   * @param amount the change in the count.
+   */
+  private void addFrontierAt(int index, int amount) {
+    long bit = 1L << index;
+    if ((this.black[index >>> 6] & bit) != 0) {
+      this.blackFrontier += amount;
+    } else if ((this.white[index >>> 6] & bit) != 0) {
+      this.whiteFrontier += amount;
+    }
+  }
+
+  /**
+   * Adds the given amount to the corner tiles of the given color.
+   *
+   * @param color  a BLACK or WHITE color.
+   * @param amount the change in the count.
+   */
+  private void addCorners(PlayerColor color, int amount) {
+    if (color == PlayerColor.BLACK) {
+      this.blackCorners += amount;
+    } else {
+      this.whiteCorners += amount;
+    }
+  }
+
+  /**
+   * Adds the given amount to the stable tiles of the given color.
+   *
+   * @param color  a BLACK or WHITE color.
+   * @param amount the change in the count.
+   */
+  private void addStableCount(PlayerColor color, int amount) {
+    if (color == PlayerColor.BLACK) {
+      this.blackStableCount += amount;
+    } else {
+      this.whiteStableCount += amount;
+    }
+  }
+
+  /**
+   * Returns the set of stable tiles of the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the bitset of stable tiles of the color.
+   */
+  private long[] stableOf(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackStable : this.whiteStable;
+  }
+
+  /**
+   * Determines if there is a tile of either color at the given cell index.
+   *
+   * @param index a cell index.
+   * @return true iff the cell has a tile.
+   */
+  private boolean isOccupied(int index) {
+    return ((this.black[index >>> 6] | this.white[index >>> 6]) & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the color of the tile at the given cell index.
+   *
+   * @param index a cell index.
+   * @return the color at the cell, which is EMPTY if there is no tile.
+   */
+  private PlayerColor colorAt(int index) {
+    if ((this.black[index >>> 6] & (1L << index)) != 0) {
+      return PlayerColor.BLACK;
+    }
+    if ((this.white[index >>> 6] & (1L << index)) != 0) {
+      return PlayerColor.WHITE;
+    }
+    return PlayerColor.EMPTY;
+  }
+
+  /**
+   * Returns the opposite of the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the other color.
+   */
+  private static PlayerColor opposite(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+  }
+}
@@ -0,0 +1,451 @@
+package cs3500.reversi.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * The layout of the cells of a board of a given size, where every coordinate of the board
+ * is given a linear cell index and, for each cell, the cells along each of the six diagonals
+ * starting at that cell are stored in order moving away from it. Each cell also has a
+ * random Zobrist key per color, which boards combine to hash their tiles. The playable
+ * cells are also numbered by a dense public index, row by row, which is the cell index
+ * the model hands out. A geometry never
+ * changes once it is made, so one geometry is shared by every board of the same size.
+ */
+final class BoardGeometry {
+  // the number of diagonals running out of every cell
+  static final int DIRECTIONS = 6;
+  // the number of lines through every cell, where the line along axis a runs in direction a
+  // and in the opposite direction DIRECTIONS - 1 - a
+  static final int AXES = DIRECTIONS / 2;
+  // the six axial directions a diagonal can run in from a hex coordinate,
+  // as q increments paired with the r increments below
+  private static final int[] Q_INCREMENTS = {-1, -1, 0, 0, 1, 1};
+  private static final int[] R_INCREMENTS = {0, 1, -1, 1, -1, 0};
+
+  // the seed the Zobrist keys are made from, which is fixed so that hashes of the same
+  // position are the same in every run and can be stored in files
+  private static final long ZOBRIST_SEED = 0x5EED_CAFE_F00DL;
+
+  // the geometries that have already been made, keyed by board size
+  private static final ConcurrentHashMap<Integer, BoardGeometry> GEOMETRIES =
+          new ConcurrentHashMap<>();
+
+  // the size of the boards that use this geometry
+  private final int size;
+  // the number of cells, where the cells span q from -size + 1 to size - 1
+  // and r from max(-size + 1, -size - q) to min(size - 1, size - q - 1)
+  private final int cellCount;
+  // the number of 64 bit words in a bitset over every cell
+  private final int words;
+  // the cell index of the first cell in each q row, offset by size - 1
+  private final int[] rowStart;
+  // the q and r coordinate of each cell index
+  private final int[] cellQ;
+  private final int[] cellR;
+  // the set of cell indices where a tile can be placed
+  private final long[] playable;
+  // the six corners of the hexagon of playable cells, whose tiles can never be flipped
+  private final long[] corners;
+  // the playable cells in the order of r and then q, which is the order they are drawn in,
+  // where position i holds the cell index of the playable cell with public index i
+  private final int[] playableCells;
+  // the public index of each cell index, or -1 for a cell that is not playable
+  private final int[] publicIndex;
+  // the coordinates of each playable cell by public index, shared since coordinates
+  // never change
+  private final HexCoordinates[] playableCoordinates;
+  // the cells along each diagonal, where the diagonal in direction dir out of a cell
+  // is at index * DIRECTIONS + dir and lists the cells in order moving away from it
+  private final int[][] rays;
+  // the line through each cell along each axis, at index * AXES + axis, where the lines
+  // along an axis are told apart by the coordinate that stays the same along them:
+  // r along axis 0, q + r along axis 1 and q along axis 2
+  private final int[] lines;
+  // the Zobrist key of a black tile and of a white tile at each cell index
+  private final long[] blackKeys;
+  private final long[] whiteKeys;
+  // the key combined into a hash when WHITE is the color to move
+  private final long whiteToMoveKey;
+
+  /**
+   * Constructs the geometry of a board of the given size.
+   *
+   * @param size the size of a board, which has already been checked to be valid.
+   */
+  private BoardGeometry(int size) {
+    this.size = size;
+    int cells = 0;
+    for (int q = -size + 1; q < size; q++) {
+      cells += this.rowEnd(q) - this.rowBegin(q) + 1;
+    }
+    this.cellCount = cells;
+    this.words = (cells + 63) >>> 6;
+    this.rowStart = new int[2 * size - 1];
+    this.cellQ = new int[cells];
+    this.cellR = new int[cells];
+    this.playable = new long[this.words];
+    this.corners = new long[this.words];
+    this.initCells();
+    this.publicIndex = new int[cells];
+    this.playableCells = this.initPlayableCells();
+    this.playableCoordinates = new HexCoordinates[this.playableCells.length];
+    for (int i = 0; i < this.playableCells.length; i++) {
+      this.playableCoordinates[i] = new HexCoordinates(this.cellQ[this.playableCells[i]],
+              this.cellR[this.playableCells[i]]);
+    }
+    this.rays = new int[cells * DIRECTIONS][];
+    this.initRays();
+    this.lines = new int[cells * AXES];
+    for (int index = 0; index < cells; index++) {
+      int[] coordinates = {this.cellR[index], this.cellQ[index] + this.cellR[index],
+          this.cellQ[index]};
+      for (int axis = 0; axis < AXES; axis++) {
+        this.lines[index * AXES + axis] = axis * (2 * size - 1) + coordinates[axis] + size - 1;
+      }
+    }
+    SplittableRandom random = new SplittableRandom(ZOBRIST_SEED + size);
+    this.blackKeys = new long[cells];
+    this.whiteKeys = new long[cells];
+    for (int index = 0; index < cells; index++) {
+      this.blackKeys[index] = random.nextLong();
+      this.whiteKeys[index] = random.nextLong();
+    }
+    this.whiteToMoveKey = random.nextLong();
+  }
+
+  /**
+   * Returns the geometry shared by every board of the given size.
+   *
+   * @param size the size of a board, which has already been checked to be valid.
+   * @return the geometry of the boards of the given size.
+   */
+  static BoardGeometry of(int size) {
+    return GEOMETRIES.computeIfAbsent(size, BoardGeometry::new);
+  }
+
+  /**
+   * Determines the smallest r coordinate of a cell in the given q row.
+   *
+   * @param q a q coordinate within the board.
+   * @return the smallest r coordinate in the row.
+   */
+  private int rowBegin(int q) {
+    return Math.max(-size + 1, -size - q);
+  }
+
+  /**
+   * Determines the largest r coordinate of a cell in the given q row.
+   *
+   * @param q a q coordinate within the board.
+   * @return the largest r coordinate in the row.
+   */
+  private int rowEnd(int q) {
+    return Math.min(size - 1, size - q - 1);
+  }
+
+  /**
+   * Assigns a cell index to every coordinate, going through the q rows in order and
+   * through r within each row, and marks the cells that tiles can be placed on.
+   */
+  private void initCells() {
+    int index = 0;
+    for (int q = -size + 1; q < size; q++) {
+      this.rowStart[q + size - 1] = index;
+      for (int r = this.rowBegin(q); r <= this.rowEnd(q); r++) {
+        this.cellQ[index] = q;
+        this.cellR[index] = r;
+        if (this.isPlayable(q, r)) {
+          this.playable[index >>> 6] |= 1L << index;
+        }
+        if (this.isCorner(q, r)) {
+          this.corners[index >>> 6] |= 1L << index;
+        }
+        index++;
+      }
+    }
+  }
+
+  /**
+   * Numbers the playable cells in the order of r and then q, and records the public index
+   * of every cell index.
+   *
+   * @return the cell index of each playable cell by public index.
+   */
+  private int[] initPlayableCells() {
+    Arrays.fill(this.publicIndex, -1);
+    int half = size / 2;
+    int[] cells = new int[this.cellCount];
+    int count = 0;
+    for (int r = -half; r <= half; r++) {
+      for (int q = -half; q <= half; q++) {
+        if (this.isPlayable(q, r)) {
+          int index = this.indexOf(q, r);
+          this.publicIndex[index] = count;
+          cells[count++] = index;
+        }
+      }
+    }
+    int[] playableCells = new int[count];
+    System.arraycopy(cells, 0, playableCells, 0, count);
+    return playableCells;
+  }
+
+  /**
+   * Walks every diagonal out of every cell and records the cells along it.
+   */
+  private void initRays() {
+    int[] scratch = new int[2 * size];
+    for (int index = 0; index < this.cellCount; index++) {
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        int q = this.cellQ[index] + Q_INCREMENTS[dir];
+        int r = this.cellR[index] + R_INCREMENTS[dir];
+        int length = 0;
+        for (int next = this.indexOf(q, r); next >= 0; next = this.indexOf(q, r)) {
+          scratch[length++] = next;
+          q += Q_INCREMENTS[dir];
+          r += R_INCREMENTS[dir];
+        }
+        int[] ray = new int[length];
+        System.arraycopy(scratch, 0, ray, 0, length);
+        this.rays[index * DIRECTIONS + dir] = ray;
+      }
+    }
+  }
+
+  /**
+   * Determines if a tile can be placed at the given coordinate.
+   *
+   * @param q the q value of the coordinate
+   * @param r the r value of the coordinate
+   * @return true iff the coordinate is within the playable part of the board
+   */
+  boolean isPlayable(int q, int r) {
+    return q >= -(size / 2)
+            && q <= (size / 2)
+            && r >= -(size / 2)
+            && r <= (size / 2)
+            && Math.abs(-q - r) + Math.abs(q) + Math.abs(r) <= (size - 1);
+  }
+
+  /**
+   * Determines if the given coordinate is one of the six corners of the hexagon of playable
+   * cells, which are the cells with two of their coordinates at its radius.
+   *
+   * @param q the q value of the coordinate
+   * @param r the r value of the coordinate
+   * @return true iff the coordinate is a corner of the playable part of the board
+   */
+  private boolean isCorner(int q, int r) {
+    int radius = size / 2;
+    int atRadius = ((Math.abs(q) == radius) ? 1 : 0) + ((Math.abs(r) == radius) ? 1 : 0)
+            + ((Math.abs(q + r) == radius) ? 1 : 0);
+    return this.isPlayable(q, r) && atRadius >= 2;
+  }
+
+  /**
+   * Determines the cell index of the given q, r coordinate.
+   *
+   * @param q the q coordinate of the hex tile
+   * @param r the r coordinate of the hex tile
+   * @return the cell index of the coordinate, or -1 if the coordinate has no cell.
+   */
+  int indexOf(int q, int r) {
+    if (q <= -size || q >= size) {
+      return -1;
+    }
+    int r1 = this.rowBegin(q);
+    if (r < r1 || r > this.rowEnd(q)) {
+      return -1;
+    }
+    return this.rowStart[q + size - 1] + r - r1;
+  }
+
+  /**
+   * Returns the number of cells in this geometry.
+   *
+   * @return the number of cells.
+   */
+  int cellCount() {
+    return this.cellCount;
+  }
+
+  /**
+   * Returns the number of 64 bit words in a bitset over every cell.
+   *
+   * @return the number of words in a bitset of cells.
+   */
+  int words() {
+    return this.words;
+  }
+
+  /**
+   * Returns the q coordinate of the given cell index.
+   *
+   * @param index a cell index.
+   * @return the q coordinate of the cell.
+   */
+  int qAt(int index) {
+    return this.cellQ[index];
+  }
+
+  /**
+   * Returns the r coordinate of the given cell index.
+   *
+   * @param index a cell index.
+   * @return the r coordinate of the cell.
+   */
+  int rAt(int index) {
+    return this.cellR[index];
+  }
+
+  /**
+   * Returns the number of playable cells, which are numbered by public index from 0.
+   *
+   * @return the number of cells a tile can be placed on.
+   */
+  int playableCount() {
+    return this.playableCells.length;
+  }
+
+  /**
+   * Returns the cell index of the playable cell with the given public index.
+   *
+   * @param publicIndex a public index from 0 to playableCount - 1.
+   * @return the cell index of the playable cell.
+   */
+  int playableCell(int publicIndex) {
+    return this.playableCells[publicIndex];
+  }
+
+  /**
+   * Returns the coordinates of the playable cell with the given public index.
+   *
+   * @param publicIndex a public index from 0 to playableCount - 1.
+   * @return the shared coordinates of the playable cell.
+   */
+  HexCoordinates playableCoordinates(int publicIndex) {
+    return this.playableCoordinates[publicIndex];
+  }
+
+  /**
+   * Determines the public index of the given q, r coordinate.
+   *
+   * @param q the q coordinate of the hex tile
+   * @param r the r coordinate of the hex tile
+   * @return the public index of the coordinate, or -1 if a tile cannot be placed there.
+   */
+  int publicIndexOf(int q, int r) {
+    int index = this.indexOf(q, r);
+    return (index < 0) ? -1 : this.publicIndex[index];
+  }
+
+  /**
+   * Returns the public index of the cell at the given cell index.
+   *
+   * @param index a cell index of a playable cell.
+   * @return the public index of the cell.
+   */
+  int publicIndexAt(int index) {
+    return this.publicIndex[index];
+  }
+
+  /**
+   * Returns the word of the bitset of playable cells at the given position.
+   * The bitset itself is never handed out so it cannot be changed.
+   *
+   * @param word the position of a word in a bitset of cells.
+   * @return the playable cells within that word.
+   */
+  long playableWord(int word) {
+    return this.playable[word];
+  }
+
+  /**
+   * Determines if a tile can be placed at the given cell index.
+   *
+   * @param index a cell index.
+   * @return true iff the cell is playable.
+   */
+  boolean isPlayableCell(int index) {
+    return (this.playable[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Determines if the given cell index is one of the six corners of the playable cells.
+   *
+   * @param index a cell index.
+   * @return true iff the cell is a corner.
+   */
+  boolean isCornerCell(int index) {
+    return (this.corners[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the cells along the diagonal in the given direction out of the given cell,
+   * in order moving away from the cell. The returned array is shared and must not be
+   * changed.
+   *
+   * @param index a cell index.
+   * @param dir   a direction from 0 to DIRECTIONS - 1.
+   * @return the cell indices along the diagonal, which is empty at the edge of the board.
+   */
+  int[] ray(int index, int dir) {
+    return this.rays[index * DIRECTIONS + dir];
+  }
+
+  /**
+   * Returns the line through the given cell along the given axis, as a number from 0 to one
+   * less than lineCount.
+   *
+   * @param index a cell index.
+   * @param axis  an axis from 0 to AXES - 1.
+   * @return the line through the cell.
+   */
+  int line(int index, int axis) {
+    return this.lines[index * AXES + axis];
+  }
+
+  /**
+   * Returns the number of lines along every axis, which number the lines.
+   *
+   * @return the number of lines.
+   */
+  int lineCount() {
+    return AXES * (2 * size - 1);
+  }
+
+  /**
+   * Returns the Zobrist key of a tile of the given color at the given cell index.
+   *
+   * @param index a cell index.
+   * @param color a BLACK or WHITE color.
+   * @return the key of the tile.
+   */
+  long tileKey(int index, PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackKeys[index] : this.whiteKeys[index];
+  }
+
+  /**
+   * Returns the change in a hash when the tile at the given cell index is flipped, which is
+   * the same whichever color the tile is flipped to.
+   *
+   * @param index a cell index.
+   * @return the key of flipping the tile.
+   */
+  long flipKey(int index) {
+    return this.blackKeys[index] ^ this.whiteKeys[index];
+  }
+
+  /**
+   * Returns the key combined into a hash when WHITE is the color to move.
+   *
+   * @return the key of the side to move.
+   */
+  long whiteToMoveKey() {
+    return this.whiteToMoveKey;
+  }
+}
@@ -0,0 +1,143 @@
+package cs3500.reversi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A legal move for one color on a board, where a legal move is the q,r axial coordinate
+ * a tile can be placed at along with the number of tiles placing it would capture.
+ * A legal move may also carry the set of cells it would flip, if that was asked for when
+ * the moves were found.
+ */
+public final class LegalMove {
+  // the axial coordinates of the move
+  private final int q;
+  private final int r;
+  // the number of tiles the move captures
+  private final int numCaptured;
+  // the layout of the board the move was found on
+  private final BoardGeometry geometry;
+  // the set of cell indices the move flips, or null if it was not collected
+  private final long[] flips;
+
+  /**
+   * Constructs a legal move without the set of cells it flips.
+   *
+   * @param q           the q coordinate of the move.
+   * @param r           the r coordinate of the move.
+   * @param numCaptured the number of tiles the move captures.
+   */
+  public LegalMove(int q, int r, int numCaptured) {
+    this(q, r, numCaptured, null, null);
+  }
+
+  /**
+   * Constructs a legal move found on a board.
+   *
+   * @param q           the q coordinate of the move.
+   * @param r           the r coordinate of the move.
+   * @param numCaptured the number of tiles the move captures.
+   * @param geometry    the layout of the board the move was found on.
+   * @param flips       the set of cell indices the move flips, or null if not collected.
+   */
+  LegalMove(int q, int r, int numCaptured, BoardGeometry geometry, long[] flips) {
+    this.q = q;
+    this.r = r;
+    this.numCaptured = numCaptured;
+    this.geometry = geometry;
+    this.flips = flips;
+  }
+
+  /**
+   * Returns the q coordinate of this move.
+   *
+   * @return the q coordinate the tile would be placed at.
+   */
+  public int getQ() {
+    return this.q;
+  }
+
+  /**
+   * Returns the r coordinate of this move.
+   *
+   * @return the r coordinate the tile would be placed at.
+   */
+  public int getR() {
+    return this.r;
+  }
+
+  /**
+   * Returns the coordinates of this move.
+   *
+   * @return the hex coordinates the tile would be placed at.
+   */
+  public HexCoordinates getCoordinates() {
+    return new HexCoordinates(this.q, this.r);
+  }
+
+  /**
+   * Returns the number of tiles this move captures.
+   *
+   * @return the number of tiles of the opposite color that would be flipped.
+   */
+  public int getNumCaptured() {
+    return this.numCaptured;
+  }
+
+  /**
+   * Determines if this move carries the set of cells it flips.
+   *
+   * @return true iff getFlipped can be called on this move.
+   */
+  public boolean hasFlips() {
+    return this.flips != null;
+  }
+
+  /**
+   * Returns the coordinates of every tile this move would flip.
+   *
+   * @return the list of coordinates that would change color.
+   * @throws IllegalStateException if the flips were not collected for this move.
+   */
+  public List<HexCoordinates> getFlipped() {
+    if (this.flips == null) {
+      throw new IllegalStateException("The flips of this move were not collected.");
+    }
+    List<HexCoordinates> flipped = new ArrayList<>(this.numCaptured);
+    for (int word = 0; word < this.flips.length; word++) {
+      long bits = this.flips[word];
+      while (bits != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+        flipped.add(new HexCoordinates(this.geometry.qAt(index), this.geometry.rAt(index)));
+        bits &= bits - 1;
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * Determines if this legal move is the same as the given object.
+   *
+   * @param o an object to compare this move to.
+   * @return true iff the given object is a legal move at the same coordinates which
+   *         captures the same number of tiles.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof LegalMove) {
+      LegalMove other = (LegalMove) o;
+      return this.q == other.q && this.r == other.r && this.numCaptured == other.numCaptured;
+    }
+    return false;
+  }
+
+  /**
+   * Produces a hashcode for this legal move.
+   *
+   * @return the integer hashcode of this move.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * (13 * this.q + 21 * this.r) + this.numCaptured;
+  }
+}
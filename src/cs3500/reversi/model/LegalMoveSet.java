@@ -0,0 +1,88 @@
+package cs3500.reversi.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every legal move of one color on one position of a board, found once so that the model
+ * can answer repeated questions about the position without searching the board again.
+ * The moves are kept both as a list and by cell index, so looking up whether a coordinate
+ * is a legal move takes constant time. A set never changes once it is made, and the
+ * model throws it away when a tile is placed.
+ */
+final class LegalMoveSet {
+  // the layout of the board the moves were found on
+  private final BoardGeometry geometry;
+  // every legal move in the order of q and then r, which cannot be changed
+  private final List<LegalMove> moves;
+  // the number of tiles captured by the move at each cell index, or 0 if it is not legal
+  private final int[] captured;
+
+  /**
+   * Constructs the set of the given legal moves.
+   *
+   * @param geometry the layout of the board the moves were found on.
+   * @param moves    every legal move of one color on the board.
+   */
+  LegalMoveSet(BoardGeometry geometry, List<LegalMove> moves) {
+    this.geometry = geometry;
+    this.moves = Collections.unmodifiableList(moves);
+    this.captured = new int[geometry.cellCount()];
+    for (LegalMove move : moves) {
+      this.captured[geometry.indexOf(move.getQ(), move.getR())] = move.getNumCaptured();
+    }
+  }
+
+  /**
+   * Determines if this set knows whether the given coordinate is a legal move, which is
+   * true for every coordinate a tile can be placed on.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return true iff the coordinate is within the playable part of the board.
+   */
+  boolean covers(int q, int r) {
+    return this.geometry.isPlayable(q, r);
+  }
+
+  /**
+   * Determines if the given coordinate is a legal move.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return true iff a tile can be placed at the coordinate.
+   */
+  boolean contains(int q, int r) {
+    return this.numCaptured(q, r) > 0;
+  }
+
+  /**
+   * Returns the number of tiles the move at the given coordinate captures.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return the number of tiles captured, or 0 if the coordinate is not a legal move.
+   */
+  int numCaptured(int q, int r) {
+    int index = this.geometry.indexOf(q, r);
+    return (index < 0) ? 0 : this.captured[index];
+  }
+
+  /**
+   * Determines if there are no legal moves in this set.
+   *
+   * @return true iff the color must pass.
+   */
+  boolean isEmpty() {
+    return this.moves.isEmpty();
+  }
+
+  /**
+   * Returns every legal move in this set.
+   *
+   * @return the list of legal moves in the order of q and then r, which cannot be changed.
+   */
+  List<LegalMove> asList() {
+    return this.moves;
+  }
+}
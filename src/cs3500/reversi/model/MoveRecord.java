@@ -0,0 +1,119 @@
+package cs3500.reversi.model;
+
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * A record of one move made on a board that can be unmade, where the record holds the
+ * cell the tile was placed on, the color of the tile, the set of cells whose tiles
+ * were flipped by the move, and the set of tiles that became stable from it. Records are
+ * owned by the board that made the move and are reused once their move has been unmade,
+ * so a record should not be kept after it is passed to Board.unmakeMove.
+ */
+public final class MoveRecord {
+  // the cell index the tile was placed at
+  private int cell;
+  // the axial coordinates the tile was placed at
+  private int q;
+  private int r;
+  // the color of the placed tile
+  private PlayerColor color;
+  // the number of tiles flipped by the move
+  private int flipCount;
+  // the set of cell indices whose tiles were flipped by the move
+  private final long[] flips;
+  // the set of cell indices whose tiles became stable from the move
+  private final long[] stable;
+
+  /**
+   * Constructs an empty record for a board whose bitsets have the given number of words.
+   *
+   * @param words the number of 64 bit words in a bitset of cells of the board.
+   */
+  MoveRecord(int words) {
+    this.flips = new long[words];
+    this.stable = new long[words];
+    this.color = PlayerColor.EMPTY;
+  }
+
+  /**
+   * Fills in this record for a move that has just been made.
+   *
+   * @param cell      the cell index the tile was placed at.
+   * @param q         the q coordinate the tile was placed at.
+   * @param r         the r coordinate the tile was placed at.
+   * @param color     the color of the placed tile.
+   * @param flipCount the number of tiles flipped, which are already in this record's flips.
+   */
+  void set(int cell, int q, int r, PlayerColor color, int flipCount) {
+    this.cell = cell;
+    this.q = q;
+    this.r = r;
+    this.color = color;
+    this.flipCount = flipCount;
+  }
+
+  /**
+   * Returns the cell index the tile was placed at.
+   *
+   * @return the cell index of the move.
+   */
+  int getCell() {
+    return this.cell;
+  }
+
+  /**
+   * Returns the set of cell indices whose tiles were flipped by the move, which is
+   * filled in by the board when the move is made.
+   *
+   * @return the bitset of flipped cells.
+   */
+  long[] getFlips() {
+    return this.flips;
+  }
+
+  /**
+   * Returns the set of cell indices whose tiles became stable from the move, which is
+   * filled in by the board when the move is made.
+   *
+   * @return the bitset of tiles that became stable.
+   */
+  long[] getStable() {
+    return this.stable;
+  }
+
+  /**
+   * Returns the q coordinate the tile was placed at.
+   *
+   * @return the q coordinate of the move.
+   */
+  public int getQ() {
+    return this.q;
+  }
+
+  /**
+   * Returns the r coordinate the tile was placed at.
+   *
+   * @return the r coordinate of the move.
+   */
+  public int getR() {
+    return this.r;
+  }
+
+  /**
+   * Returns the color of the tile that was placed.
+   *
+   * @return the color of the move.
+   */
+  public PlayerColor getColor() {
+    return this.color;
+  }
+
+  /**
+   * Returns the number of tiles that were flipped by the move.
+   *
+   * @return the number of flipped tiles.
+   */
+  public int getFlipCount() {
+    return this.flipCount;
+  }
+}
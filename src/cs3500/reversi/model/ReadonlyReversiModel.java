@@ -1,5 +1,7 @@
 package cs3500.reversi.model;
 
+import java.util.List;
+
 import cs3500.reversi.player.PlayerColor;
 
 /**
@@ -53,6 +55,43 @@ public interface ReadonlyReversiModel {
    */
   public PlayerColor getContentsOfCell(int q, int r);
 
+  /**
+   * Returns the number of cells on the board of this reversi model, where every cell
+   * is given a cell index from 0 to one less than this count, row by row in the order
+   * of r and then q.
+   *
+   * @return the number of cells a tile can be placed on.
+   */
+  public int cellCount();
+
+  /**
+   * Returns the coordinates of the cell at the given cell index.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the q,r axial coordinates of the cell.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  public HexCoordinates cellAt(int index);
+
+  /**
+   * Returns the contents of the cell at the given cell index in this reversi model,
+   * where the content can be one of WHITE, BLACK, EMPTY.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the PlayerColor of the cell.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  public PlayerColor getContentsOfCell(int index);
+
+  /**
+   * Determines the cell index of the given q,r axial coordinate.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return the cell index of the coordinate, or -1 if it is not a cell of the board.
+   */
+  public int indexOf(int q, int r);
+
   /**
    * Returns the current score for the given player color.
    *
@@ -60,6 +99,13 @@ public interface ReadonlyReversiModel {
    */
   public int getScore(PlayerColor color);
 
+  /**
+   * Returns the current scores of both player colors at once.
+   *
+   * @return the number of black tiles and white tiles on the board of this reversi model.
+   */
+  public Scores getScores();
+
   /**
    * Determines whether the game is over for this reversi model.
    *
@@ -102,4 +148,13 @@ public interface ReadonlyReversiModel {
    *          q,r coordinate.
    */
   public int numTilesCaptured(int q, int r, PlayerColor color);
+
+  /**
+   * Finds every legal move for the given color along with the number of tiles each move
+   * would capture, in one pass over this model's board.
+   * @param color   The color of a tile.
+   * @return  the list of every legal move for the color, in the order of q and then r,
+   *          which is empty if the color has no valid moves.
+   */
+  public List<LegalMove> getLegalMoves(PlayerColor color);
 }
@@ -1,6 +1,8 @@
 package cs3500.reversi.model;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 
 import cs3500.reversi.player.PlayerColor;
 
@@ -31,6 +33,9 @@ public class ReversiModelStandard implements ReversiModel {
   // representing the state of the game, which is one of PLAYING, TIE, W_WON, B_WON
   private GameState state;
   private final TurnComponent turnComponent;
+  // the legal moves of each color on the board as it is now, where a color has no entry
+  // until its moves are first needed and every entry is removed when a tile is placed
+  private final EnumMap<PlayerColor, LegalMoveSet> legalMoves;
 
   /**
    * The constructor for a ReversiModelStandard.
@@ -45,6 +50,7 @@ public class ReversiModelStandard implements ReversiModel {
     this.numTimesGone = new HashMap<>();
     this.initHM(this.numTimesGone);
     this.turnComponent = new TurnComponent();
+    this.legalMoves = new EnumMap<>(PlayerColor.class);
   }
 
   /**
@@ -101,6 +107,7 @@ public class ReversiModelStandard implements ReversiModel {
     if (this.state == GameState.PLAYING) {
       this.checkNumTimesGoneInRow(color);
       this.board.makeMove(q, r, color);
+      this.legalMoves.clear();
       this.placeTimesReset(color);
       this.numTimesGone.put(color, 1);
       this.numTimesPassedInRow.put(color, 0);
@@ -183,7 +190,24 @@ public class ReversiModelStandard implements ReversiModel {
   public boolean hasValidMove(PlayerColor color) {
     isColorIsEmpty(color);
     // WILL BE USING THIS IN CONTROLLER TO DETERMINE IF AUTOMATIC PASS SHOULD BE USED OR NOT
-    return this.board.hasValidMove(color);
+    return !this.legalMovesOf(color).isEmpty();
+  }
+
+  /**
+   * Returns the legal moves of the given color on this model's board, finding them only
+   * if they have not been found since the last tile was placed. Passing does not change
+   * the board, so the moves found before a pass are still the legal moves after it.
+   *
+   * @param color A BLACK or WHITE player color.
+   * @return the set of legal moves of the color on the board as it is now.
+   */
+  private LegalMoveSet legalMovesOf(PlayerColor color) {
+    LegalMoveSet moves = this.legalMoves.get(color);
+    if (moves == null) {
+      moves = this.board.findLegalMoveSet(color);
+      this.legalMoves.put(color, moves);
+    }
+    return moves;
   }
 
   /**
@@ -281,6 +305,52 @@ public class ReversiModelStandard implements ReversiModel {
     return this.board.getColorAt(q, r);
   }
 
+  /**
+   * Returns the number of cells on the board of this reversi model.
+   *
+   * @return the number of cells a tile can be placed on.
+   */
+  @Override
+  public int cellCount() {
+    return this.board.cellCount();
+  }
+
+  /**
+   * Returns the coordinates of the cell at the given cell index.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the q,r axial coordinates of the cell.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  @Override
+  public HexCoordinates cellAt(int index) {
+    return this.board.cellAt(index);
+  }
+
+  /**
+   * Returns the contents of the cell at the given cell index in this reversi model.
+   *
+   * @param index a cell index from 0 to cellCount - 1.
+   * @return the PlayerColor of the cell.
+   * @throws IllegalArgumentException if the index is not the index of a cell.
+   */
+  @Override
+  public PlayerColor getContentsOfCell(int index) {
+    return this.board.getColorAt(index);
+  }
+
+  /**
+   * Determines the cell index of the given q,r axial coordinate.
+   *
+   * @param q the q coordinate.
+   * @param r the r coordinate.
+   * @return the cell index of the coordinate, or -1 if it is not a cell of the board.
+   */
+  @Override
+  public int indexOf(int q, int r) {
+    return this.board.indexOf(q, r);
+  }
+
 
   /**
    * Returns the current score for the given player color.
@@ -292,6 +362,16 @@ public class ReversiModelStandard implements ReversiModel {
     return this.board.getScore(color);
   }
 
+  /**
+   * Returns the current scores of both player colors.
+   *
+   * @return the number of black tiles and white tiles on the board of this reversi model.
+   */
+  @Override
+  public Scores getScores() {
+    return this.board.getScores();
+  }
+
 
   /**
    * Determines whether the game is over for this reversi model.
@@ -315,6 +395,12 @@ public class ReversiModelStandard implements ReversiModel {
    */
   @Override
   public boolean isValidMove(int q, int r, PlayerColor color) {
+    if (color != PlayerColor.EMPTY) {
+      LegalMoveSet moves = this.legalMovesOf(color);
+      if (moves.covers(q, r)) {
+        return moves.contains(q, r);
+      }
+    }
     return this.board.isValidMove(q, r, color);
   }
 
@@ -325,11 +411,10 @@ public class ReversiModelStandard implements ReversiModel {
    * and black, or B_WON if there are more black tiles than white tiles.
    */
   private void updateGameStateIfGameOver() {
-    int scoreWhite = this.board.getScore(PlayerColor.WHITE);
-    int scoreBlack = this.board.getScore(PlayerColor.BLACK);
-    if (scoreWhite > scoreBlack) {
+    PlayerColor leader = this.board.getScores().getLeader();
+    if (leader == PlayerColor.WHITE) {
       this.state = GameState.W_WON;
-    } else if (scoreWhite == scoreBlack) {
+    } else if (leader == PlayerColor.EMPTY) {
       this.state = GameState.TIE;
     } else {
       this.state = GameState.B_WON;
@@ -374,6 +459,29 @@ public class ReversiModelStandard implements ReversiModel {
    *         q,r coordinate.
    */
   public int numTilesCaptured(int q, int r, PlayerColor color) {
+    if (color != PlayerColor.EMPTY) {
+      // only a legal move is known to the cached moves, as the board still counts the
+      // tiles sandwiched from a cell that already has a tile
+      int captured = this.legalMovesOf(color).numCaptured(q, r);
+      if (captured > 0) {
+        return captured;
+      }
+    }
     return this.board.numTilesCaptured(q, r, color);
   }
+
+  /**
+   * Finds every legal move for the given color along with the number of tiles each move
+   * would capture, in one pass over this model's board.
+   *
+   * @param color The color of a tile.
+   * @return the list of every legal move for the color, in the order of q and then r,
+   *         which is empty if the color has no valid moves and cannot be changed.
+   * @throws IllegalArgumentException if the color EMPTY is passed in
+   */
+  @Override
+  public List<LegalMove> getLegalMoves(PlayerColor color) {
+    isColorIsEmpty(color);
+    return this.legalMovesOf(color).asList();
+  }
 }
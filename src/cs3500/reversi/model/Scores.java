@@ -0,0 +1,111 @@
+package cs3500.reversi.model;
+
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * The scores of both colors of a reversi game at one moment, where the score of a
+ * color is the number of tiles of that color on the board. Scores never change once
+ * they are made.
+ */
+public final class Scores {
+  // the number of black tiles on the board
+  private final int black;
+  // the number of white tiles on the board
+  private final int white;
+
+  /**
+   * The constructor for scores.
+   *
+   * @param black the number of black tiles on the board.
+   * @param white the number of white tiles on the board.
+   * @throws IllegalArgumentException if either score is negative.
+   */
+  public Scores(int black, int white) {
+    if (black < 0 || white < 0) {
+      throw new IllegalArgumentException("Scores cannot be negative.");
+    }
+    this.black = black;
+    this.white = white;
+  }
+
+  /**
+   * Returns the score of the given color.
+   *
+   * @param color the color to get the score of.
+   * @return the number of tiles of the given color on the board.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  public int getScore(PlayerColor color) {
+    if (color == PlayerColor.BLACK) {
+      return this.black;
+    } else if (color == PlayerColor.WHITE) {
+      return this.white;
+    }
+    throw new IllegalArgumentException("the empty color does not have a score");
+  }
+
+  /**
+   * Returns how many more tiles the given color has than the opposite color.
+   *
+   * @param color the color to get the difference for.
+   * @return the score of the given color minus the score of the opposite color,
+   *         which is negative if the given color is behind.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  public int getDifference(PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("the empty color does not have a score");
+    }
+    int difference = this.black - this.white;
+    return (color == PlayerColor.BLACK) ? difference : -difference;
+  }
+
+  /**
+   * Determines which color has more tiles on the board.
+   *
+   * @return BLACK or WHITE for the color with the higher score, or EMPTY if the scores are tied.
+   */
+  public PlayerColor getLeader() {
+    if (this.black > this.white) {
+      return PlayerColor.BLACK;
+    } else if (this.white > this.black) {
+      return PlayerColor.WHITE;
+    }
+    return PlayerColor.EMPTY;
+  }
+
+  /**
+   * Determines if these scores are the same as the given object.
+   *
+   * @param o an object to compare these scores to.
+   * @return true iff the given object is scores with the same score for each color.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof Scores) {
+      Scores other = (Scores) o;
+      return this.black == other.black && this.white == other.white;
+    }
+    return false;
+  }
+
+  /**
+   * Produces a hashcode for these scores.
+   *
+   * @return the integer hashcode of these scores.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * this.black + this.white;
+  }
+
+  /**
+   * Produces a string of both scores.
+   *
+   * @return the scores in the form "BLACK: b, WHITE: w".
+   */
+  @Override
+  public String toString() {
+    return "BLACK: " + this.black + ", WHITE: " + this.white;
+  }
+}
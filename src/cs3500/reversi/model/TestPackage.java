@@ -2,9 +2,15 @@ package cs3500.reversi.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
 import cs3500.reversi.player.PlayerColor;
 import cs3500.reversi.view.ReversiTextView;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -170,4 +176,344 @@ public class TestPackage {
     this.init();
     assertEquals(1, b1.numTilesCaptured(-1, -1, PlayerColor.BLACK));
   }
+
+  @Test
+  public void testGeometrySharedAndRays() {
+    this.init();
+    BoardGeometry g = BoardGeometry.of(7);
+    assertTrue(g == BoardGeometry.of(7));
+    assertEquals(g.cellCount(), b1.getBoard().size());
+    int center = g.indexOf(0, 0);
+    assertEquals(0, g.qAt(center));
+    assertEquals(0, g.rAt(center));
+    assertEquals(-1, g.indexOf(69, 420));
+    // the diagonal towards (1, -1) from the center runs to the edge of the cells
+    int[] ray = g.ray(center, 4);
+    assertEquals(6, ray.length);
+    assertEquals(g.indexOf(1, -1), ray[0]);
+    assertEquals(g.indexOf(6, -6), ray[5]);
+  }
+
+  /**
+   * Determines the number of bytes the current thread has allocated so far.
+   *
+   * @return the total bytes allocated by this thread.
+   */
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Checks every playable cell of the given board for both colors the same way a strategy
+   * would, returning a value so the work cannot be skipped.
+   *
+   * @param b a board.
+   * @return the total of the captures of every valid move.
+   */
+  private static int scanBoard(Board b) {
+    int total = 0;
+    int half = b.getSize() / 2;
+    for (int q = -half; q <= half; q++) {
+      for (int r = -half; r <= half; r++) {
+        if (b.isValidMove(q, r, PlayerColor.BLACK)) {
+          total += b.numTilesCaptured(q, r, PlayerColor.BLACK);
+        }
+        if (b.isValidMove(q, r, PlayerColor.WHITE)) {
+          total += b.numTilesCaptured(q, r, PlayerColor.WHITE);
+        }
+      }
+    }
+    if (b.hasValidMove(PlayerColor.BLACK)) {
+      total++;
+    }
+    return total;
+  }
+
+  @Test
+  public void testMoveChecksDoNotAllocate() {
+    Board b = new Board(11);
+    b.makeMove(1, -2, PlayerColor.BLACK);
+    int expected = scanBoard(b);
+    // warm up so class loading and compilation are not counted
+    for (int i = 0; i < 2000; i++) {
+      assertEquals(expected, scanBoard(b));
+    }
+    // the smallest of a few runs is kept so a compilation happening during one is not counted
+    long least = Long.MAX_VALUE;
+    for (int run = 0; run < 3; run++) {
+      long before = allocatedBytes();
+      int total = 0;
+      for (int i = 0; i < 2000; i++) {
+        total += scanBoard(b);
+      }
+      long after = allocatedBytes();
+      assertEquals(expected * 2000, total);
+      least = Math.min(least, after - before);
+    }
+    // allow for the bookkeeping of reading the allocation counter itself
+    assertTrue(least < 1024, "allocated " + least + " bytes");
+  }
+
+  @Test
+  public void testMakeMoveDoesNotAllocate() {
+    Board[] boards = new Board[4000];
+    for (int i = 0; i < boards.length; i++) {
+      boards[i] = new Board(11);
+    }
+    // the first quarter warms up, then each other quarter is measured, and the smallest
+    // amount is kept so a compilation happening during one quarter is not counted
+    long least = Long.MAX_VALUE;
+    for (int quarter = 0; quarter < 4; quarter++) {
+      long before = allocatedBytes();
+      for (int i = quarter * 1000; i < (quarter + 1) * 1000; i++) {
+        boards[i].makeMove(1, -2, PlayerColor.BLACK);
+        boards[i].makeMove(1, -3, PlayerColor.WHITE);
+      }
+      long after = allocatedBytes();
+      if (quarter > 0) {
+        least = Math.min(least, after - before);
+      }
+    }
+    assertEquals(PlayerColor.WHITE, boards[boards.length - 1].getColorAt(1, -2));
+    assertTrue(least < 1024, "allocated " + least + " bytes");
+  }
+
+  @Test
+  public void testUnmakeMoveRestoresBoard() {
+    this.init();
+    Board start = b1.getCopy();
+    MoveRecord first = b1.makeUndoableMove(-1, -1, PlayerColor.BLACK);
+    assertEquals(1, first.getFlipCount());
+    assertEquals(PlayerColor.BLACK, first.getColor());
+    Board afterFirst = b1.getCopy();
+    MoveRecord second = b1.makeUndoableMove(-1, -2, PlayerColor.WHITE);
+    assertEquals(-1, second.getQ());
+    assertEquals(-2, second.getR());
+    assertThrows(IllegalStateException.class, () -> b1.unmakeMove(first));
+    b1.unmakeMove(second);
+    assertEquals(afterFirst, b1);
+    assertEquals(5, b1.getScore(PlayerColor.BLACK));
+    assertEquals(2, b1.getScore(PlayerColor.WHITE));
+    b1.unmakeMove(first);
+    assertEquals(start, b1);
+    assertEquals(3, b1.getScore(PlayerColor.BLACK));
+    assertEquals(3, b1.getScore(PlayerColor.WHITE));
+    assertThrows(IllegalStateException.class, () -> b1.unmakeMove(first));
+    assertThrows(IllegalStateException.class, () -> b1.makeUndoableMove(2, 0,
+            PlayerColor.BLACK));
+  }
+
+  @Test
+  public void testHashFollowsMoves() {
+    this.init();
+    Board start = new Board(7);
+    assertEquals(start, b1);
+    assertEquals(start.hashCode(), b1.hashCode());
+    assertEquals(start.getHash(), b1.getHash());
+    assertEquals(b1.getHash(), b1.getHash(PlayerColor.BLACK));
+    assertFalse(b1.getHash() == b1.getHash(PlayerColor.WHITE));
+    b1.makeMove(-1, -1, PlayerColor.BLACK);
+    assertFalse(start.getHash() == b1.getHash());
+    assertFalse(start.equals(b1));
+    assertFalse(b1.equals(start));
+    assertEquals(b1.computeHash(), b1.getHash());
+    MoveRecord record = b1.makeUndoableMove(-1, -2, PlayerColor.WHITE);
+    assertEquals(b1.computeHash(), b1.getHash());
+    b1.unmakeMove(record);
+    assertEquals(b1.computeHash(), b1.getHash());
+    // boards of different sizes are never equal even with the same tiles
+    assertFalse(new Board(5).equals(new Board(7)));
+  }
+
+  @Test
+  public void testHashMatchesFreshHashAfterEveryMove() {
+    SplittableRandom random = new SplittableRandom(5);
+    Board board = new Board(9);
+    BoardGeometry geometry = BoardGeometry.of(9);
+    for (int game = 0; game < 10; game++) {
+      MoveRecord[] records = new MoveRecord[board.cellCount()];
+      int made = 0;
+      PlayerColor color = PlayerColor.BLACK;
+      while (board.hasValidMove(PlayerColor.BLACK) || board.hasValidMove(PlayerColor.WHITE)) {
+        int index = board.randomLegalMove(color, random);
+        if (index >= 0) {
+          HexCoordinates cell = board.cellAt(index);
+          long before = board.getHash();
+          MoveRecord record = board.makeUndoableMove(cell.getQ(), cell.getR(), color);
+          // the hash a board set up with the same tiles from scratch would have
+          assertEquals(board.computeHash(), board.getHash());
+          // placing the tile and every flip each change the hash by their own key
+          long expected = before ^ geometry.tileKey(record.getCell(), color);
+          PlayerColor other = (color == PlayerColor.BLACK) ? PlayerColor.WHITE
+                  : PlayerColor.BLACK;
+          for (int flipped = 0; flipped < geometry.cellCount(); flipped++) {
+            if ((record.getFlips()[flipped >>> 6] & (1L << flipped)) != 0) {
+              long change = geometry.tileKey(flipped, color) ^ geometry.tileKey(flipped, other);
+              assertFalse(change == 0);
+              expected ^= change;
+            }
+          }
+          assertEquals(expected, board.getHash());
+          records[made++] = record;
+        }
+        color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+      }
+      while (made > 0) {
+        board.unmakeMove(records[--made]);
+        assertEquals(board.computeHash(), board.getHash());
+      }
+      assertEquals(new Board(9).getHash(), board.getHash());
+    }
+  }
+
+  @Test
+  public void testFrontierFollowsMoves() {
+    this.init();
+    assertArrayEquals(b1.computeFrontier(), b1.getFrontier());
+    // the frontier starts as the empty center and the ring of cells around the starting tiles
+    int cells = 0;
+    for (long word : b1.getFrontier()) {
+      cells += Long.bitCount(word);
+    }
+    assertEquals(13, cells);
+    MoveRecord first = b1.makeUndoableMove(-1, -1, PlayerColor.BLACK);
+    assertArrayEquals(b1.computeFrontier(), b1.getFrontier());
+    MoveRecord second = b1.makeUndoableMove(-1, -2, PlayerColor.WHITE);
+    assertArrayEquals(b1.computeFrontier(), b1.getFrontier());
+    b1.unmakeMove(second);
+    assertArrayEquals(b1.computeFrontier(), b1.getFrontier());
+    b1.unmakeMove(first);
+    assertArrayEquals(new Board(7).getFrontier(), b1.getFrontier());
+    b1.makeMove(-1, -1, PlayerColor.BLACK);
+    assertArrayEquals(b1.computeFrontier(), b1.getFrontier());
+    assertArrayEquals(b1.getFrontier(), b1.getCopy().getFrontier());
+  }
+
+  @Test
+  public void testRandomLegalMovePicksEveryLegalMove() {
+    Board b = new Board(7);
+    b.makeMove(1, -2, PlayerColor.BLACK);
+    Set<Integer> legal = new HashSet<>();
+    for (LegalMove move : b.findLegalMoves(PlayerColor.WHITE)) {
+      legal.add(b.indexOf(move.getQ(), move.getR()));
+    }
+    Set<Integer> picked = new HashSet<>();
+    SplittableRandom random = new SplittableRandom(3);
+    for (int i = 0; i < 500; i++) {
+      picked.add(b.randomLegalMove(PlayerColor.WHITE, random));
+    }
+    assertEquals(legal, picked);
+    // a game played to the end with random moves leaves no move for either color
+    Board played = new Board(5);
+    PlayerColor color = PlayerColor.BLACK;
+    int passes = 0;
+    while (passes < 2) {
+      int move = played.randomLegalMove(color, random);
+      passes = (move < 0) ? passes + 1 : 0;
+      if (move >= 0) {
+        HexCoordinates cell = played.cellAt(move);
+        assertTrue(played.isValidMove(cell.getQ(), cell.getR(), color));
+        played.makeMove(cell.getQ(), cell.getR(), color);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    assertFalse(played.hasValidMove(PlayerColor.BLACK) || played.hasValidMove(PlayerColor.WHITE));
+    assertThrows(IllegalArgumentException.class,
+        () -> b.randomLegalMove(PlayerColor.EMPTY, random));
+  }
+
+  @Test
+  public void testFeaturesFollowMoves() {
+    Board start = new Board(7);
+    assertEquals(3, start.getFrontierTiles(PlayerColor.BLACK));
+    assertEquals(0, start.getCornerTiles(PlayerColor.WHITE));
+    assertEquals(0, start.getStableTiles(PlayerColor.BLACK));
+    // a board only tracks its features once asked to, and never with moves to unmake
+    assertEquals(null, start.getFeatures());
+    MoveRecord first = start.makeUndoableMove(-1, -1, PlayerColor.BLACK);
+    assertThrows(IllegalStateException.class, start::trackFeatures);
+    start.unmakeMove(first);
+    start.trackFeatures();
+    BoardFeatures tracked = start.getFeatures();
+    start.trackFeatures();
+    assertTrue(tracked == start.getFeatures());
+    assertEquals(null, new Board(7).getCopy().getFeatures());
+    SplittableRandom random = new SplittableRandom(11);
+    // the games must reach stable tiles for the checks to mean anything
+    int stableAtEnd = 0;
+    for (int size : new int[] {5, 7, 9}) {
+      for (int game = 0; game < 20; game++) {
+        Board b = new Board(size);
+        b.trackFeatures();
+        // the same game on a board that computes its features from scratch when asked
+        Board untracked = new Board(size);
+        MoveRecord[] records = new MoveRecord[b.cellCount()];
+        int moves = 0;
+        PlayerColor color = PlayerColor.BLACK;
+        int passes = 0;
+        while (passes < 2) {
+          int move = b.randomLegalMove(color, random);
+          passes = (move < 0) ? passes + 1 : 0;
+          if (move >= 0) {
+            HexCoordinates cell = b.cellAt(move);
+            records[moves++] = b.makeUndoableMove(cell.getQ(), cell.getR(), color);
+            this.checkFeatures(b);
+            untracked.makeMove(cell.getQ(), cell.getR(), color);
+            for (PlayerColor each : new PlayerColor[] {PlayerColor.BLACK, PlayerColor.WHITE}) {
+              assertEquals(b.getFrontierTiles(each), untracked.getFrontierTiles(each));
+              assertEquals(b.getCornerTiles(each), untracked.getCornerTiles(each));
+              assertEquals(b.getStableTiles(each), untracked.getStableTiles(each));
+            }
+          }
+          color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+        }
+        this.checkFeatures(b.getCopy());
+        stableAtEnd += b.getStableTiles(PlayerColor.BLACK)
+                + b.getStableTiles(PlayerColor.WHITE);
+        while (moves > 0) {
+          b.unmakeMove(records[--moves]);
+          this.checkFeatures(b);
+        }
+        assertEquals(0, b.getStableTiles(PlayerColor.WHITE));
+        assertEquals(3, b.getFrontierTiles(PlayerColor.WHITE));
+      }
+    }
+    assertTrue(stableAtEnd > 0);
+  }
+
+  /**
+   * Checks that the features the given board keeps up to date are the same as the features
+   * computed from scratch.
+   *
+   * @param b the board to check.
+   */
+  private void checkFeatures(Board b) {
+    BoardFeatures features = b.getFeatures();
+    assertArrayEquals(features.computeStable(true), features.getStable());
+    int stable = 0;
+    for (long word : features.getStable()) {
+      stable += Long.bitCount(word);
+    }
+    assertEquals(stable, b.getStableTiles(PlayerColor.BLACK)
+            + b.getStableTiles(PlayerColor.WHITE));
+    int corners = 0;
+    for (PlayerColor color : new PlayerColor[] {PlayerColor.BLACK, PlayerColor.WHITE}) {
+      assertEquals(features.computeFrontierTiles(color), b.getFrontierTiles(color));
+      corners += b.getCornerTiles(color);
+    }
+    int occupiedCorners = 0;
+    int radius = b.getSize() / 2;
+    int[][] cornerCells = {{radius, 0}, {-radius, 0}, {0, radius}, {0, -radius},
+        {radius, -radius}, {-radius, radius}};
+    for (int[] corner : cornerCells) {
+      PlayerColor color = b.getColorAt(corner[0], corner[1]);
+      if (color != PlayerColor.EMPTY) {
+        occupiedCorners++;
+        assertTrue(b.getCornerTiles(color) > 0);
+      }
+    }
+    assertEquals(occupiedCorners, corners);
+  }
 }
@@ -8,9 +8,18 @@ import java.util.List;
  * Associates features functionality with specific model functionality. Allows a
  * model to have features which check player turns as well as check to see the
  * status of the game.
+ * Turns are checked in a loop rather than by recursion: when a feature makes a move while
+ * the turns are being checked, which a machine player does, the move only asks for the
+ * turns to be checked again, and the outer loop checks them once the current check is
+ * done. A game between two machine players therefore runs as a loop on one stack frame
+ * rather than as a call chain one level deeper with every move.
  */
 public class TurnComponent {
   private final List<FeaturesModel> featuresListeners = new ArrayList<>();
+  // whether the turns are being checked further up the stack
+  private boolean checkingTurns;
+  // whether the turns must be checked again once the current check is done
+  private boolean turnChanged;
 
   /**
    * Adds the given model feature to this turn component's list of features.
@@ -21,11 +30,26 @@ public class TurnComponent {
   }
 
   /**
-   * Checks the current player turn for this turn component's list of features.
+   * Checks the current player turn for this turn component's list of features. If the
+   * turns are already being checked, which means a feature moved while checking its turn,
+   * the turns are instead checked again by that check once it is done.
    */
   void listenerCheckTurn() {
-    for (FeaturesModel f : this.featuresListeners) {
-      f.checkTurn();
+    this.turnChanged = true;
+    if (this.checkingTurns) {
+      return;
+    }
+    this.checkingTurns = true;
+    try {
+      while (this.turnChanged) {
+        this.turnChanged = false;
+        for (FeaturesModel f : this.featuresListeners) {
+          f.checkTurn();
+        }
+      }
+    } finally {
+      this.checkingTurns = false;
+      this.turnChanged = false;
     }
   }
 
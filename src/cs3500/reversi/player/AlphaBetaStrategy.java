@@ -0,0 +1,516 @@
+package cs3500.reversi.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.MoveRecord;
+import cs3500.reversi.model.ReadonlyReversiModel;
+
+/**
+ * Represents the strategy of searching the moves ahead of the current position with negamax
+ * and alpha-beta pruning, one depth at a time, until the time budget for the move runs out
+ * or the thread choosing the move is interrupted. The search always finishes at least one
+ * depth and chooses the best move of the deepest search that finished. It searches its own
+ * copy of the model's board, so the model is never changed while a move is being chosen.
+ * The result of every position searched is kept in a transposition table, so a position
+ * reached again by another order of moves, or again at the next depth, is not searched from
+ * scratch. The moves of each position are tried in the order given by a MoveOrdering, which
+ * starts with the table's best move. A strategy can search with more than one thread, where
+ * the extra helper threads search the same moves on their own copies of the board starting
+ * at staggered depths, and share their results with the main thread only through the
+ * transposition table. The move is always chosen by the main thread. A strategy chooses one
+ * move at a time, so it should not be shared between players.
+ */
+public class AlphaBetaStrategy implements Strategy {
+  // the score of a finished game that is won, before the final difference in tiles is added,
+  // which is larger than any evaluation of an unfinished game
+  static final int WIN_SCORE = 1_000_000;
+  // a score larger than any score the search can find
+  private static final int INFINITY = 2 * WIN_SCORE;
+  // the number of positions searched between checks of the clock
+  private static final int CHECK_INTERVAL = 1024;
+  // the memory used by the transposition table of a strategy that is not given one
+  private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  private final ReadonlyReversiModel model;
+  // the time the search for one move may take, in nanoseconds
+  private final long budgetNanos;
+  // the deepest depth that will be searched
+  private final int maxDepth;
+  // the evaluator, which is shared by every thread of the search
+  private final Evaluator evaluator;
+  // the results of the positions searched so far, which is shared by every thread
+  private final TranspositionTable table;
+  // the number of threads that search each move, including the main thread
+  private final int threads;
+  // the heuristics the moves of each position are ordered by, as MoveOrdering features
+  private final int orderingFeatures;
+  // the move ordering of each search thread, main thread first, which are made by the first
+  // search and kept for the next ones so that their history scores carry over
+  private final List<MoveOrdering> orderings;
+
+  // the deepest depth finished, the positions visited and the score found by the last search
+  private int lastDepth;
+  private long lastNodes;
+  private int lastScore;
+
+  /**
+   * The constructor for an AlphaBetaStrategy that searches as deep as it can in the given
+   * time, scoring positions with a mobility evaluator.
+   *
+   * @param model        the model for this strategy.
+   * @param millisPerMove the time to search for each move, in milliseconds.
+   * @throws IllegalArgumentException if the time is not positive.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, long millisPerMove) {
+    this(model, millisPerMove, Integer.MAX_VALUE, new MobilityEvaluator());
+  }
+
+  /**
+   * The constructor for an AlphaBetaStrategy with a transposition table of its own.
+   *
+   * @param model        the model for this strategy.
+   * @param millisPerMove the time to search for each move, in milliseconds.
+   * @param maxDepth     the deepest depth to search, in moves.
+   * @param evaluator    the evaluator to score positions at the end of the search with.
+   * @throws IllegalArgumentException if the time or depth is not positive, or the model or
+   *                                  evaluator is null.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, long millisPerMove, int maxDepth,
+                           Evaluator evaluator) {
+    this(model, millisPerMove, maxDepth, evaluator,
+            new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+  }
+
+  /**
+   * The constructor for an AlphaBetaStrategy that searches with one thread.
+   *
+   * @param model        the model for this strategy.
+   * @param millisPerMove the time to search for each move, in milliseconds.
+   * @param maxDepth     the deepest depth to search, in moves.
+   * @param evaluator    the evaluator to score positions at the end of the search with.
+   * @param table        the transposition table to keep the results of positions in, which
+   *                     is only shared with strategies using the same evaluator.
+   * @throws IllegalArgumentException if the time or depth is not positive, or the model,
+   *                                  evaluator or table is null.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, long millisPerMove, int maxDepth,
+                           Evaluator evaluator, TranspositionTable table) {
+    this(model, millisPerMove, maxDepth, evaluator, table, 1);
+  }
+
+  /**
+   * The constructor for an AlphaBetaStrategy.
+   *
+   * @param model        the model for this strategy.
+   * @param millisPerMove the time to search for each move, in milliseconds.
+   * @param maxDepth     the deepest depth to search, in moves.
+   * @param evaluator    the evaluator to score positions at the end of the search with,
+   *                     which must be safe to use from every thread at once.
+   * @param table        the transposition table to keep the results of positions in, which
+   *                     is only shared with strategies using the same evaluator.
+   * @param threads      the number of threads to search with, including the thread that
+   *                     chooses the move.
+   * @throws IllegalArgumentException if the time, depth or number of threads is not
+   *                                  positive, or the model, evaluator or table is null.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, long millisPerMove, int maxDepth,
+                           Evaluator evaluator, TranspositionTable table, int threads) {
+    this(model, millisPerMove, maxDepth, evaluator, table, threads, MoveOrdering.ALL);
+  }
+
+  /**
+   * The constructor for an AlphaBetaStrategy that orders moves with only some of the
+   * move ordering heuristics, which is how the effect of each heuristic is measured.
+   *
+   * @param model            the model for this strategy.
+   * @param millisPerMove    the time to search for each move, in milliseconds.
+   * @param maxDepth         the deepest depth to search, in moves.
+   * @param evaluator        the evaluator to score positions at the end of the search with,
+   *                         which must be safe to use from every thread at once.
+   * @param table            the transposition table to keep the results of positions in,
+   *                         which is only shared with strategies using the same evaluator.
+   * @param threads          the number of threads to search with, including the thread
+   *                         that chooses the move.
+   * @param orderingFeatures the move ordering heuristics to use, as MoveOrdering features.
+   * @throws IllegalArgumentException if the time, depth or number of threads is not
+   *                                  positive, the model, evaluator or table is null, or
+   *                                  the features are not MoveOrdering features.
+   */
+  public AlphaBetaStrategy(ReadonlyReversiModel model, long millisPerMove, int maxDepth,
+                           Evaluator evaluator, TranspositionTable table, int threads,
+                           int orderingFeatures) {
+    if (model == null || evaluator == null || table == null) {
+      throw new IllegalArgumentException("model, evaluator and table cannot be null");
+    }
+    if (millisPerMove <= 0 || maxDepth <= 0 || threads <= 0) {
+      throw new IllegalArgumentException("time, depth and threads must be positive");
+    }
+    if ((orderingFeatures & ~MoveOrdering.ALL) != 0) {
+      throw new IllegalArgumentException("Invalid move ordering features.");
+    }
+    this.model = model;
+    this.budgetNanos = millisPerMove * 1_000_000L;
+    this.maxDepth = maxDepth;
+    this.evaluator = evaluator;
+    this.table = table;
+    this.threads = threads;
+    this.orderingFeatures = orderingFeatures;
+    this.orderings = new ArrayList<>();
+  }
+
+  /**
+   * Determines the hexagonal axial coordinate of the most strategic move on the
+   * board for this strategy, which is the best move of the deepest search finished
+   * within the time budget.
+   *
+   * @param color The color of the tile of the player using this strategy.
+   * @return The most strategic move on the board for this strategy, or an empty move if
+   *         the color has no valid moves.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  @Override
+  public Optional<HexCoordinates> chooseMove(PlayerColor color) {
+    isColorEmpty(color);
+    long deadline = System.nanoTime() + this.budgetNanos;
+    Board board = this.model.getBoard();
+    List<LegalMove> moves = board.findLegalMoves(color);
+    this.lastDepth = 0;
+    this.lastNodes = 0;
+    if (moves.isEmpty()) {
+      return Optional.empty();
+    }
+    this.table.newSearch();
+    if (this.orderings.isEmpty()) {
+      for (int i = 0; i < this.threads; i++) {
+        this.orderings.add(new MoveOrdering(board, this.orderingFeatures));
+      }
+    }
+    for (MoveOrdering ordering : this.orderings) {
+      ordering.newSearch();
+    }
+    // the helpers of this search alone stop when it is cancelled, so a helper left over from
+    // an earlier search can never be restarted by a later one
+    CancellationToken stop = new CancellationToken();
+    Search main = new Search(board, moves, this.orderings.get(0), stop);
+    List<Search> helpers = new ArrayList<>();
+    List<Thread> helperThreads = new ArrayList<>();
+    for (int i = 1; i < this.threads; i++) {
+      Search helper = new Search(this.model.getBoard(), moves, this.orderings.get(i), stop);
+      // half of the helpers start one depth deeper, so the threads are not all searching
+      // the same depth at the same time
+      int firstDepth = 1 + (i % 2);
+      Thread thread = new Thread(() -> helper.deepen(color, firstDepth, Long.MAX_VALUE),
+              "alpha-beta-helper-" + i);
+      thread.setDaemon(true);
+      helpers.add(helper);
+      helperThreads.add(thread);
+      thread.start();
+    }
+    try {
+      main.deepen(color, 1, deadline);
+    } finally {
+      // the helpers stop even if the main search fails, so no helper outlives this move
+      stop.cancel();
+      joinAll(helperThreads);
+    }
+    long nodes = main.nodes;
+    for (Search helper : helpers) {
+      nodes += helper.nodes;
+    }
+    this.lastDepth = main.depthDone;
+    this.lastNodes = nodes;
+    this.lastScore = main.score;
+    return Optional.of(main.moves.get(0).getCoordinates());
+  }
+
+  /**
+   * Waits for every one of the given threads to finish, even if the waiting thread is
+   * interrupted, so nothing the threads wrote is read while they may still be writing it.
+   * An interrupt that arrives while waiting is kept, and the thread is interrupted again
+   * once every thread has finished.
+   *
+   * @param threads the threads to wait for, which must already be told to stop.
+   */
+  static void joinAll(List<Thread> threads) {
+    boolean interrupted = Thread.interrupted();
+    for (Thread thread : threads) {
+      while (true) {
+        try {
+          thread.join();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The search run by one thread on its own copy of the board, which deepens one depth at
+   * a time and keeps the best move of the deepest depth it finished at the front of its
+   * list of moves.
+   */
+  private final class Search {
+    // the board being searched, which is put back the way it was after every move
+    private final Board board;
+    // the legal moves at the root, in the order to search them
+    private final List<LegalMove> moves;
+    // the order the moves of every other position are searched in
+    private final MoveOrdering ordering;
+    // the token cancelled when the search this belongs to is over
+    private final CancellationToken stop;
+    // the time this search must stop at, which is never while the first depth of the main
+    // thread is searched so that there is always a finished depth to choose a move from
+    private long stopAt;
+    // whether this search has stopped in the middle of a depth
+    private boolean timedOut;
+    // the number of positions visited by this search
+    private long nodes;
+    // the deepest depth finished and the score of its best move
+    private int depthDone;
+    private int score;
+
+    /**
+     * Constructs a search of the given board.
+     *
+     * @param board    the board to search, which belongs to this search alone.
+     * @param moves    the legal moves at the root of the board.
+     * @param ordering the move ordering of the thread running this search.
+     * @param stop     the token cancelled when the search this belongs to is over.
+     */
+    private Search(Board board, List<LegalMove> moves, MoveOrdering ordering,
+                   CancellationToken stop) {
+      this.board = board;
+      this.moves = new ArrayList<>(moves);
+      this.ordering = ordering;
+      this.stop = stop;
+      AlphaBetaStrategy.this.evaluator.prepare(board);
+    }
+
+    /**
+     * Searches one depth deeper at a time, starting at the given depth, until the time runs
+     * out or the thread is interrupted after the first depth, the search is cancelled, the
+     * deepest depth is finished, or the search has reached the end of the game.
+     *
+     * @param color      the color to move at the root.
+     * @param firstDepth the first depth to search.
+     * @param deadline   the time to stop at once the first depth is finished.
+     */
+    private void deepen(PlayerColor color, int firstDepth, long deadline) {
+      AlphaBetaStrategy strategy = AlphaBetaStrategy.this;
+      int empties = this.board.cellCount() - this.board.getScore(PlayerColor.BLACK)
+              - this.board.getScore(PlayerColor.WHITE);
+      this.stopAt = Long.MAX_VALUE;
+      for (int depth = firstDepth; depth <= strategy.maxDepth && !this.stop.isCancelled();
+           depth++) {
+        int best = this.searchRoot(color, depth);
+        if (this.timedOut) {
+          return;
+        }
+        // the best move is searched first at the next depth
+        this.moves.add(0, this.moves.remove(best));
+        this.depthDone = depth;
+        LegalMove move = this.moves.get(0);
+        strategy.table.store(this.board.getHash(color), depth, TranspositionTable.EXACT,
+                this.score, this.board.indexOf(move.getQ(), move.getR()));
+        // passing does not use up depth, so a search as deep as the empty cells has
+        // already searched to the end of the game
+        if (depth >= empties || System.nanoTime() >= deadline
+                || Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        this.stopAt = deadline;
+      }
+    }
+
+    /**
+     * Searches every move at the root of the search to the given depth.
+     *
+     * @param color the color to move at the root.
+     * @param depth the depth to search to.
+     * @return the position of the best move in the list of moves.
+     */
+    private int searchRoot(PlayerColor color, int depth) {
+      PlayerColor other = opposite(color);
+      int alpha = -INFINITY;
+      int best = 0;
+      for (int i = 0; i < this.moves.size(); i++) {
+        LegalMove move = this.moves.get(i);
+        MoveRecord record = this.board.makeUndoableMove(move.getQ(), move.getR(), color);
+        int score = -this.negamax(other, depth - 1, 1, -INFINITY, -alpha);
+        this.board.unmakeMove(record);
+        if (this.timedOut) {
+          return best;
+        }
+        if (score > alpha) {
+          alpha = score;
+          best = i;
+        }
+      }
+      this.score = alpha;
+      return best;
+    }
+
+    /**
+     * Scores the board for the given color by searching the moves ahead of it to the
+     * given depth, skipping any moves that cannot change the score.
+     *
+     * @param color the color to move.
+     * @param depth the number of moves left to search.
+     * @param ply   the number of moves from the root to the board, including passes.
+     * @param alpha the score the color is already sure of.
+     * @param beta  the score the opposite color is already sure of, from the color's view.
+     * @return the score of the board for the color, which is only exact if it is strictly
+     *         between alpha and beta.
+     */
+    private int negamax(PlayerColor color, int depth, int ply, int alpha, int beta) {
+      AlphaBetaStrategy strategy = AlphaBetaStrategy.this;
+      this.nodes++;
+      if ((this.nodes & (CHECK_INTERVAL - 1)) == 0
+              && (this.stop.isCancelled() || System.nanoTime() >= this.stopAt
+              || (this.stopAt != Long.MAX_VALUE && Thread.currentThread().isInterrupted()))) {
+        this.timedOut = true;
+      }
+      if (this.timedOut) {
+        return 0;
+      }
+      Board board = this.board;
+      long hash = 0;
+      int hashMove = TranspositionTable.NO_MOVE;
+      if (depth > 0) {
+        hash = board.getHash(color);
+        long entry = strategy.table.probe(hash);
+        if (entry != TranspositionTable.MISSING) {
+          hashMove = TranspositionTable.getBestMove(entry);
+          if (TranspositionTable.getDepth(entry) >= depth) {
+            int score = TranspositionTable.getScore(entry);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+              return score;
+            }
+          }
+        }
+      }
+      PlayerColor other = opposite(color);
+      // a leaf only needs to know whether either color can move, so it never lists its moves
+      boolean leaf = depth == 0;
+      List<LegalMove> moves = leaf ? null : board.findLegalMoves(color);
+      if (leaf ? !board.hasValidMove(color) : moves.isEmpty()) {
+        if (!board.hasValidMove(other)) {
+          return finalScore(board, color);
+        }
+        // the color must pass, which does not use up depth
+        return -this.negamax(other, depth, ply + 1, -beta, -alpha);
+      }
+      if (leaf) {
+        return strategy.evaluator.evaluate(board, color);
+      }
+      this.ordering.order(moves, color, ply, hashMove);
+      int alphaAtStart = alpha;
+      int best = -INFINITY;
+      LegalMove bestMove = null;
+      for (LegalMove move : moves) {
+        MoveRecord record = board.makeUndoableMove(move.getQ(), move.getR(), color);
+        int score = -this.negamax(other, depth - 1, ply + 1, -beta, -alpha);
+        board.unmakeMove(record);
+        if (this.timedOut) {
+          return 0;
+        }
+        if (score > best) {
+          best = score;
+          bestMove = move;
+          if (score > alpha) {
+            alpha = score;
+            if (alpha >= beta) {
+              this.ordering.recordCutoff(board.indexOf(move.getQ(), move.getR()), color,
+                      ply, depth);
+              break;
+            }
+          }
+        }
+      }
+      int bound = (best >= beta) ? TranspositionTable.LOWER
+              : (best > alphaAtStart) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+      strategy.table.store(hash, depth, bound, best,
+              board.indexOf(bestMove.getQ(), bestMove.getR()));
+      return best;
+    }
+  }
+
+  /**
+   * Scores a finished game for the given color, where any win scores higher than any
+   * evaluation and a bigger win scores higher than a smaller one.
+   *
+   * @param board a board where neither color can move.
+   * @param color the color the score is for.
+   * @return the score of the finished game for the color.
+   */
+  static int finalScore(Board board, PlayerColor color) {
+    int difference = board.getScore(color) - board.getScore(opposite(color));
+    if (difference > 0) {
+      return WIN_SCORE + difference;
+    } else if (difference < 0) {
+      return -WIN_SCORE + difference;
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the deepest depth finished by the main thread of the last search.
+   *
+   * @return the depth of the move last chosen, or 0 if there was no move to choose.
+   */
+  public int getLastDepth() {
+    return this.lastDepth;
+  }
+
+  /**
+   * Returns the number of positions visited by every thread of the last search.
+   *
+   * @return the number of positions searched when the move was last chosen.
+   */
+  public long getLastNodes() {
+    return this.lastNodes;
+  }
+
+  /**
+   * Returns the score of the move chosen by the last search, from the point of view of the
+   * color that chose it.
+   *
+   * @return the score of the last chosen move, where a score past WIN_SCORE is a sure win.
+   */
+  public int getLastScore() {
+    return this.lastScore;
+  }
+
+  /**
+   * Determines the color opposite to the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return WHITE if the given color is BLACK, otherwise BLACK.
+   */
+  static PlayerColor opposite(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+  }
+
+  /**
+   * determines if the color is empty and throws an exception if so.
+   *
+   * @param color the color of the player
+   */
+  private static void isColorEmpty(PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import cs3500.reversi.model.FeaturesModel;
+import cs3500.reversi.model.GameState;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+
+/**
+ * Represents a machine player for a reversi game that chooses its moves off the thread that
+ * asks it to move. Asking it to move starts its strategy on a background executor and returns
+ * at once, and the chosen move is handed to a second executor to be made, which for a game
+ * shown in Swing is the event thread, so the windows keep responding while the strategy
+ * thinks and the model is only ever changed on the event thread.
+ * A move in progress is cancelled when the game is over or cancel is called, which
+ * interrupts the strategy's thread and drops its move. A move is also dropped if the game is
+ * no longer in the position the strategy was asked about by the time the move is made.
+ */
+public class AsyncMachinePlayer implements PlayerActions, FeaturesModel {
+  private final ReversiModel model;
+  private final Strategy strategy;
+  // the executor the strategy chooses moves on
+  private final ExecutorService searcher;
+  // the executor moves are made on, which is the thread the model is changed on
+  private final Executor poster;
+  // the task choosing the current move, kept to interrupt it on a cancel
+  private volatile Future<?> pending;
+  // whether a move has been asked for and not yet made or cancelled
+  private volatile boolean thinking;
+  // the number of times a move has been cancelled, which tells a move chosen before a
+  // cancel apart from one chosen after it
+  private volatile int cancels;
+
+  /**
+   * The constructor for an asynchronous machine player of reversi, which listens to the
+   * model to know when the game is over.
+   *
+   * @param model    The model for this machine player.
+   * @param strategy The strategy this machine player is using to play.
+   * @param searcher The executor the strategy chooses moves on.
+   * @param poster   The executor moves are made on, such as SwingUtilities::invokeLater.
+   * @throws IllegalArgumentException if any argument is null.
+   */
+  public AsyncMachinePlayer(ReversiModel model, Strategy strategy, ExecutorService searcher,
+                            Executor poster) {
+    if (model == null || strategy == null || searcher == null || poster == null) {
+      throw new IllegalArgumentException("arguments cannot be null");
+    }
+    this.model = model;
+    this.strategy = strategy;
+    this.searcher = searcher;
+    this.poster = poster;
+    this.model.addFeatures(this);
+  }
+
+  /**
+   * Allows the player to pass.
+   */
+  @Override
+  public void pass() {
+    this.model.pass(model.curPlayer());
+  }
+
+  /**
+   * Starts choosing a move for the current player with this player's strategy, unless a move
+   * is already being chosen, and returns without waiting for it. Once the move is chosen it is
+   * made on the poster's thread: a tile is placed if the strategy chose an empty cell, and
+   * otherwise the player passes. Nothing happens if the searcher has been shut down.
+   */
+  @Override
+  public void makeMove() {
+    if (this.thinking || this.model.isGameOver()) {
+      return;
+    }
+    PlayerColor color = this.model.curPlayer();
+    long position = this.model.getBoard().getHash(color);
+    int cancelsBefore = this.cancels;
+    this.thinking = true;
+    try {
+      this.pending = this.searcher.submit(() -> {
+        Optional<HexCoordinates> move;
+        try {
+          move = this.strategy.chooseMove(color);
+        } catch (RuntimeException e) {
+          // the strategy failed, which is reported on the thread the move would be made on
+          this.poster.execute(() -> {
+            if (this.cancels == cancelsBefore) {
+              this.thinking = false;
+            }
+            throw e;
+          });
+          return;
+        }
+        this.poster.execute(() -> this.finishMove(color, position, cancelsBefore, move));
+      });
+    } catch (RejectedExecutionException e) {
+      // the searcher was shut down because the game is closing, so no move is made
+      this.thinking = false;
+    }
+  }
+
+  /**
+   * Makes the move chosen by the strategy, as long as no cancel has happened since it was
+   * asked for and the game is still in the position it was asked about.
+   *
+   * @param color         The color the move was chosen for.
+   * @param position      The hash of the position the move was chosen in.
+   * @param cancelsBefore The number of cancels when the move was asked for.
+   * @param move          The move the strategy chose.
+   */
+  private void finishMove(PlayerColor color, long position, int cancelsBefore,
+                          Optional<HexCoordinates> move) {
+    if (this.cancels != cancelsBefore) {
+      return;
+    }
+    this.thinking = false;
+    if (this.model.getStatus() != GameState.PLAYING
+            || this.model.curPlayer() != color
+            || this.model.getBoard().getHash(color) != position) {
+      return;
+    }
+    if (move.isPresent() && this.model.getContentsOfCell(move.get().getQ(),
+            move.get().getR()) == PlayerColor.EMPTY) {
+      this.model.placeTile(color, move.get().getQ(), move.get().getR());
+    } else {
+      this.model.pass(color);
+    }
+  }
+
+  /**
+   * Cancels the move being chosen, if there is one, by interrupting the strategy's thread.
+   * The move is never made, even if the strategy finishes choosing it. This is called on the
+   * poster's thread, as the model is.
+   */
+  public void cancel() {
+    this.cancels++;
+    this.thinking = false;
+    Future<?> move = this.pending;
+    if (move != null) {
+      move.cancel(true);
+    }
+  }
+
+  /**
+   * Determines if this player is choosing a move.
+   *
+   * @return true iff a move has been asked for and not yet made or cancelled.
+   */
+  public boolean isThinking() {
+    return this.thinking;
+  }
+
+  /**
+   * Does nothing, as this player is asked to move by its controller.
+   */
+  @Override
+  public void checkTurn() {
+    // the controller of this player's color calls makeMove on its turn
+  }
+
+  /**
+   * Cancels the move being chosen if the game is over.
+   */
+  @Override
+  public void checkGameOver() {
+    if (this.model.isGameOver()) {
+      this.cancel();
+    }
+  }
+}
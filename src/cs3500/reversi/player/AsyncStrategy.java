@@ -0,0 +1,30 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import cs3500.reversi.model.HexCoordinates;
+
+/**
+ * Represents a strategy which chooses a move without blocking the thread that asks for it,
+ * under a time limit and a cancellation token. Many moves can be asked for at once, such as
+ * by the games of a tournament, each with its own time control.
+ */
+public interface AsyncStrategy {
+
+  /**
+   * Starts choosing the most strategic move for the given color, and returns at once.
+   * The model the strategy reads must not change until the returned future is done.
+   *
+   * @param color    The color of the tile of the player using this strategy.
+   * @param deadline The time the move must be chosen by, as a value of System.nanoTime.
+   * @param token    The token which cancels the move when it is cancelled.
+   * @return a future of the move, or of an empty move if the color has no valid moves,
+   *         which is cancelled if the token is cancelled first, and fails with a
+   *         TimeoutException if the deadline passes first.
+   * @throws IllegalArgumentException if the color is EMPTY or null, or the token is null.
+   */
+  public CompletableFuture<Optional<HexCoordinates>> chooseMoveAsync(PlayerColor color,
+                                                                     long deadline,
+                                                                     CancellationToken token);
+}
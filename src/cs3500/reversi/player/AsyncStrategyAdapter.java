@@ -0,0 +1,140 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import cs3500.reversi.model.HexCoordinates;
+
+/**
+ * Adapts a blocking strategy, such as the capture strategy, the corner strategy or multiple
+ * strategies, into an asynchronous one, by choosing each move on an executor. When the token
+ * is cancelled or the deadline passes before the move is chosen, the future is done at once
+ * and the thread choosing the move is interrupted, which stops the searching strategies
+ * early; a strategy that does not stop is left to finish, and its move is dropped. The
+ * interrupt never reaches the executor's next task.
+ */
+public class AsyncStrategyAdapter implements AsyncStrategy {
+  // the strategy which chooses the moves
+  private final Strategy strategy;
+  // the executor the moves are chosen on
+  private final Executor executor;
+
+  /**
+   * The constructor for an adapter of the given strategy.
+   *
+   * @param strategy The strategy to choose moves with.
+   * @param executor The executor to choose moves on.
+   * @throws IllegalArgumentException if any argument is null.
+   */
+  public AsyncStrategyAdapter(Strategy strategy, Executor executor) {
+    if (strategy == null || executor == null) {
+      throw new IllegalArgumentException("strategy and executor cannot be null");
+    }
+    this.strategy = strategy;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts choosing the most strategic move for the given color on this adapter's executor
+   * with its strategy, and returns at once.
+   *
+   * @param color    The color of the tile of the player using this strategy.
+   * @param deadline The time the move must be chosen by, as a value of System.nanoTime.
+   * @param token    The token which cancels the move when it is cancelled.
+   * @return a future of the strategy's move, which is cancelled if the token is cancelled
+   *         first, fails with a TimeoutException if the deadline passes first, and fails
+   *         with the strategy's exception if it throws one.
+   * @throws IllegalArgumentException if the color is EMPTY or null, or the token is null.
+   */
+  @Override
+  public CompletableFuture<Optional<HexCoordinates>> chooseMoveAsync(PlayerColor color,
+                                                                     long deadline,
+                                                                     CancellationToken token) {
+    if (color == null || color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+    if (token == null) {
+      throw new IllegalArgumentException("token cannot be null");
+    }
+    CompletableFuture<Optional<HexCoordinates>> move = new CompletableFuture<>();
+    Job job = new Job(color, move);
+    Runnable cancel = () -> move.cancel(false);
+    token.addListener(cancel);
+    move.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    move.whenComplete((chosen, failure) -> {
+      token.removeListener(cancel);
+      job.stop();
+    });
+    if (!move.isDone()) {
+      try {
+        this.executor.execute(job);
+      } catch (RejectedExecutionException e) {
+        move.completeExceptionally(e);
+      }
+    }
+    return move;
+  }
+
+  /**
+   * The choice of one move on the executor, which can be stopped before or while it runs.
+   */
+  private final class Job implements Runnable {
+    // the color to choose the move for
+    private final PlayerColor color;
+    // the future of the move
+    private final CompletableFuture<Optional<HexCoordinates>> move;
+    // the thread choosing the move while it does, and whether the move no longer needs
+    // choosing, both of which are only used while holding this job's lock
+    private Thread thread;
+    private boolean stopped;
+
+    /**
+     * Constructs the choice of a move.
+     *
+     * @param color the color to choose the move for.
+     * @param move  the future of the move.
+     */
+    private Job(PlayerColor color, CompletableFuture<Optional<HexCoordinates>> move) {
+      this.color = color;
+      this.move = move;
+    }
+
+    /**
+     * Chooses the move with the strategy, unless the move has already been stopped.
+     */
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (this.stopped) {
+          return;
+        }
+        this.thread = Thread.currentThread();
+      }
+      try {
+        this.move.complete(AsyncStrategyAdapter.this.strategy.chooseMove(this.color));
+      } catch (RuntimeException e) {
+        this.move.completeExceptionally(e);
+      } finally {
+        synchronized (this) {
+          this.thread = null;
+          this.stopped = true;
+        }
+        // an interrupt meant for this move must not reach the executor's next task
+        Thread.interrupted();
+      }
+    }
+
+    /**
+     * Stops the move from being chosen, interrupting the thread choosing it if there is one.
+     */
+    private synchronized void stop() {
+      this.stopped = true;
+      if (this.thread != null && this.thread != Thread.currentThread()) {
+        this.thread.interrupt();
+      }
+    }
+  }
+}
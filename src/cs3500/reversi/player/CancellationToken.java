@@ -0,0 +1,74 @@
+package cs3500.reversi.player;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A flag one thread raises to ask the work other threads are doing for it to stop, such as
+ * the moves being chosen by asynchronous strategies. Work can check the flag, or add a
+ * listener which is run once when the flag is raised. A token is never lowered once it is
+ * cancelled, so a new token is made for each move or game that may be cancelled. A token
+ * can be shared by any number of threads.
+ */
+public final class CancellationToken {
+  // whether the token has been cancelled
+  private volatile boolean cancelled;
+  // the listeners to run when the token is cancelled
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Cancels this token, running every listener on the calling thread. Cancelling a token
+   * again does nothing.
+   */
+  public void cancel() {
+    synchronized (this) {
+      if (this.cancelled) {
+        return;
+      }
+      this.cancelled = true;
+    }
+    for (Runnable listener : this.listeners) {
+      listener.run();
+    }
+    this.listeners.clear();
+  }
+
+  /**
+   * Determines if this token has been cancelled.
+   *
+   * @return true iff cancel has been called.
+   */
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * Adds a listener to run once when this token is cancelled, or runs it at once on the
+   * calling thread if the token already is.
+   *
+   * @param listener the listener to run.
+   * @throws IllegalArgumentException if the listener is null.
+   */
+  public void addListener(Runnable listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("listener cannot be null");
+    }
+    synchronized (this) {
+      if (!this.cancelled) {
+        this.listeners.add(listener);
+        return;
+      }
+    }
+    listener.run();
+  }
+
+  /**
+   * Removes a listener added to this token, so it is not run when the token is cancelled.
+   * Removing a listener that is not on the token does nothing.
+   *
+   * @param listener the listener to remove.
+   */
+  public void removeListener(Runnable listener) {
+    this.listeners.remove(listener);
+  }
+}
@@ -1,7 +1,9 @@
 package cs3500.reversi.player;
 
+import java.util.List;
 import java.util.Optional;
 import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
 import cs3500.reversi.model.ReadonlyReversiModel;
 
 
@@ -30,30 +32,34 @@ public class CapturePieceStrategy implements Strategy {
    */
   public Optional<HexCoordinates> chooseMove(PlayerColor color) {
     isColorEmpty(color);
-    HexCoordinates bestMove = null;
-    int maxCaptured = 0;
-    int size = model.getSizeOfBoard();
-    for (int q = -size + 1; q < size; q++) {
-      for (int r = Math.max(-size + 1, -size - q); r <= Math.min(size - 1, size - q - 1); r++) {
-        if (Math.abs(q) + Math.abs(r) + Math.abs(-q - r) <= (size - 1)
-                && model.getContentsOfCell(q, r) == PlayerColor.EMPTY
-                && model.isValidMove(q, r, color)) {
-          int numCaptured = model.numTilesCaptured(q, r, color);
-          // find the maximum number of tiles captured
-          // break the tie by choosing the uppermost-leftmost piece if there is a tie
-          if (numCaptured > maxCaptured
-                  || (numCaptured == maxCaptured && (bestMove == null
-                  || (r < bestMove.getR() || (r == bestMove.getR() && q < bestMove.getQ()))))) {
-            maxCaptured = numCaptured;
-            bestMove = new HexCoordinates(q, r);
-          }
-        }
+    return bestCapture(model.getLegalMoves(color));
+  }
+
+  /**
+   * Finds the move in the given list that captures the most tiles, breaking ties by
+   * choosing the uppermost-leftmost move.
+   *
+   * @param moves a list of legal moves.
+   * @return the coordinates of the move capturing the most tiles, or an empty move
+   *         if the list is empty.
+   */
+  static Optional<HexCoordinates> bestCapture(List<LegalMove> moves) {
+    LegalMove bestMove = null;
+    for (LegalMove move : moves) {
+      int q = move.getQ();
+      int r = move.getR();
+      // find the maximum number of tiles captured
+      // break the tie by choosing the uppermost-leftmost piece if there is a tie
+      if (bestMove == null || move.getNumCaptured() > bestMove.getNumCaptured()
+              || (move.getNumCaptured() == bestMove.getNumCaptured()
+              && (r < bestMove.getR() || (r == bestMove.getR() && q < bestMove.getQ())))) {
+        bestMove = move;
       }
     }
     if (bestMove == null) {
       return Optional.empty();
     }
-    return Optional.of(bestMove);
+    return Optional.of(bestMove.getCoordinates());
   }
 
   /**
@@ -1,10 +1,11 @@
 package cs3500.reversi.player;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
 import cs3500.reversi.model.ReadonlyReversiModel;
 
 /**
@@ -44,18 +45,28 @@ public class CheckCornersStrategy implements Strategy {
   @Override
   public Optional<HexCoordinates> chooseMove(PlayerColor color) {
     isColorEmpty(color);
+    int size = Math.floorDiv(this.model.getSizeOfBoard(), 2);
+    List<LegalMove> moves = this.model.getLegalMoves(color);
+    List<LegalMove> corners = new ArrayList<>();
+    for (LegalMove move : moves) {
+      if (isCorner(move.getQ(), move.getR(), size)) {
+        corners.add(move);
+      }
+    }
     HexCoordinates bestMove = null;
     int maxCaptured = 0;
-    int size = Math.floorDiv(this.model.getSizeOfBoard(), 2);
-    ArrayList<Integer> coordsToCheck = new ArrayList<>(Arrays.asList(-size, 0, size));
-    for (int i = 0; i < coordsToCheck.size(); i++) {
-      int q = coordsToCheck.get(i);
-      for (int r : coordsToCheck) {
+    for (int q : new int[] {-size, 0, size}) {
+      for (int r : new int[] {-size, 0, size}) {
         if (q != r) {
-          int numCaptured = model.numTilesCaptured(q, r, color);
+          LegalMove corner = findMove(corners, q, r);
+          boolean valid = corner != null;
+          // a corner that already has a tile still counts the tiles it would sandwich,
+          // in which case it is chosen and the player passes instead of moving
+          int numCaptured = valid ? corner.getNumCaptured() : this.capturedAtTakenCorner(q, r,
+                  color);
           if (numCaptured > maxCaptured || (numCaptured == maxCaptured && (bestMove == null
                   || (r < bestMove.getR() || (r == bestMove.getR() && q < bestMove.getQ()))))
-                  && model.isValidMove(q, r, color)) {
+                  && valid) {
             maxCaptured = numCaptured;
             bestMove = new HexCoordinates(q, r);
           }
@@ -63,11 +74,57 @@ public class CheckCornersStrategy implements Strategy {
       }
     }
     if (bestMove == null) {
-      Strategy s = new CapturePieceStrategy(model);
-      return s.chooseMove(color);
+      // no corner is available, so use the capture strategy on the same moves
+      return CapturePieceStrategy.bestCapture(moves);
     }
     return Optional.of(bestMove);
   }
-}
 
+  /**
+   * Finds the move at the given coordinate in the given list of moves.
+   *
+   * @param moves a list of legal moves.
+   * @param q     the q coordinate.
+   * @param r     the r coordinate.
+   * @return the move at the coordinate, or null if it is not in the list.
+   */
+  private static LegalMove findMove(List<LegalMove> moves, int q, int r) {
+    for (LegalMove move : moves) {
+      if (move.getQ() == q && move.getR() == r) {
+        return move;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Determines the number of tiles sandwiched from the given corner if it already has
+   * a tile on it.
+   *
+   * @param q     the q coordinate of a corner which is not a legal move.
+   * @param r     the r coordinate of a corner which is not a legal move.
+   * @param color the color of the player using this strategy.
+   * @return the number of tiles sandwiched from the corner, or 0 if the corner is empty.
+   */
+  private int capturedAtTakenCorner(int q, int r, PlayerColor color) {
+    if (this.model.getContentsOfCell(q, r) == PlayerColor.EMPTY) {
+      return 0;
+    }
+    return this.model.numTilesCaptured(q, r, color);
+  }
 
+  /**
+   * Determines if the given coordinate is one of the six corners of a board, where the
+   * corners are the coordinates made of -size, 0 and size with differing q and r.
+   *
+   * @param q    the q coordinate.
+   * @param r    the r coordinate.
+   * @param size the distance from the center of the board to its edge.
+   * @return true iff the coordinate is a corner.
+   */
+  private static boolean isCorner(int q, int r, int size) {
+    return q != r
+            && (q == 0 || Math.abs(q) == size)
+            && (r == 0 || Math.abs(r) == size);
+  }
+}
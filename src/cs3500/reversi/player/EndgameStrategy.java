@@ -0,0 +1,382 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.MoveRecord;
+import cs3500.reversi.model.ReadonlyReversiModel;
+
+/**
+ * Represents the strategy of solving the end of a game exactly. Once the number of empty
+ * cells is at most the threshold of the strategy, every line of play to the end of the game
+ * is searched with alpha-beta pruning, and the move with the best final difference in tiles
+ * is chosen, which no other move can beat whatever the opponent plays. Before that, the
+ * move is chosen by the fallback strategy.
+ * The solver keeps its own list of the empty cells, which are the only cells that can be
+ * played, and makes and unmakes moves on its own copy of the board. Moves are tried in the
+ * order most likely to cut off the search: far from the end, the moves that leave the
+ * opponent the fewest replies are tried first (fastest-first), and near the end, the moves in
+ * regions of the board with an odd number of empty cells are tried first (parity), as the
+ * color playing last in a region usually keeps the tiles it takes there.
+ */
+public class EndgameStrategy implements Strategy {
+  // the number of empty cells above which moves are ordered by the opponent's replies,
+  // below which counting the replies costs more than it saves
+  private static final int FASTEST_FIRST_EMPTIES = 7;
+  // the changes in q and r to each of the six cells next to a cell
+  private static final int[] Q_STEPS = {-1, -1, 0, 0, 1, 1};
+  private static final int[] R_STEPS = {0, 1, -1, 1, -1, 0};
+
+  private final ReadonlyReversiModel model;
+  // the most empty cells at which the end of the game is solved
+  private final int threshold;
+  // the strategy choosing the move while there are more empty cells than the threshold
+  private final Strategy fallback;
+
+  // whether the last move was solved, the final difference in tiles it leads to, and the
+  // positions visited to solve it
+  private boolean lastSolved;
+  private int lastDifferential;
+  private long lastNodes;
+
+  /**
+   * The constructor for an EndgameStrategy.
+   *
+   * @param model     the model for this strategy.
+   * @param threshold the most empty cells at which the end of the game is solved.
+   * @param fallback  the strategy to choose moves with while there are more empty cells.
+   * @throws IllegalArgumentException if the model or fallback is null, or the threshold is
+   *                                  negative.
+   */
+  public EndgameStrategy(ReadonlyReversiModel model, int threshold, Strategy fallback) {
+    if (model == null || fallback == null) {
+      throw new IllegalArgumentException("model and fallback cannot be null");
+    }
+    if (threshold < 0) {
+      throw new IllegalArgumentException("threshold cannot be negative");
+    }
+    this.model = model;
+    this.threshold = threshold;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Determines the hexagonal axial coordinate of the most strategic move on the
+   * board for this strategy, which is the move with the best final difference in tiles if
+   * the end of the game can be solved, or the move of the fallback strategy otherwise.
+   *
+   * @param color The color of the tile of the player using this strategy.
+   * @return The most strategic move on the board for this strategy, or an empty move if
+   *         the color has no valid moves.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  @Override
+  public Optional<HexCoordinates> chooseMove(PlayerColor color) {
+    isColorEmpty(color);
+    Board board = this.model.getBoard();
+    int empties = board.cellCount() - board.getScore(PlayerColor.BLACK)
+            - board.getScore(PlayerColor.WHITE);
+    this.lastSolved = false;
+    this.lastDifferential = 0;
+    this.lastNodes = 0;
+    if (empties > this.threshold) {
+      return this.fallback.chooseMove(color);
+    }
+    if (!board.hasValidMove(color)) {
+      return Optional.empty();
+    }
+    Solver solver = new Solver(board);
+    int move = solver.solveRoot(color);
+    this.lastSolved = true;
+    this.lastDifferential = solver.differential;
+    this.lastNodes = solver.nodes;
+    return Optional.of(board.cellAt(move));
+  }
+
+  /**
+   * The search of one position to the end of the game, on its own copy of the board.
+   */
+  private static final class Solver {
+    // the board being solved, which is put back the way it was after every move
+    private final Board board;
+    // the empty cells, by cell index, where the first emptyCount of them are still empty
+    // and the rest have been played in the order of the current line of play
+    private final int[] empty;
+    // the position of each cell index in the list of empty cells
+    private final int[] positionOf;
+    // the number of cells still empty
+    private int emptyCount;
+    // the region of empty cells each empty cell was in at the root, and the number of cells
+    // of each region still empty
+    private final int[] regionOf;
+    private final int[] regionEmpties;
+    // the moves and their ordering keys at each number of empty cells, which a position
+    // only needs while it has moves, so a position that passes can share them with the next
+    private final int[][] moves;
+    private final int[][] keys;
+    // the number of positions visited
+    private long nodes;
+    // the final difference in tiles of the best move at the root
+    private int differential;
+
+    /**
+     * Constructs a solver of the given board.
+     *
+     * @param board the board to solve, which belongs to this solver alone.
+     */
+    private Solver(Board board) {
+      this.board = board;
+      int cells = board.cellCount();
+      this.empty = new int[cells];
+      this.positionOf = new int[cells];
+      for (int index = 0; index < cells; index++) {
+        if (board.getColorAt(index) == PlayerColor.EMPTY) {
+          this.positionOf[index] = this.emptyCount;
+          this.empty[this.emptyCount++] = index;
+        }
+      }
+      this.regionOf = new int[cells];
+      this.regionEmpties = new int[this.emptyCount];
+      this.findRegions();
+      this.moves = new int[this.emptyCount + 1][];
+      this.keys = new int[this.emptyCount + 1][];
+      for (int i = 0; i <= this.emptyCount; i++) {
+        this.moves[i] = new int[i];
+        this.keys[i] = new int[i];
+      }
+    }
+
+    /**
+     * Splits the empty cells into regions of cells connected to each other through empty
+     * cells, and counts the cells of each region.
+     */
+    private void findRegions() {
+      int regions = 0;
+      int[] stack = new int[this.emptyCount];
+      boolean[] seen = new boolean[this.board.cellCount()];
+      for (int i = 0; i < this.emptyCount; i++) {
+        int start = this.empty[i];
+        if (seen[start]) {
+          continue;
+        }
+        seen[start] = true;
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+          int cell = stack[--top];
+          this.regionOf[cell] = regions;
+          this.regionEmpties[regions]++;
+          HexCoordinates at = this.board.cellAt(cell);
+          for (int dir = 0; dir < Q_STEPS.length; dir++) {
+            int next = this.board.indexOf(at.getQ() + Q_STEPS[dir], at.getR() + R_STEPS[dir]);
+            if (next >= 0 && !seen[next] && this.board.getColorAt(next) == PlayerColor.EMPTY) {
+              seen[next] = true;
+              stack[top++] = next;
+            }
+          }
+        }
+        regions++;
+      }
+    }
+
+    /**
+     * Solves every move of the root, which must have at least one move.
+     *
+     * @param color the color to move at the root.
+     * @return the cell index of the best move.
+     */
+    private int solveRoot(PlayerColor color) {
+      int count = this.orderedMoves(color);
+      int[] rootMoves = this.moves[this.emptyCount].clone();
+      int alpha = -this.board.cellCount() - 1;
+      int beta = this.board.cellCount() + 1;
+      int best = rootMoves[0];
+      for (int i = 0; i < count; i++) {
+        int score = -this.play(rootMoves[i], color, -beta, -alpha);
+        if (score > alpha) {
+          alpha = score;
+          best = rootMoves[i];
+        }
+      }
+      this.differential = alpha;
+      return best;
+    }
+
+    /**
+     * Makes the given move, solves the position after it for the opponent, and unmakes it.
+     *
+     * @param cell  the cell index of the move.
+     * @param color the color making the move.
+     * @param alpha the score the opponent is already sure of.
+     * @param beta  the score the color is already sure of, from the opponent's view.
+     * @return the final difference in tiles of the position after the move for the opponent.
+     */
+    private int play(int cell, PlayerColor color, int alpha, int beta) {
+      HexCoordinates at = this.board.cellAt(cell);
+      MoveRecord record = this.board.makeUndoableMove(at.getQ(), at.getR(), color);
+      this.remove(cell);
+      int score = this.negamax(opposite(color), alpha, beta, false);
+      this.restore(cell);
+      this.board.unmakeMove(record);
+      return score;
+    }
+
+    /**
+     * Solves the board for the given color to the end of the game.
+     *
+     * @param color  the color to move.
+     * @param alpha  the score the color is already sure of.
+     * @param beta   the score the opposite color is already sure of, from the color's view.
+     * @param passed whether the opponent passed to reach this position.
+     * @return the final difference in tiles for the color, which is only exact if it is
+     *         strictly between alpha and beta.
+     */
+    private int negamax(PlayerColor color, int alpha, int beta, boolean passed) {
+      this.nodes++;
+      PlayerColor other = opposite(color);
+      if (this.emptyCount == 0) {
+        return this.board.getScore(color) - this.board.getScore(other);
+      }
+      int count = this.orderedMoves(color);
+      if (count == 0) {
+        if (passed) {
+          return this.board.getScore(color) - this.board.getScore(other);
+        }
+        return -this.negamax(other, -beta, -alpha, true);
+      }
+      int[] ordered = this.moves[this.emptyCount];
+      int best = Integer.MIN_VALUE;
+      for (int i = 0; i < count; i++) {
+        int score = -this.play(ordered[i], color, -beta, -alpha);
+        if (score > best) {
+          best = score;
+          if (score > alpha) {
+            alpha = score;
+            if (alpha >= beta) {
+              break;
+            }
+          }
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Finds the legal moves of the given color and sorts them into the order to search
+     * them, in the buffer for the current number of empty cells.
+     *
+     * @param color the color to move.
+     * @return the number of legal moves.
+     */
+    private int orderedMoves(PlayerColor color) {
+      int[] found = this.moves[this.emptyCount];
+      int[] order = this.keys[this.emptyCount];
+      boolean fastestFirst = this.emptyCount > FASTEST_FIRST_EMPTIES;
+      PlayerColor other = opposite(color);
+      int count = 0;
+      for (int i = 0; i < this.emptyCount; i++) {
+        int cell = this.empty[i];
+        HexCoordinates at = this.board.cellAt(cell);
+        if (this.board.numTilesCaptured(at.getQ(), at.getR(), color) == 0) {
+          continue;
+        }
+        // a move in a region with an even number of empty cells is tried after the moves
+        // in odd regions that have the same number of replies
+        int key = (this.regionEmpties[this.regionOf[cell]] & 1) ^ 1;
+        if (fastestFirst) {
+          MoveRecord record = this.board.makeUndoableMove(at.getQ(), at.getR(), color);
+          key += 2 * this.board.countLegalMoves(other);
+          this.board.unmakeMove(record);
+        }
+        // insertion sort, as positions have few moves
+        int j = count++;
+        while (j > 0 && order[j - 1] > key) {
+          found[j] = found[j - 1];
+          order[j] = order[j - 1];
+          j--;
+        }
+        found[j] = cell;
+        order[j] = key;
+      }
+      return count;
+    }
+
+    /**
+     * Takes the given cell out of the empty cells, after a move there.
+     *
+     * @param cell the cell index of the move.
+     */
+    private void remove(int cell) {
+      int last = this.empty[--this.emptyCount];
+      int position = this.positionOf[cell];
+      this.empty[position] = last;
+      this.positionOf[last] = position;
+      this.empty[this.emptyCount] = cell;
+      this.positionOf[cell] = this.emptyCount;
+      this.regionEmpties[this.regionOf[cell]]--;
+    }
+
+    /**
+     * Puts the given cell back into the empty cells, after its move is unmade. The cell
+     * must be the last one removed.
+     *
+     * @param cell the cell index of the move.
+     */
+    private void restore(int cell) {
+      this.emptyCount++;
+      this.regionEmpties[this.regionOf[cell]]++;
+    }
+  }
+
+  /**
+   * Returns whether the last move chosen was solved to the end of the game, rather than
+   * chosen by the fallback strategy.
+   *
+   * @return true iff the last move was solved.
+   */
+  public boolean wasLastSolved() {
+    return this.lastSolved;
+  }
+
+  /**
+   * Returns the final difference in tiles that the last solved move leads to with perfect
+   * play by both colors, from the point of view of the color that chose it.
+   *
+   * @return the final tiles of the color minus those of its opponent, or 0 if the last move
+   *         was not solved.
+   */
+  public int getLastDifferential() {
+    return this.lastDifferential;
+  }
+
+  /**
+   * Returns the number of positions visited to solve the last move.
+   *
+   * @return the positions solved when the move was last chosen, or 0 if it was not solved.
+   */
+  public long getLastNodes() {
+    return this.lastNodes;
+  }
+
+  /**
+   * Determines the color opposite to the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return WHITE if the given color is BLACK, otherwise BLACK.
+   */
+  private static PlayerColor opposite(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+  }
+
+  /**
+   * determines if the color is empty and throws an exception if so.
+   *
+   * @param color the color of the player
+   */
+  private static void isColorEmpty(PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package cs3500.reversi.player;
+
+import cs3500.reversi.model.Board;
+
+/**
+ * Represents a way of scoring a position for a search strategy, where a higher score is
+ * better for the color being scored. An evaluator is only asked about positions where the
+ * game is not over, as the search scores finished games by their final tiles itself.
+ */
+public interface Evaluator {
+
+  /**
+   * Gets the given board ready to be scored by this evaluator, before a search starts making
+   * moves on it, such as by having the board track the features this evaluator reads. By
+   * default nothing is done, as the tiles, scores and legal moves of a board are always
+   * kept up to date.
+   *
+   * @param board a board that has no moves to unmake, which will be scored many times.
+   */
+  public default void prepare(Board board) {
+    // the board already keeps up to date everything most evaluators read
+  }
+
+  /**
+   * Scores the given board from the point of view of the given color.
+   *
+   * @param board the board to score, which must not be changed.
+   * @param color the color the score is for, which is BLACK or WHITE.
+   * @return the score of the board, where a positive score is good for the color and
+   *         the score for the opposite color is its negative.
+   */
+  public int evaluate(Board board, PlayerColor color);
+}
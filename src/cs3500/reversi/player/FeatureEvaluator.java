@@ -0,0 +1,170 @@
+package cs3500.reversi.player;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import cs3500.reversi.model.Board;
+
+/**
+ * Represents an evaluator that scores a position by a weighted sum of the differences
+ * between the two colors in legal moves, frontier tiles, corner tiles, stable tiles and
+ * tiles. A board prepared by this evaluator keeps every one of these counts up to date as
+ * moves are made and unmade, so scoring a position takes no scan of the board, and the
+ * legal moves are counted only over the cells next to a tile. Frontier tiles count against
+ * a color, as they give its opponent moves. The weights depend on the size of the board,
+ * since the edge and the corners matter more on a small board, where most cells are near
+ * them.
+ */
+public class FeatureEvaluator implements Evaluator {
+  // the weights used for a board of each size that has its own weights
+  private final Map<Integer, Weights> weightsBySize;
+  // the weights used for a board of any other size
+  private final Weights otherSizes;
+
+  /**
+   * The constructor for a feature evaluator with the default weights, which stress stable
+   * tiles over mobility on the size 5 board, where the game is over within a few moves.
+   */
+  public FeatureEvaluator() {
+    this(Map.of(5, new Weights(3, 1, 12, 6, 1)), new Weights(4, 1, 16, 5, 1));
+  }
+
+  /**
+   * The constructor for a feature evaluator with the given weights.
+   *
+   * @param weightsBySize the weights to use for each board size that has its own weights.
+   * @param otherSizes    the weights to use for every other board size.
+   * @throws IllegalArgumentException if any argument, size or weights is null.
+   */
+  public FeatureEvaluator(Map<Integer, Weights> weightsBySize, Weights otherSizes) {
+    if (weightsBySize == null || otherSizes == null) {
+      throw new IllegalArgumentException("weights cannot be null");
+    }
+    this.weightsBySize = new HashMap<>();
+    for (Map.Entry<Integer, Weights> entry : weightsBySize.entrySet()) {
+      if (entry.getKey() == null || entry.getValue() == null) {
+        throw new IllegalArgumentException("weights cannot be null");
+      }
+      this.weightsBySize.put(entry.getKey(), entry.getValue());
+    }
+    this.otherSizes = otherSizes;
+  }
+
+  /**
+   * Returns the weights used for a board of the given size.
+   *
+   * @param size the size of a board.
+   * @return the weights of the features for that size.
+   */
+  public Weights weightsFor(int size) {
+    return this.weightsBySize.getOrDefault(size, this.otherSizes);
+  }
+
+  /**
+   * Has the given board track its frontier, corner and stable tiles, so scoring it never
+   * scans the board.
+   *
+   * @param board a board that has no moves to unmake, which will be scored many times.
+   */
+  @Override
+  public void prepare(Board board) {
+    board.trackFeatures();
+  }
+
+  /**
+   * Scores the given board from the point of view of the given color.
+   *
+   * @param board the board to score, which must not be changed.
+   * @param color the color the score is for, which is BLACK or WHITE.
+   * @return the weighted sum of the differences in each feature.
+   */
+  @Override
+  public int evaluate(Board board, PlayerColor color) {
+    PlayerColor other = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    Weights weights = this.weightsFor(board.getSize());
+    return weights.mobility * (board.countLegalMoves(color) - board.countLegalMoves(other))
+            - weights.frontier * (board.getFrontierTiles(color) - board.getFrontierTiles(other))
+            + weights.corners * (board.getCornerTiles(color) - board.getCornerTiles(other))
+            + weights.stable * (board.getStableTiles(color) - board.getStableTiles(other))
+            + weights.tiles * (board.getScore(color) - board.getScore(other));
+  }
+
+  /**
+   * The weights of the features a FeatureEvaluator scores, each of which is how much one
+   * more of that feature than the opponent is worth. Weights never change once made.
+   */
+  public static final class Weights {
+    // the worth of each legal move, frontier tile, corner tile, stable tile and tile
+    private final int mobility;
+    private final int frontier;
+    private final int corners;
+    private final int stable;
+    private final int tiles;
+
+    /**
+     * The constructor for a set of weights.
+     *
+     * @param mobility how much each extra legal move is worth.
+     * @param frontier how much each extra frontier tile costs.
+     * @param corners  how much each extra corner tile is worth.
+     * @param stable   how much each extra stable tile is worth.
+     * @param tiles    how much each extra tile is worth.
+     * @throws IllegalArgumentException if any weight is negative.
+     */
+    public Weights(int mobility, int frontier, int corners, int stable, int tiles) {
+      if (mobility < 0 || frontier < 0 || corners < 0 || stable < 0 || tiles < 0) {
+        throw new IllegalArgumentException("weights cannot be negative");
+      }
+      this.mobility = mobility;
+      this.frontier = frontier;
+      this.corners = corners;
+      this.stable = stable;
+      this.tiles = tiles;
+    }
+
+    /**
+     * Returns how much each extra legal move is worth.
+     *
+     * @return the mobility weight.
+     */
+    public int getMobility() {
+      return this.mobility;
+    }
+
+    /**
+     * Returns how much each extra frontier tile costs.
+     *
+     * @return the frontier weight.
+     */
+    public int getFrontier() {
+      return this.frontier;
+    }
+
+    /**
+     * Returns how much each extra corner tile is worth.
+     *
+     * @return the corner weight.
+     */
+    public int getCorners() {
+      return this.corners;
+    }
+
+    /**
+     * Returns how much each extra stable tile is worth.
+     *
+     * @return the stable tile weight.
+     */
+    public int getStable() {
+      return this.stable;
+    }
+
+    /**
+     * Returns how much each extra tile is worth.
+     *
+     * @return the tile weight.
+     */
+    public int getTiles() {
+      return this.tiles;
+    }
+  }
+}
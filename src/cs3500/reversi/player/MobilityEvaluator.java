@@ -0,0 +1,48 @@
+package cs3500.reversi.player;
+
+import cs3500.reversi.model.Board;
+
+/**
+ * Represents an evaluator that scores a position by how many more moves a color has than
+ * its opponent, plus how many more tiles it has. Having more moves to choose from matters
+ * more than the number of tiles until late in a game, so each move is worth several tiles.
+ */
+public class MobilityEvaluator implements Evaluator {
+  // how many tiles one extra legal move is worth
+  private final int mobilityWeight;
+
+  /**
+   * The constructor for a mobility evaluator where each extra legal move is worth
+   * four tiles.
+   */
+  public MobilityEvaluator() {
+    this(4);
+  }
+
+  /**
+   * The constructor for a mobility evaluator.
+   *
+   * @param mobilityWeight how many tiles one extra legal move is worth.
+   * @throws IllegalArgumentException if the weight is negative.
+   */
+  public MobilityEvaluator(int mobilityWeight) {
+    if (mobilityWeight < 0) {
+      throw new IllegalArgumentException("weight cannot be negative");
+    }
+    this.mobilityWeight = mobilityWeight;
+  }
+
+  /**
+   * Scores the given board from the point of view of the given color.
+   *
+   * @param board the board to score, which must not be changed.
+   * @param color the color the score is for, which is BLACK or WHITE.
+   * @return the weighted difference in legal moves plus the difference in tiles.
+   */
+  @Override
+  public int evaluate(Board board, PlayerColor color) {
+    PlayerColor other = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    int mobility = board.countLegalMoves(color) - board.countLegalMoves(other);
+    return this.mobilityWeight * mobility + board.getScore(color) - board.getScore(other);
+  }
+}
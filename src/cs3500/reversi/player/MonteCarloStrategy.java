@@ -0,0 +1,435 @@
+package cs3500.reversi.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.MoveRecord;
+import cs3500.reversi.model.ReadonlyReversiModel;
+
+/**
+ * Represents the strategy of Monte Carlo tree search, which plays many games from the
+ * current position to the end with random moves, and chooses the move whose games went
+ * best. Each game starts by walking down a tree of the moves tried so far, choosing at
+ * every position the move with the best balance of games won and games tried (UCT), then
+ * adds the moves of the position it reached to the tree and finishes the game with random
+ * moves, which is a playout. The result of every playout is counted in each move on its
+ * path. Random moves need no evaluation of the board, so this strategy plays the large
+ * boards where searching every move to a useful depth takes too long.
+ * A strategy can run playouts on more than one thread, where every thread walks the same
+ * tree and plays out on its own copy of the board. A thread counts a loss for every move on
+ * its path until its playout is done, a virtual loss, so that the other threads try other
+ * moves in the meantime. The search stops when the time budget runs out or the given number
+ * of playouts have been played. A strategy chooses one move at a time, so it should not be
+ * shared between players.
+ */
+public class MonteCarloStrategy implements Strategy {
+  // how much the search favors moves it has tried less, which is the usual square root of 2
+  private static final double EXPLORATION = Math.sqrt(2);
+  // the number of lost games a thread adds to each move on its path while its playout runs
+  private static final int VIRTUAL_LOSS = 3;
+  // the cell index of the move of a node that is reached by passing
+  private static final int PASS = -1;
+
+  private final ReadonlyReversiModel model;
+  // the time the search for one move may take, in nanoseconds
+  private final long budgetNanos;
+  // the most playouts played for one move
+  private final long maxPlayouts;
+  // the number of threads that play out each move, including the thread choosing the move
+  private final int threads;
+  // the seed of the random moves, where each thread and each move gets its own stream
+  private final SplittableRandom seeds;
+
+  // the playouts played, the playouts played per second, and the share of games won by
+  // the chosen move, in the last search
+  private long lastPlayouts;
+  private double lastPlayoutsPerSecond;
+  private double lastWinRate;
+
+  /**
+   * The constructor for a MonteCarloStrategy that plays out for the given time with one
+   * thread per processor.
+   *
+   * @param model         the model for this strategy.
+   * @param millisPerMove the time to play out each move for, in milliseconds.
+   * @throws IllegalArgumentException if the time is not positive or the model is null.
+   */
+  public MonteCarloStrategy(ReadonlyReversiModel model, long millisPerMove) {
+    this(model, millisPerMove, Long.MAX_VALUE, Runtime.getRuntime().availableProcessors(),
+            System.nanoTime());
+  }
+
+  /**
+   * The constructor for a MonteCarloStrategy. With one thread, a strategy with a given seed
+   * that stops at its number of playouts before its time runs out always chooses the same
+   * moves.
+   *
+   * @param model         the model for this strategy.
+   * @param millisPerMove the time to play out each move for, in milliseconds.
+   * @param maxPlayouts   the most playouts to play for each move.
+   * @param threads       the number of threads to play out with, including the thread that
+   *                      chooses the move.
+   * @param seed          the seed of the random moves of the playouts.
+   * @throws IllegalArgumentException if the time, playouts or number of threads is not
+   *                                  positive, or the model is null.
+   */
+  public MonteCarloStrategy(ReadonlyReversiModel model, long millisPerMove, long maxPlayouts,
+                            int threads, long seed) {
+    if (model == null) {
+      throw new IllegalArgumentException("model cannot be null");
+    }
+    if (millisPerMove <= 0 || maxPlayouts <= 0 || threads <= 0) {
+      throw new IllegalArgumentException("time, playouts and threads must be positive");
+    }
+    this.model = model;
+    this.budgetNanos = millisPerMove * 1_000_000L;
+    this.maxPlayouts = maxPlayouts;
+    this.threads = threads;
+    this.seeds = new SplittableRandom(seed);
+  }
+
+  /**
+   * Determines the hexagonal axial coordinate of the most strategic move on the
+   * board for this strategy, which is the move played out the most.
+   *
+   * @param color The color of the tile of the player using this strategy.
+   * @return The most strategic move on the board for this strategy, or an empty move if
+   *         the color has no valid moves.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  @Override
+  public Optional<HexCoordinates> chooseMove(PlayerColor color) {
+    isColorEmpty(color);
+    long start = System.nanoTime();
+    long deadline = start + this.budgetNanos;
+    Board board = this.model.getBoard();
+    this.lastPlayouts = 0;
+    this.lastPlayoutsPerSecond = 0;
+    this.lastWinRate = 0;
+    if (!board.hasValidMove(color)) {
+      return Optional.empty();
+    }
+    Node root = new Node(null, PASS, color);
+    root.expand(board);
+    AtomicLong claimed = new AtomicLong();
+    // cancelled once the main thread is done, which stops the helpers even if it finished
+    // early because it was interrupted
+    CancellationToken stop = new CancellationToken();
+    List<Worker> helpers = new ArrayList<>();
+    List<Thread> helperThreads = new ArrayList<>();
+    for (int i = 1; i < this.threads; i++) {
+      Worker helper = new Worker(this.model.getBoard(), root, this.seeds.split());
+      Thread thread = new Thread(() -> helper.playOut(claimed, this.maxPlayouts, deadline,
+              stop), "monte-carlo-helper-" + i);
+      thread.setDaemon(true);
+      helpers.add(helper);
+      helperThreads.add(thread);
+      thread.start();
+    }
+    Worker main = new Worker(board, root, this.seeds.split());
+    main.playOut(claimed, this.maxPlayouts, deadline, stop);
+    stop.cancel();
+    // the tree is only read once no helper can still be changing it
+    AlphaBetaStrategy.joinAll(helperThreads);
+    long playouts = main.playouts;
+    for (Worker helper : helpers) {
+      playouts += helper.playouts;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    Node best = root.mostVisited();
+    this.lastPlayouts = playouts;
+    this.lastPlayoutsPerSecond = playouts / seconds;
+    this.lastWinRate = (best.visits == 0) ? 0 : best.wins / best.visits;
+    return Optional.of(board.cellAt(best.move));
+  }
+
+  /**
+   * A position in the tree of moves tried, reached by the move of its node from the
+   * position of its parent. The statistics of a node are counted from the point of view
+   * of the color that made its move, and are guarded by the lock of its parent, so that
+   * choosing among the children of a node sees them all at one moment.
+   */
+  private static final class Node {
+    // the node this node's move was made from, or null at the root
+    private final Node parent;
+    // the cell index of the move that reached this node, or PASS
+    private final int move;
+    // the color to move at this node
+    private final PlayerColor toMove;
+    // the nodes of every move from this node, which is null until the node is expanded and
+    // empty if the game is over at this node
+    private volatile Node[] children;
+    // the playouts through this node including virtual losses, and the games won by the
+    // color that made this node's move, where a tie counts as half a win
+    private int visits;
+    private double wins;
+
+    /**
+     * Constructs a node that has not been expanded.
+     *
+     * @param parent the node the move was made from, or null for the root.
+     * @param move   the cell index of the move, or PASS.
+     * @param toMove the color to move after the move.
+     */
+    private Node(Node parent, int move, PlayerColor toMove) {
+      this.parent = parent;
+      this.move = move;
+      this.toMove = toMove;
+    }
+
+    /**
+     * Adds a child for every legal move of the color to move, or one child for passing
+     * if the color has no legal move and its opponent does, unless this node has already
+     * been expanded by another thread.
+     *
+     * @param board the board at this node.
+     */
+    private void expand(Board board) {
+      synchronized (this) {
+        if (this.children != null) {
+          return;
+        }
+        PlayerColor other = opposite(this.toMove);
+        List<LegalMove> moves = board.findLegalMoves(this.toMove);
+        Node[] nodes;
+        if (!moves.isEmpty()) {
+          nodes = new Node[moves.size()];
+          for (int i = 0; i < nodes.length; i++) {
+            LegalMove move = moves.get(i);
+            nodes[i] = new Node(this, board.indexOf(move.getQ(), move.getR()), other);
+          }
+        } else if (board.hasValidMove(other)) {
+          nodes = new Node[] {new Node(this, PASS, other)};
+        } else {
+          nodes = new Node[0];
+        }
+        this.children = nodes;
+      }
+    }
+
+    /**
+     * Chooses the child with the highest upper confidence bound, trying every child once
+     * before any child twice, and counts a virtual loss in it.
+     *
+     * @return the chosen child, which this node must have.
+     */
+    private Node select() {
+      synchronized (this) {
+        Node[] nodes = this.children;
+        int total = 0;
+        for (Node child : nodes) {
+          total += child.visits;
+        }
+        double logTotal = Math.log(Math.max(total, 1));
+        Node best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Node child : nodes) {
+          if (child.visits == 0) {
+            best = child;
+            break;
+          }
+          double value = child.wins / child.visits
+                  + EXPLORATION * Math.sqrt(logTotal / child.visits);
+          if (value > bestValue) {
+            bestValue = value;
+            best = child;
+          }
+        }
+        best.visits += VIRTUAL_LOSS;
+        return best;
+      }
+    }
+
+    /**
+     * Counts the result of a playout through this node, and takes back the virtual loss
+     * counted when it was chosen.
+     *
+     * @param reward 1 if the color that made this node's move won, 0.5 for a tie, else 0.
+     */
+    private void update(double reward) {
+      synchronized (this.parent) {
+        this.visits += 1 - VIRTUAL_LOSS;
+        this.wins += reward;
+      }
+    }
+
+    /**
+     * Finds the child played out the most, once every playout has finished.
+     *
+     * @return the most visited child of this node, which must have children.
+     */
+    private Node mostVisited() {
+      synchronized (this) {
+        Node best = this.children[0];
+        for (Node child : this.children) {
+          if (child.visits > best.visits) {
+            best = child;
+          }
+        }
+        return best;
+      }
+    }
+  }
+
+  /**
+   * The playouts run by one thread on its own copy of the board, which is put back at
+   * the root position after every playout.
+   */
+  private static final class Worker {
+    // the board played on, which belongs to this worker alone
+    private final Board board;
+    // the root of the tree shared by every worker
+    private final Node root;
+    // the random moves of this worker's playouts
+    private final SplittableRandom random;
+    // the nodes of the current playout from the root, reused by every playout
+    private final List<Node> path;
+    // the moves made on the board by the current playout, reused by every playout
+    private final List<MoveRecord> made;
+    // the number of playouts this worker finished
+    private long playouts;
+
+    /**
+     * Constructs a worker.
+     *
+     * @param board  the board at the root, which belongs to this worker alone.
+     * @param root   the root of the shared tree.
+     * @param random the random moves of this worker's playouts.
+     */
+    private Worker(Board board, Node root, SplittableRandom random) {
+      this.board = board;
+      this.root = root;
+      this.random = random;
+      this.path = new ArrayList<>();
+      this.made = new ArrayList<>();
+    }
+
+    /**
+     * Plays out games one after another, while playouts are left to claim, the time has not
+     * run out, the search has not been cancelled and the thread has not been interrupted.
+     *
+     * @param claimed     the number of playouts claimed by every worker so far.
+     * @param maxPlayouts the most playouts every worker together may play.
+     * @param deadline    the time to stop at.
+     * @param stop        the token cancelled when the search is over.
+     */
+    private void playOut(AtomicLong claimed, long maxPlayouts, long deadline,
+                         CancellationToken stop) {
+      while (claimed.getAndIncrement() < maxPlayouts) {
+        this.playOnce();
+        this.playouts++;
+        if (System.nanoTime() >= deadline || stop.isCancelled()
+                || Thread.currentThread().isInterrupted()) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Walks the tree from the root, which must be expanded, to a node reached for the first
+     * time or a node where the game is over, expands it, plays the rest of the game at
+     * random, and counts the result in every node of the path.
+     */
+    private void playOnce() {
+      Node node = this.root;
+      this.path.clear();
+      while (node.children.length > 0) {
+        node = node.select();
+        this.play(node.move, opposite(node.toMove));
+        this.path.add(node);
+        if (node.children == null) {
+          node.expand(this.board);
+          break;
+        }
+      }
+      PlayerColor color = node.toMove;
+      int passes = 0;
+      while (passes < 2) {
+        // a color with no legal move gets -1, which is the cell index of passing
+        int move = this.board.randomLegalMove(color, this.random);
+        passes = (move == PASS) ? passes + 1 : 0;
+        this.play(move, color);
+        color = opposite(color);
+      }
+      int difference = this.board.getScore(PlayerColor.BLACK)
+              - this.board.getScore(PlayerColor.WHITE);
+      for (Node step : this.path) {
+        int sign = (step.toMove == PlayerColor.WHITE) ? 1 : -1;
+        step.update((difference * sign > 0) ? 1 : (difference == 0) ? 0.5 : 0);
+      }
+      for (int i = this.made.size() - 1; i >= 0; i--) {
+        this.board.unmakeMove(this.made.get(i));
+      }
+      this.made.clear();
+    }
+
+    /**
+     * Makes the given move on the board, remembering it so it can be unmade.
+     *
+     * @param move  the cell index of the move, or PASS.
+     * @param color the color making the move.
+     */
+    private void play(int move, PlayerColor color) {
+      if (move != PASS) {
+        HexCoordinates cell = this.board.cellAt(move);
+        this.made.add(this.board.makeUndoableMove(cell.getQ(), cell.getR(), color));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of playouts played by every thread in the last search.
+   *
+   * @return the number of playouts played when the move was last chosen.
+   */
+  public long getLastPlayouts() {
+    return this.lastPlayouts;
+  }
+
+  /**
+   * Returns the number of playouts played per second by every thread together in the last
+   * search, which measures how fast the hardware plays out.
+   *
+   * @return the playouts per second when the move was last chosen.
+   */
+  public double getLastPlayoutsPerSecond() {
+    return this.lastPlayoutsPerSecond;
+  }
+
+  /**
+   * Returns the share of the playouts through the chosen move that it won in the last
+   * search, where a tie counts as half a win.
+   *
+   * @return a number from 0 to 1, or 0 if there was no move to choose.
+   */
+  public double getLastWinRate() {
+    return this.lastWinRate;
+  }
+
+  /**
+   * Determines the color opposite to the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return WHITE if the given color is BLACK, otherwise BLACK.
+   */
+  private static PlayerColor opposite(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+  }
+
+  /**
+   * determines if the color is empty and throws an exception if so.
+   *
+   * @param color the color of the player
+   */
+  private static void isColorEmpty(PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+  }
+}
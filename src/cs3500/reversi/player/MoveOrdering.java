@@ -0,0 +1,241 @@
+package cs3500.reversi.player;
+
+import java.util.List;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+
+/**
+ * Sorts the moves of a position into the order a search should try them in, so that the
+ * best move is likely tried first and the rest of the moves are cut off sooner. The order
+ * combines, from strongest to weakest:
+ * the best move the transposition table has for the position (the hash move),
+ * the moves that last caused a cutoff at the same ply in other lines (killer moves),
+ * and a score for each move that is the prior of its cell plus how often and how deeply the
+ * move caused cutoffs anywhere in the search (the history heuristic). The prior comes from
+ * the hex geometry: corners can never be flipped so they come first, then the other edge
+ * cells, and the cells next to a corner come last, as they usually give the corner away.
+ * Each heuristic can be turned off, so that its effect on the nodes searched can be measured.
+ * An ordering keeps the statistics of one search thread, so it must not be shared between
+ * threads. It can be kept for the next search on a board of the same size, where newSearch
+ * is called first so the killer moves of the last search are forgotten.
+ */
+public final class MoveOrdering {
+  // the heuristics an ordering can use, which are combined with |
+  public static final int HASH_MOVE = 1;
+  public static final int KILLERS = 2;
+  public static final int HISTORY = 4;
+  public static final int PRIORS = 8;
+  public static final int ALL = HASH_MOVE | KILLERS | HISTORY | PRIORS;
+  // the deepest ply that has killer moves
+  public static final int MAX_PLY = 128;
+
+  // the sort score of the hash move and of the first and second killer moves, which are
+  // larger than any prior and history score
+  private static final int HASH_SCORE = 1 << 30;
+  private static final int KILLER_SCORE = 1 << 29;
+  private static final int SECOND_KILLER_SCORE = 1 << 28;
+  // the sort score of each step of prior, which is larger than any history score
+  private static final int PRIOR_WEIGHT = 1 << 22;
+  // the history score at which every history score is halved, so recent cutoffs count more
+  private static final int HISTORY_LIMIT = PRIOR_WEIGHT - 1;
+  // the prior of a corner, another edge cell, and a cell next to a corner
+  private static final int CORNER_PRIOR = 2;
+  private static final int EDGE_PRIOR = 1;
+  private static final int NEXT_TO_CORNER_PRIOR = -2;
+
+  // a board of the size the moves are on, used to find the cell index of each move, which
+  // is the same on every board of that size
+  private final Board board;
+  // the heuristics used
+  private final int features;
+  // the prior of each cell, by cell index
+  private final int[] priors;
+  // the two killer moves of each ply, newest first, where -1 is no move
+  private final int[][] killers;
+  // the history score of each cell for black and for white
+  private final int[] blackHistory;
+  private final int[] whiteHistory;
+  // the sort score of each move being ordered, by its position in the list
+  private final int[] scores;
+
+  /**
+   * Constructs an ordering of the moves on the given board, or on any board of its size.
+   *
+   * @param board    the board the search is run on.
+   * @param features the heuristics to use, as HASH_MOVE, KILLERS, HISTORY and PRIORS
+   *                 combined with |, or ALL.
+   * @throws IllegalArgumentException if the board is null or the features are not a
+   *                                  combination of the heuristics.
+   */
+  public MoveOrdering(Board board, int features) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    if ((features & ~ALL) != 0) {
+      throw new IllegalArgumentException("Invalid move ordering features.");
+    }
+    this.board = board;
+    this.features = features;
+    int cells = board.cellCount();
+    this.priors = new int[cells];
+    this.killers = new int[MAX_PLY][2];
+    this.blackHistory = new int[cells];
+    this.whiteHistory = new int[cells];
+    this.scores = new int[cells];
+    this.initPriors();
+    this.clearKillers();
+  }
+
+  /**
+   * Gives each cell its prior from where it lies on the hexagon of playable cells, whose
+   * six corners are the cells with two coordinates at the radius.
+   */
+  private void initPriors() {
+    int radius = this.board.getSize() / 2;
+    for (int index = 0; index < this.priors.length; index++) {
+      HexCoordinates cell = this.board.cellAt(index);
+      int q = Math.abs(cell.getQ());
+      int r = Math.abs(cell.getR());
+      int s = Math.abs(cell.getQ() + cell.getR());
+      int atRadius = ((q == radius) ? 1 : 0) + ((r == radius) ? 1 : 0)
+              + ((s == radius) ? 1 : 0);
+      if (atRadius >= 2) {
+        this.priors[index] = CORNER_PRIOR;
+      } else if (this.isNextToCorner(cell, radius)) {
+        this.priors[index] = NEXT_TO_CORNER_PRIOR;
+      } else if (atRadius == 1) {
+        this.priors[index] = EDGE_PRIOR;
+      }
+    }
+  }
+
+  /**
+   * Determines if the given cell is one step from a corner of the hexagon.
+   *
+   * @param cell   a playable cell.
+   * @param radius the radius of the hexagon of playable cells.
+   * @return true iff a corner is next to the cell.
+   */
+  private boolean isNextToCorner(HexCoordinates cell, int radius) {
+    // the corners are the six cells at the radius in each direction from the center
+    int[][] corners = {{radius, 0}, {-radius, 0}, {0, radius}, {0, -radius},
+        {radius, -radius}, {-radius, radius}};
+    for (int[] corner : corners) {
+      int dq = cell.getQ() - corner[0];
+      int dr = cell.getR() - corner[1];
+      if (Math.max(Math.max(Math.abs(dq), Math.abs(dr)), Math.abs(dq + dr)) == 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sorts the given moves of a position into the order to search them in.
+   *
+   * @param moves    the legal moves of the position, which are sorted in place.
+   * @param color    the color to move.
+   * @param ply      the number of moves from the root of the search to the position.
+   * @param hashMove the cell index of the best move the transposition table has for the
+   *                 position, or TranspositionTable.NO_MOVE.
+   */
+  public void order(List<LegalMove> moves, PlayerColor color, int ply, int hashMove) {
+    int[] history = this.historyOf(color);
+    int[] plyKillers = (ply < MAX_PLY) ? this.killers[ply] : null;
+    for (int i = 0; i < moves.size(); i++) {
+      LegalMove move = moves.get(i);
+      int cell = this.board.indexOf(move.getQ(), move.getR());
+      int score = 0;
+      if ((this.features & HASH_MOVE) != 0 && cell == hashMove) {
+        score = HASH_SCORE;
+      } else if ((this.features & KILLERS) != 0 && plyKillers != null
+              && cell == plyKillers[0]) {
+        score = KILLER_SCORE;
+      } else if ((this.features & KILLERS) != 0 && plyKillers != null
+              && cell == plyKillers[1]) {
+        score = SECOND_KILLER_SCORE;
+      } else {
+        if ((this.features & PRIORS) != 0) {
+          score += PRIOR_WEIGHT * this.priors[cell];
+        }
+        if ((this.features & HISTORY) != 0) {
+          score += history[cell];
+        }
+      }
+      // insertion sort from highest score to lowest, keeping the order of equal scores,
+      // as positions have few moves
+      int j = i;
+      while (j > 0 && this.scores[j - 1] < score) {
+        this.scores[j] = this.scores[j - 1];
+        moves.set(j, moves.get(j - 1));
+        j--;
+      }
+      this.scores[j] = score;
+      moves.set(j, move);
+    }
+  }
+
+  /**
+   * Records that the given move caused a cutoff, making it a killer move of its ply and
+   * raising its history score by the square of the depth left, as a cutoff higher in the
+   * tree saves more of the search.
+   *
+   * @param cell  the cell index of the move.
+   * @param color the color that made the move.
+   * @param ply   the number of moves from the root of the search to the position.
+   * @param depth the depth left to search at the position.
+   */
+  public void recordCutoff(int cell, PlayerColor color, int ply, int depth) {
+    if (ply < MAX_PLY && this.killers[ply][0] != cell) {
+      this.killers[ply][1] = this.killers[ply][0];
+      this.killers[ply][0] = cell;
+    }
+    int[] history = this.historyOf(color);
+    history[cell] += depth * depth;
+    if (history[cell] > HISTORY_LIMIT) {
+      this.ageHistory();
+    }
+  }
+
+  /**
+   * Prepares for a new search, forgetting the killer moves, which belong to the positions
+   * of the last search, and halving the history scores, which still say something about
+   * which cells are good.
+   */
+  public void newSearch() {
+    this.clearKillers();
+    this.ageHistory();
+  }
+
+  /**
+   * Forgets every killer move.
+   */
+  private void clearKillers() {
+    for (int[] plyKillers : this.killers) {
+      plyKillers[0] = -1;
+      plyKillers[1] = -1;
+    }
+  }
+
+  /**
+   * Halves every history score.
+   */
+  private void ageHistory() {
+    for (int cell = 0; cell < this.blackHistory.length; cell++) {
+      this.blackHistory[cell] >>= 1;
+      this.whiteHistory[cell] >>= 1;
+    }
+  }
+
+  /**
+   * Returns the history scores of the given color.
+   *
+   * @param color a BLACK or WHITE color.
+   * @return the history score of each cell for the color.
+   */
+  private int[] historyOf(PlayerColor color) {
+    return (color == PlayerColor.BLACK) ? this.blackHistory : this.whiteHistory;
+  }
+}
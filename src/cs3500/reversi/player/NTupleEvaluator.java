@@ -0,0 +1,296 @@
+package cs3500.reversi.player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.reversi.model.Board;
+
+/**
+ * Represents an evaluator that scores a position by summing a learned weight for the tiles
+ * on each of a fixed set of patterns of cells, known as n-tuples. The patterns are the
+ * edges, the lines one in from the edges, the regions around the corners and the diagonals
+ * from the corners to the center, each in all six rotations of the hexagon, where the six
+ * rotations of a pattern share one table of weights. A pattern's tiles are read as a base 3
+ * code, which is the position of its weight in a flat array of floats, so scoring a position
+ * is one array lookup per pattern after reading its cells. Games are split into stages by the
+ * number of tiles, and each stage has its own weights.
+ * The weights are the expected final difference in tiles for black, and are learned from
+ * finished games by an NTupleTrainer. The weights can be written to a file and read back.
+ */
+public final class NTupleEvaluator implements Evaluator {
+  // the number of stages a game is split into, by the share of the cells with tiles
+  public static final int STAGES = 4;
+
+  // the first int of a weights file, which is "RVNT" in ASCII
+  private static final int MAGIC = 0x52564E54;
+  // the version of the file format
+  private static final int VERSION = 1;
+  // the bytes before the weights of a file: the magic, version, board size and number of
+  // weights, each an int
+  private static final int HEADER_BYTES = 16;
+  // the most cells in a line pattern, which keeps its table at 3 to this power weights
+  private static final int MAX_LINE = 7;
+
+  // the size of the board of the patterns
+  private final int size;
+  // the cell indices of every pattern, in every rotation
+  private final int[][] patterns;
+  // the position of the table of weights of each pattern within the weights of a stage
+  private final int[] tableOffsets;
+  // the number of weights of one stage
+  private final int stageLength;
+  // the number of playable cells of the board
+  private final int cells;
+  // the weights of every pattern code of every table of every stage, stage by stage
+  private final float[] weights;
+
+  /**
+   * Constructs an evaluator for the given board size whose weights are all zero, to be
+   * trained by an NTupleTrainer.
+   *
+   * @param size the size of the board to evaluate.
+   * @throws IllegalArgumentException if the size is not a board size.
+   */
+  public NTupleEvaluator(int size) {
+    // constructing a board checks the size
+    Board board = new Board(size);
+    this.size = size;
+    this.cells = board.cellCount();
+    int radius = size / 2;
+    List<int[]> shapes = new ArrayList<>();
+    // every shape starts at the corner at q = radius, r = -radius
+    shapes.add(line(radius, -radius, 0, 1, radius + 1));
+    shapes.add(line(radius - 1, -radius + 1, 0, 1, radius + 1));
+    shapes.add(line(radius, -radius, -1, 1, radius + 1));
+    shapes.add(cornerRegion(radius));
+    List<int[]> patterns = new ArrayList<>();
+    List<Integer> offsets = new ArrayList<>();
+    int offset = 0;
+    for (int[] shape : shapes) {
+      for (int rotation = 0; rotation < 6; rotation++) {
+        int[] pattern = new int[shape.length / 2];
+        for (int i = 0; i < pattern.length; i++) {
+          int q = shape[2 * i];
+          int r = shape[2 * i + 1];
+          // each rotation turns the hexagon a sixth of the way around its center
+          for (int turn = 0; turn < rotation; turn++) {
+            int turned = -r;
+            r = q + r;
+            q = turned;
+          }
+          pattern[i] = board.indexOf(q, r);
+        }
+        patterns.add(pattern);
+        offsets.add(offset);
+      }
+      offset += pow3(shape.length / 2);
+    }
+    this.patterns = patterns.toArray(new int[0][]);
+    this.tableOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+    this.stageLength = offset;
+    this.weights = new float[STAGES * offset];
+  }
+
+  /**
+   * Returns the coordinates of the playable cells along a straight line, at most MAX_LINE
+   * of them.
+   *
+   * @param q      the q coordinate of the first cell.
+   * @param r      the r coordinate of the first cell.
+   * @param dq     the q step between cells.
+   * @param dr     the r step between cells.
+   * @param length the number of cells on the line.
+   * @return the q and r coordinate of each cell in turn.
+   */
+  private static int[] line(int q, int r, int dq, int dr, int length) {
+    int cells = Math.min(length, MAX_LINE);
+    int[] coordinates = new int[2 * cells];
+    for (int i = 0; i < cells; i++) {
+      coordinates[2 * i] = q + i * dq;
+      coordinates[2 * i + 1] = r + i * dr;
+    }
+    return coordinates;
+  }
+
+  /**
+   * Returns the coordinates of the playable cells within two steps of the corner at
+   * q = radius, r = -radius.
+   *
+   * @param radius the radius of the hexagon of playable cells.
+   * @return the q and r coordinate of each cell in turn.
+   */
+  private static int[] cornerRegion(int radius) {
+    List<Integer> coordinates = new ArrayList<>();
+    for (int q = radius - 2; q <= radius; q++) {
+      for (int r = -radius; r <= -radius + 2; r++) {
+        int distance = Math.max(Math.max(Math.abs(q - radius), Math.abs(r + radius)),
+                Math.abs(q + r));
+        if (distance <= 2 && Math.abs(q + r) <= radius) {
+          coordinates.add(q);
+          coordinates.add(r);
+        }
+      }
+    }
+    return coordinates.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Returns 3 to the given power.
+   *
+   * @param exponent a power from 0 to 19.
+   * @return 3 to the power.
+   */
+  private static int pow3(int exponent) {
+    int power = 1;
+    for (int i = 0; i < exponent; i++) {
+      power *= 3;
+    }
+    return power;
+  }
+
+  /**
+   * Reads the weights in the given file, written by write.
+   *
+   * @param file the file of weights.
+   * @return an evaluator with the weights in the file.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a weights file, or is damaged.
+   */
+  public static NTupleEvaluator open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Not an n-tuple weights file.");
+      }
+      ByteBuffer bytes = ByteBuffer.allocate((int) channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+        // keep reading until the whole file is read
+      }
+      bytes.flip();
+      if (bytes.getInt() != MAGIC || bytes.getInt() != VERSION) {
+        throw new IllegalArgumentException("Not an n-tuple weights file.");
+      }
+      NTupleEvaluator evaluator = new NTupleEvaluator(bytes.getInt());
+      if (bytes.getInt() != evaluator.weights.length
+              || bytes.remaining() != Float.BYTES * evaluator.weights.length) {
+        throw new IllegalArgumentException("N-tuple weights file is damaged.");
+      }
+      bytes.asFloatBuffer().get(evaluator.weights);
+      return evaluator;
+    }
+  }
+
+  /**
+   * Writes the weights of this evaluator to the given file, replacing anything the file
+   * held.
+   *
+   * @param file the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Path file) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(HEADER_BYTES + Float.BYTES * this.weights.length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(MAGIC).putInt(VERSION).putInt(this.size).putInt(this.weights.length);
+    bytes.asFloatBuffer().put(this.weights);
+    bytes.position(bytes.capacity());
+    bytes.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Scores the given board from the point of view of the given color.
+   *
+   * @param board the board to score, which must not be changed.
+   * @param color the color the score is for, which is BLACK or WHITE.
+   * @return the expected final difference in tiles for the color.
+   * @throws IllegalArgumentException if the board is not the size of this evaluator.
+   */
+  @Override
+  public int evaluate(Board board, PlayerColor color) {
+    if (board.getSize() != this.size) {
+      throw new IllegalArgumentException("board is not the size of the evaluator");
+    }
+    int stage = this.stageOf(board) * this.stageLength;
+    float sum = 0;
+    for (int pattern = 0; pattern < this.patterns.length; pattern++) {
+      sum += this.weights[stage + this.tableOffsets[pattern]
+              + board.patternCode(this.patterns[pattern])];
+    }
+    int score = Math.round(sum);
+    return (color == PlayerColor.BLACK) ? score : -score;
+  }
+
+  /**
+   * Finds the position in the weights of the weight of every pattern of the given board.
+   *
+   * @param board   a board of the size of this evaluator.
+   * @param indices the array to fill with the position of each pattern's weight, which has
+   *                one element per pattern.
+   */
+  void weightIndices(Board board, int[] indices) {
+    int stage = this.stageOf(board) * this.stageLength;
+    for (int pattern = 0; pattern < this.patterns.length; pattern++) {
+      indices[pattern] = stage + this.tableOffsets[pattern]
+              + board.patternCode(this.patterns[pattern]);
+    }
+  }
+
+  /**
+   * Determines the stage of the game of the given board from the share of its cells with
+   * tiles.
+   *
+   * @param board a board of the size of this evaluator.
+   * @return the stage, from 0 to STAGES - 1.
+   */
+  private int stageOf(Board board) {
+    int tiles = board.getScore(PlayerColor.BLACK) + board.getScore(PlayerColor.WHITE);
+    return Math.min(STAGES - 1, (tiles - 6) * STAGES / (this.cells - 6));
+  }
+
+  /**
+   * Returns the weights of this evaluator themselves, for a trainer to change.
+   *
+   * @return the weights, stage by stage.
+   */
+  float[] getWeights() {
+    return this.weights;
+  }
+
+  /**
+   * Returns the number of patterns each position is scored by, counting every rotation.
+   *
+   * @return the number of patterns.
+   */
+  public int getPatternCount() {
+    return this.patterns.length;
+  }
+
+  /**
+   * Returns the number of weights of this evaluator, over every table of every stage.
+   *
+   * @return the number of weights.
+   */
+  public int getWeightCount() {
+    return this.weights.length;
+  }
+
+  /**
+   * Returns the size of the board this evaluator scores.
+   *
+   * @return the board size.
+   */
+  public int getSize() {
+    return this.size;
+  }
+}
@@ -0,0 +1,271 @@
+package cs3500.reversi.player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+
+/**
+ * Fits the weights of an NTupleEvaluator to finished games, so that the evaluator's score of
+ * each position of a game is as close as it can be to the final difference in tiles of that
+ * game. Each game is replayed once when it is added, and every position in it is kept only as
+ * the position of its weight for each pattern, so training never looks at a board again.
+ * Training runs in epochs of gradient descent over every position. Each epoch splits the
+ * positions between the threads, each thread adds up the errors of its own positions into
+ * its own arrays, and the arrays are combined in the same order every time, so the same
+ * games and thread count always give the same weights.
+ * Each weight moves by the average error of the positions it is part of, shared out between
+ * the patterns of a position, as the weights of rare patterns would hardly move otherwise.
+ */
+public final class NTupleTrainer {
+  // the move of a game where the color to move passes
+  public static final int PASS = -1;
+
+  // the evaluator whose weights are trained
+  private final NTupleEvaluator evaluator;
+  // the number of threads each epoch runs on
+  private final int threads;
+  // the position of every pattern's weight for every position, position by position
+  private int[] samples;
+  // the final difference in tiles for black of the game of every position
+  private float[] targets;
+  // the number of positions collected
+  private int sampleCount;
+  // the number of games added
+  private int games;
+
+  /**
+   * Constructs a trainer of the given evaluator with no games.
+   *
+   * @param evaluator the evaluator to train, whose weights are changed in place.
+   * @param threads   the number of threads to train on.
+   * @throws IllegalArgumentException if the evaluator is null or the threads are not
+   *                                  positive.
+   */
+  public NTupleTrainer(NTupleEvaluator evaluator, int threads) {
+    if (evaluator == null) {
+      throw new IllegalArgumentException("evaluator cannot be null");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.evaluator = evaluator;
+    this.threads = threads;
+    this.samples = new int[0];
+    this.targets = new float[0];
+  }
+
+  /**
+   * Replays the given finished game from the start, and collects every position in it that
+   * a color has a move in, with the final difference in tiles of the game.
+   *
+   * @param game the cell index of every move of the game in order, where black moves first
+   *             and PASS is a color passing.
+   * @throws IllegalArgumentException if a move is not legal, a color passes when it has a
+   *                                  move, or the game is not over after the last move.
+   */
+  public void addGame(List<Integer> game) {
+    Board board = new Board(this.evaluator.getSize());
+    int patterns = this.evaluator.getPatternCount();
+    int[] indices = new int[patterns * game.size()];
+    int[] position = new int[patterns];
+    int positions = 0;
+    PlayerColor color = PlayerColor.BLACK;
+    for (int ply = 0; ply < game.size(); ply++) {
+      int move = game.get(ply);
+      if (move == PASS) {
+        if (board.hasValidMove(color)) {
+          throw new IllegalArgumentException("A color passed when it had a move.");
+        }
+      } else {
+        this.evaluator.weightIndices(board, position);
+        System.arraycopy(position, 0, indices, patterns * positions, patterns);
+        positions++;
+        HexCoordinates cell = board.cellAt(move);
+        try {
+          board.makeUndoableMove(cell.getQ(), cell.getR(), color);
+        } catch (IllegalStateException e) {
+          throw new IllegalArgumentException("Move " + ply + " of the game is not legal.");
+        }
+      }
+      color = AlphaBetaStrategy.opposite(color);
+    }
+    if (board.hasValidMove(PlayerColor.BLACK) || board.hasValidMove(PlayerColor.WHITE)) {
+      throw new IllegalArgumentException("The game is not over.");
+    }
+    float target = board.getScore(PlayerColor.BLACK) - board.getScore(PlayerColor.WHITE);
+    synchronized (this) {
+      int needed = this.sampleCount + positions;
+      if (needed > this.targets.length) {
+        int capacity = Math.max(needed, 2 * this.targets.length);
+        this.targets = Arrays.copyOf(this.targets, capacity);
+        this.samples = Arrays.copyOf(this.samples, patterns * capacity);
+      }
+      System.arraycopy(indices, 0, this.samples, patterns * this.sampleCount,
+              patterns * positions);
+      Arrays.fill(this.targets, this.sampleCount, needed, target);
+      this.sampleCount = needed;
+      this.games++;
+    }
+  }
+
+  /**
+   * Trains the weights of the evaluator on every position collected.
+   *
+   * @param epochs the number of passes over the positions.
+   * @param rate   the share of each position's error corrected by one epoch, which is
+   *               greater than 0 and at most 1.
+   * @return the mean squared error of the evaluator's scores over the positions after
+   *         training.
+   * @throws IllegalArgumentException if the epochs are negative or the rate is not in range.
+   */
+  public synchronized double train(int epochs, double rate) {
+    if (epochs < 0) {
+      throw new IllegalArgumentException("epochs cannot be negative");
+    }
+    if (!(rate > 0 && rate <= 1)) {
+      throw new IllegalArgumentException("rate must be greater than 0 and at most 1");
+    }
+    float[] weights = this.evaluator.getWeights();
+    float step = (float) (rate / this.evaluator.getPatternCount());
+    for (int epoch = 0; epoch < epochs; epoch++) {
+      Chunk[] chunks = this.runChunks(true);
+      for (int i = 1; i < chunks.length; i++) {
+        for (int weight = 0; weight < weights.length; weight++) {
+          chunks[0].errors[weight] += chunks[i].errors[weight];
+          chunks[0].counts[weight] += chunks[i].counts[weight];
+        }
+      }
+      for (int weight = 0; weight < weights.length; weight++) {
+        if (chunks[0].counts[weight] > 0) {
+          weights[weight] += step * chunks[0].errors[weight] / chunks[0].counts[weight];
+        }
+      }
+    }
+    return this.meanSquaredError();
+  }
+
+  /**
+   * Determines the mean squared error of the evaluator's scores over every position
+   * collected, against the final difference in tiles of each position's game.
+   *
+   * @return the mean squared error, or 0 if there are no positions.
+   */
+  public synchronized double meanSquaredError() {
+    if (this.sampleCount == 0) {
+      return 0;
+    }
+    double squared = 0;
+    for (Chunk chunk : this.runChunks(false)) {
+      squared += chunk.squared;
+    }
+    return squared / this.sampleCount;
+  }
+
+  /**
+   * Splits the positions into one chunk per thread and measures the error of every position
+   * of each chunk on its own thread, with the first chunk on the calling thread.
+   *
+   * @param gradient whether to add up the error of every weight, or only the squared error.
+   * @return the chunks, in the order of their positions.
+   */
+  private Chunk[] runChunks(boolean gradient) {
+    Chunk[] chunks = new Chunk[this.threads];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = new Chunk((int) ((long) this.sampleCount * i / chunks.length),
+              (int) ((long) this.sampleCount * (i + 1) / chunks.length), gradient);
+    }
+    List<Thread> helperThreads = new ArrayList<>();
+    for (int i = 1; i < chunks.length; i++) {
+      Chunk chunk = chunks[i];
+      Thread thread = new Thread(chunk::run, "n-tuple-trainer-" + i);
+      thread.setDaemon(true);
+      helperThreads.add(thread);
+      thread.start();
+    }
+    chunks[0].run();
+    for (Thread thread : helperThreads) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return chunks;
+  }
+
+  /**
+   * Returns the number of games added to this trainer.
+   *
+   * @return the number of games.
+   */
+  public synchronized int getGameCount() {
+    return this.games;
+  }
+
+  /**
+   * Returns the number of positions collected from the games added to this trainer.
+   *
+   * @return the number of positions.
+   */
+  public synchronized int getPositionCount() {
+    return this.sampleCount;
+  }
+
+  /**
+   * A run of positions whose errors are added up by one thread in one epoch.
+   */
+  private final class Chunk {
+    // the first position of the chunk, and the position after the last
+    private final int from;
+    private final int to;
+    // the sum of the errors of the positions each weight is part of, and how many there
+    // are, which are only kept when the gradient is wanted
+    private final float[] errors;
+    private final int[] counts;
+    // the sum of the squared errors of the positions
+    private double squared;
+
+    /**
+     * Constructs a chunk of the given positions.
+     *
+     * @param from     the first position of the chunk.
+     * @param to       the position after the last position of the chunk.
+     * @param gradient whether to add up the error of every weight.
+     */
+    private Chunk(int from, int to, boolean gradient) {
+      this.from = from;
+      this.to = to;
+      int length = gradient ? NTupleTrainer.this.evaluator.getWeightCount() : 0;
+      this.errors = new float[length];
+      this.counts = new int[length];
+    }
+
+    /**
+     * Scores every position of this chunk with the current weights, and adds up its error.
+     */
+    private void run() {
+      float[] weights = NTupleTrainer.this.evaluator.getWeights();
+      int[] samples = NTupleTrainer.this.samples;
+      float[] targets = NTupleTrainer.this.targets;
+      int patterns = NTupleTrainer.this.evaluator.getPatternCount();
+      for (int position = this.from; position < this.to; position++) {
+        int start = position * patterns;
+        float score = 0;
+        for (int i = start; i < start + patterns; i++) {
+          score += weights[samples[i]];
+        }
+        float error = targets[position] - score;
+        this.squared += (double) error * error;
+        if (this.errors.length > 0) {
+          for (int i = start; i < start + patterns; i++) {
+            this.errors[samples[i]] += error;
+            this.counts[samples[i]]++;
+          }
+        }
+      }
+    }
+  }
+}
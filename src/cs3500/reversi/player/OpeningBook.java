@@ -0,0 +1,170 @@
+package cs3500.reversi.player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A book of the moves played in the openings of many games, opened from a file written by
+ * an OpeningBookBuilder by memory-mapping it, so that only the parts of the file that are
+ * looked up are read. The moves of a position are found by binary search on the hash of
+ * the position, which takes a few microseconds even for a large book. A book is never
+ * changed once opened, so it can be shared by every thread.
+ */
+public final class OpeningBook {
+  // the move returned for a position that is not in the book
+  public static final int NO_MOVE = -1;
+
+  // the first int of a book file, which is "RVOB" in ASCII
+  static final int MAGIC = 0x52564F42;
+  // the version of the file format
+  static final int VERSION = 1;
+  // the bytes before the entries of a book file: the magic, version, board size and number
+  // of entries, each an int
+  static final int HEADER_BYTES = 16;
+  // the bytes of each entry: the position hash as a long, then the move, games and points
+  // as ints
+  static final int ENTRY_BYTES = 20;
+
+  // the mapped file
+  private final ByteBuffer entries;
+  // the size of the board of the book
+  private final int size;
+  // the number of entries in the book
+  private final int count;
+
+  /**
+   * Constructs a book over the given mapped file.
+   *
+   * @param entries the whole file, in little-endian order.
+   * @param size    the size of the board of the book.
+   * @param count   the number of entries in the file.
+   */
+  private OpeningBook(ByteBuffer entries, int size, int count) {
+    this.entries = entries;
+    this.size = size;
+    this.count = count;
+  }
+
+  /**
+   * Opens the book in the given file by mapping the file into memory.
+   *
+   * @param file the file written by an OpeningBookBuilder.
+   * @return the book in the file.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a book.
+   */
+  public static OpeningBook open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+              || mapped.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Not an opening book.");
+      }
+      int count = mapped.getInt(12);
+      if (count < 0 || mapped.capacity() != HEADER_BYTES + (long) ENTRY_BYTES * count) {
+        throw new IllegalArgumentException("Opening book is damaged.");
+      }
+      // the mapping stays valid after the channel is closed
+      return new OpeningBook(mapped, mapped.getInt(8), count);
+    }
+  }
+
+  /**
+   * Chooses the move of the given position that scored the best share of points in the
+   * games of the book, out of the moves played in at least the given number of games.
+   * A move played in more games wins a tie.
+   *
+   * @param hash     the hash of the position, including the color to move.
+   * @param minGames the fewest games a move must have been played in to be chosen.
+   * @return the cell index of the chosen move, or NO_MOVE if no move of the position was
+   *         played in enough games.
+   */
+  public int bestMove(long hash, int minGames) {
+    int best = NO_MOVE;
+    long bestGames = 0;
+    long bestPoints = 0;
+    for (int entry = this.firstEntry(hash); entry < this.count && this.hashAt(entry) == hash;
+         entry++) {
+      int at = HEADER_BYTES + ENTRY_BYTES * entry;
+      int games = this.entries.getInt(at + 12);
+      int points = this.entries.getInt(at + 16);
+      // points over games are compared by cross-multiplying, so no division is needed
+      long difference = (long) points * bestGames - bestPoints * games;
+      if (games >= minGames && (best == NO_MOVE || difference > 0
+              || (difference == 0 && games > bestGames))) {
+        best = this.entries.getInt(at + 8);
+        bestGames = games;
+        bestPoints = points;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Counts the games of the book that reached the given position.
+   *
+   * @param hash the hash of the position, including the color to move.
+   * @return the number of games a move was played in from the position.
+   */
+  public int gamesAt(long hash) {
+    int games = 0;
+    for (int entry = this.firstEntry(hash); entry < this.count && this.hashAt(entry) == hash;
+         entry++) {
+      games += this.entries.getInt(HEADER_BYTES + ENTRY_BYTES * entry + 12);
+    }
+    return games;
+  }
+
+  /**
+   * Returns the size of the board of this book.
+   *
+   * @return the board size.
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of entries in this book, which is one per position and move.
+   *
+   * @return the number of entries.
+   */
+  public int getEntryCount() {
+    return this.count;
+  }
+
+  /**
+   * Finds the first entry whose hash is not less than the given hash.
+   *
+   * @param hash a position hash.
+   * @return the index of the first entry of the position, or of where it would be.
+   */
+  private int firstEntry(long hash) {
+    int low = 0;
+    int high = this.count;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.hashAt(middle) < hash) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the position hash of the given entry.
+   *
+   * @param entry the index of an entry.
+   * @return the hash of the entry's position.
+   */
+  private long hashAt(int entry) {
+    return this.entries.getLong(HEADER_BYTES + ENTRY_BYTES * entry);
+  }
+}
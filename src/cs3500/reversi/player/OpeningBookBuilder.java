@@ -0,0 +1,164 @@
+package cs3500.reversi.player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+
+/**
+ * Collects the moves played in the first plies of finished games, and how well each move
+ * did for the color that played it, keyed by the hash of the position it was played in,
+ * and writes them to a file that an OpeningBook opens. Games can be added from any number
+ * of threads at once.
+ * The file is a header of ints followed by one entry per position and move, sorted by the
+ * hash of the position and then by the move, so a position's moves are next to each other
+ * and can be found by binary search. Each entry is the hash as a long, then the cell index
+ * of the move, the number of games it was played in, and the points it scored, as ints,
+ * where a win scores 2 points and a tie 1.
+ */
+public final class OpeningBookBuilder {
+  // the move of a game where the color to move passes
+  public static final int PASS = -1;
+
+  // the size of the board of the games
+  private final int size;
+  // the number of plies from the start of each game that are collected
+  private final int maxPlies;
+  // the games played and points scored by each move, by position hash and then cell index
+  private final Map<Long, Map<Integer, int[]>> moves;
+  // the number of games added
+  private int games;
+
+  /**
+   * Constructs an empty builder.
+   *
+   * @param size     the size of the board of the games.
+   * @param maxPlies the number of plies from the start of each game to collect.
+   * @throws IllegalArgumentException if the size is not a board size or the plies are not
+   *                                  positive.
+   */
+  public OpeningBookBuilder(int size, int maxPlies) {
+    if (maxPlies <= 0) {
+      throw new IllegalArgumentException("plies must be positive");
+    }
+    // constructing a board checks the size
+    this.size = new Board(size).getSize();
+    this.maxPlies = maxPlies;
+    this.moves = new HashMap<>();
+  }
+
+  /**
+   * Replays the given finished game from the start, and counts each of its moves in the
+   * first plies for the position it was played in.
+   *
+   * @param game the cell index of every move of the game in order, where black moves first
+   *             and PASS is a color passing.
+   * @throws IllegalArgumentException if a move is not legal, a color passes when it has a
+   *                                  move, or the game is not over after the last move.
+   */
+  public void addGame(List<Integer> game) {
+    Board board = new Board(this.size);
+    long[] hashes = new long[Math.min(game.size(), this.maxPlies)];
+    PlayerColor color = PlayerColor.BLACK;
+    for (int ply = 0; ply < game.size(); ply++) {
+      int move = game.get(ply);
+      if (ply < hashes.length) {
+        hashes[ply] = board.getHash(color);
+      }
+      if (move == PASS) {
+        if (board.hasValidMove(color)) {
+          throw new IllegalArgumentException("A color passed when it had a move.");
+        }
+      } else {
+        HexCoordinates cell = board.cellAt(move);
+        try {
+          board.makeUndoableMove(cell.getQ(), cell.getR(), color);
+        } catch (IllegalStateException e) {
+          throw new IllegalArgumentException("Move " + ply + " of the game is not legal.");
+        }
+      }
+      color = AlphaBetaStrategy.opposite(color);
+    }
+    if (board.hasValidMove(PlayerColor.BLACK) || board.hasValidMove(PlayerColor.WHITE)) {
+      throw new IllegalArgumentException("The game is not over.");
+    }
+    int difference = board.getScore(PlayerColor.BLACK) - board.getScore(PlayerColor.WHITE);
+    int blackPoints = Integer.signum(difference) + 1;
+    synchronized (this) {
+      for (int ply = 0; ply < hashes.length; ply++) {
+        int move = game.get(ply);
+        if (move == PASS) {
+          continue;
+        }
+        int[] stats = this.moves.computeIfAbsent(hashes[ply], hash -> new HashMap<>())
+                .computeIfAbsent(move, cell -> new int[2]);
+        stats[0]++;
+        // black plays the even plies, and a color's points are the rest of the two points
+        stats[1] += (ply % 2 == 0) ? blackPoints : 2 - blackPoints;
+      }
+      this.games++;
+    }
+  }
+
+  /**
+   * Returns the number of games added to this builder.
+   *
+   * @return the number of games.
+   */
+  public synchronized int getGameCount() {
+    return this.games;
+  }
+
+  /**
+   * Returns the number of distinct positions collected by this builder.
+   *
+   * @return the number of positions.
+   */
+  public synchronized int getPositionCount() {
+    return this.moves.size();
+  }
+
+  /**
+   * Writes the moves collected so far to the given file, replacing anything the file held.
+   *
+   * @param file the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public synchronized void write(Path file) throws IOException {
+    List<Long> hashes = new ArrayList<>(this.moves.keySet());
+    hashes.sort(null);
+    int entries = 0;
+    for (Map<Integer, int[]> byMove : this.moves.values()) {
+      entries += byMove.size();
+    }
+    ByteBuffer bytes = ByteBuffer.allocate(OpeningBook.HEADER_BYTES
+            + OpeningBook.ENTRY_BYTES * entries).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(this.size)
+            .putInt(entries);
+    for (long hash : hashes) {
+      Map<Integer, int[]> byMove = this.moves.get(hash);
+      List<Integer> cells = new ArrayList<>(byMove.keySet());
+      cells.sort(null);
+      for (int cell : cells) {
+        int[] stats = byMove.get(cell);
+        bytes.putLong(hash).putInt(cell).putInt(stats[0]).putInt(stats[1]);
+      }
+    }
+    bytes.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReadonlyReversiModel;
+
+/**
+ * Represents the strategy of playing the best scoring move an opening book has for the
+ * current position, which takes microseconds, and asking a fallback strategy for the move
+ * once the position is out of the book.
+ */
+public class OpeningBookStrategy implements Strategy {
+  private final ReadonlyReversiModel model;
+  // the book of moves played from each position
+  private final OpeningBook book;
+  // the fewest games a book move must have been played in to be chosen
+  private final int minGames;
+  // the strategy choosing the move for a position that is out of the book
+  private final Strategy fallback;
+  // whether the last move chosen came from the book
+  private boolean lastInBook;
+
+  /**
+   * The constructor for an OpeningBookStrategy that plays any book move.
+   *
+   * @param model    the model for this strategy.
+   * @param book     the book of moves for the size of the model's board.
+   * @param fallback the strategy to choose moves with out of the book.
+   * @throws IllegalArgumentException if any argument is null, or the book is not for the
+   *                                  size of the model's board.
+   */
+  public OpeningBookStrategy(ReadonlyReversiModel model, OpeningBook book, Strategy fallback) {
+    this(model, book, 1, fallback);
+  }
+
+  /**
+   * The constructor for an OpeningBookStrategy.
+   *
+   * @param model    the model for this strategy.
+   * @param book     the book of moves for the size of the model's board.
+   * @param minGames the fewest games a book move must have been played in to be chosen.
+   * @param fallback the strategy to choose moves with out of the book.
+   * @throws IllegalArgumentException if any argument is null, the number of games is not
+   *                                  positive, or the book is not for the size of the
+   *                                  model's board.
+   */
+  public OpeningBookStrategy(ReadonlyReversiModel model, OpeningBook book, int minGames,
+                             Strategy fallback) {
+    if (model == null || book == null || fallback == null) {
+      throw new IllegalArgumentException("model, book and fallback cannot be null");
+    }
+    if (minGames <= 0) {
+      throw new IllegalArgumentException("games must be positive");
+    }
+    if (model.getSizeOfBoard() != book.getSize()) {
+      throw new IllegalArgumentException("book is not for the size of the board");
+    }
+    this.model = model;
+    this.book = book;
+    this.minGames = minGames;
+    this.fallback = fallback;
+  }
+
+  /**
+   * Determines the hexagonal axial coordinate of the most strategic move on the
+   * board for this strategy, which is the book move if the position is in the book, or the
+   * move of the fallback strategy otherwise.
+   *
+   * @param color The color of the tile of the player using this strategy.
+   * @return The most strategic move on the board for this strategy, or an empty move if
+   *         the color has no valid moves.
+   * @throws IllegalArgumentException if the color is EMPTY.
+   */
+  @Override
+  public Optional<HexCoordinates> chooseMove(PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+    Board board = this.model.getBoard();
+    int move = this.book.bestMove(board.getHash(color), this.minGames);
+    // a hash shared by two positions could give a move that is not legal here
+    if (move != OpeningBook.NO_MOVE && move < board.cellCount()) {
+      HexCoordinates cell = board.cellAt(move);
+      if (this.model.isValidMove(cell.getQ(), cell.getR(), color)) {
+        this.lastInBook = true;
+        return Optional.of(cell);
+      }
+    }
+    this.lastInBook = false;
+    return this.fallback.chooseMove(color);
+  }
+
+  /**
+   * Returns whether the last move chosen came from the book.
+   *
+   * @return true iff the last move was a book move.
+   */
+  public boolean wasLastInBook() {
+    return this.lastInBook;
+  }
+}
@@ -0,0 +1,72 @@
+package cs3500.reversi.player;
+
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReadonlyReversiModel;
+
+/**
+ * Represents the strategy of playing perfectly by looking up the best move of the current
+ * position in a table of every position of the game, which takes constant time. This is
+ * the best any strategy can do, so the values of the table are the ground truth other
+ * strategies are measured against.
+ */
+public class PerfectPlayStrategy implements Strategy {
+  private final ReadonlyReversiModel model;
+  // the table of every position reachable on the model's board
+  private final PerfectPlayTable table;
+  // the value of the position of the last move chosen
+  private int lastValue;
+
+  /**
+   * The constructor for a PerfectPlayStrategy.
+   *
+   * @param model the model for this strategy.
+   * @param table the table of every position on a board the size of the model's board.
+   * @throws IllegalArgumentException if the model or table is null, or the table is not
+   *                                  for the size of the model's board.
+   */
+  public PerfectPlayStrategy(ReadonlyReversiModel model, PerfectPlayTable table) {
+    if (model == null || table == null) {
+      throw new IllegalArgumentException("model and table cannot be null");
+    }
+    if (model.getSizeOfBoard() != table.getSize()) {
+      throw new IllegalArgumentException("table is not for the size of the board");
+    }
+    this.model = model;
+    this.table = table;
+  }
+
+  /**
+   * Determines the hexagonal axial coordinate of the most strategic move on the
+   * board for this strategy, which is the best move of the table.
+   *
+   * @param color The color of the tile of the player using this strategy.
+   * @return The most strategic move on the board for this strategy, or an empty move if
+   *         the color has no valid moves.
+   * @throws IllegalArgumentException if the color is EMPTY, or the position cannot be
+   *                                  reached from the start of a game.
+   */
+  @Override
+  public Optional<HexCoordinates> chooseMove(PlayerColor color) {
+    Board board = this.model.getBoard();
+    long slot = this.table.probe(board, color);
+    this.lastValue = PerfectPlayTable.getValue(slot);
+    int move = PerfectPlayTable.getBestMove(slot);
+    if (move == PerfectPlayTable.PASS) {
+      return Optional.empty();
+    }
+    return Optional.of(board.cellAt(move));
+  }
+
+  /**
+   * Returns the value of the position the last move was chosen in, from the point of view
+   * of the color that chose it.
+   *
+   * @return the final difference in tiles with perfect play by both colors.
+   */
+  public int getLastValue() {
+    return this.lastValue;
+  }
+}
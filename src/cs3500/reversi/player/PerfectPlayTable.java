@@ -0,0 +1,307 @@
+package cs3500.reversi.player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.MoveRecord;
+
+/**
+ * A table of the value and best move of every position that can be reached from the start
+ * of a game on a board small enough to solve completely, which is only the size 5 board.
+ * The value of a position is the final difference in tiles for the color to move when both
+ * colors play perfectly from it. A table is built by searching every line of play from the
+ * start to the end of the game once, remembering each position it has solved, and is written
+ * to a file as an open-addressing hash table of longs, so that a table opened from the file
+ * is memory-mapped and answers a lookup by reading one or two longs.
+ * Each long packs a position, which is two bits per cell plus the color to move, with its
+ * best move and its value. A long that is zero is an empty slot, as every position has tiles.
+ */
+public final class PerfectPlayTable {
+  // the move of a position where the color to move must pass, or the game is over
+  public static final int PASS = -1;
+
+  // the first int of a table file, which is "RVPT" in ASCII
+  private static final int MAGIC = 0x52565054;
+  // the version of the file format
+  private static final int VERSION = 1;
+  // the bytes before the slots of a table file: the magic, version, board size, number of
+  // positions and number of slots, each an int, rounded up to a whole long
+  private static final int HEADER_BYTES = 24;
+  // the most cells a board can have for its positions to fit in a long with room for the
+  // move and value, which is the 19 cells of the size 5 board and not the 37 of size 7
+  private static final int MAX_CELLS = 24;
+  // the bits of a slot holding the position, the move plus one, and the value plus 64
+  private static final int POSITION_BITS = 2 * MAX_CELLS + 1;
+  private static final int MOVE_BITS = 7;
+  private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+  // the size of the board the table is for
+  private final int size;
+  // the number of positions in the table
+  private final int positions;
+  // the slots of the hash table, which is a power of two in number
+  private final LongBuffer slots;
+  // the number of slots minus one
+  private final int mask;
+
+  /**
+   * Constructs a table over the given slots.
+   *
+   * @param size      the size of the board the table is for.
+   * @param positions the number of positions in the slots.
+   * @param slots     the slots, which are a power of two in number.
+   */
+  private PerfectPlayTable(int size, int positions, LongBuffer slots) {
+    this.size = size;
+    this.positions = positions;
+    this.slots = slots;
+    this.mask = slots.capacity() - 1;
+  }
+
+  /**
+   * Solves every position reachable from the start of a game on a board of the given size.
+   *
+   * @param size the size of the board, which must be small enough to solve.
+   * @return a table in memory of every reachable position.
+   * @throws IllegalArgumentException if the board has too many cells to be solved.
+   */
+  public static PerfectPlayTable build(int size) {
+    Board board = new Board(size);
+    if (board.cellCount() > MAX_CELLS) {
+      throw new IllegalArgumentException("Board is too big to solve completely.");
+    }
+    Map<Long, Long> solved = new HashMap<>();
+    solve(board, PlayerColor.BLACK, false, solved);
+    // the slots are at most half full, so a lookup rarely reads more than two slots
+    int capacity = Integer.highestOneBit(Math.max(2, solved.size() * 2 - 1)) * 2;
+    LongBuffer slots = LongBuffer.allocate(capacity);
+    PerfectPlayTable table = new PerfectPlayTable(size, solved.size(), slots);
+    for (long slot : solved.values()) {
+      int at = table.slotOf(slot & POSITION_MASK);
+      while (slots.get(at) != 0) {
+        at = (at + 1) & table.mask;
+      }
+      slots.put(at, slot);
+    }
+    return table;
+  }
+
+  /**
+   * Solves the given position by searching every line of play from it, and remembers the
+   * value and best move of it and of every position reached from it.
+   *
+   * @param board  the board of the position, which is put back the way it was.
+   * @param color  the color to move.
+   * @param passed whether the opponent passed to reach this position.
+   * @param solved the positions solved so far, by position, as packed slots.
+   * @return the value of the position for the color to move.
+   */
+  private static int solve(Board board, PlayerColor color, boolean passed,
+                           Map<Long, Long> solved) {
+    long position = positionOf(board, color);
+    Long known = solved.get(position);
+    if (known != null) {
+      return getValue(known);
+    }
+    PlayerColor other = AlphaBetaStrategy.opposite(color);
+    List<LegalMove> moves = board.findLegalMoves(color);
+    int best;
+    int bestMove = PASS;
+    if (moves.isEmpty()) {
+      best = passed ? board.getScore(color) - board.getScore(other)
+              : -solve(board, other, true, solved);
+    } else {
+      best = Integer.MIN_VALUE;
+      for (LegalMove move : moves) {
+        MoveRecord record = board.makeUndoableMove(move.getQ(), move.getR(), color);
+        int value = -solve(board, other, false, solved);
+        board.unmakeMove(record);
+        if (value > best) {
+          best = value;
+          bestMove = board.indexOf(move.getQ(), move.getR());
+        }
+      }
+    }
+    solved.put(position, pack(position, bestMove, best));
+    return best;
+  }
+
+  /**
+   * Writes this table to the given file, replacing anything the file held.
+   *
+   * @param file the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Path file) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(HEADER_BYTES + 8 * this.slots.capacity())
+            .order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(MAGIC).putInt(VERSION).putInt(this.size).putInt(this.positions)
+            .putInt(this.slots.capacity());
+    bytes.position(HEADER_BYTES);
+    for (int i = 0; i < this.slots.capacity(); i++) {
+      bytes.putLong(this.slots.get(i));
+    }
+    bytes.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Opens a table written by write, by mapping the file into memory, so that the table
+   * is read from the file as it is looked up and can be shared by every thread.
+   *
+   * @param file the file to open.
+   * @return the table in the file.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a table.
+   */
+  public static PerfectPlayTable open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+      if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+              || mapped.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Not a perfect play table.");
+      }
+      int size = mapped.getInt(8);
+      int positions = mapped.getInt(12);
+      int capacity = mapped.getInt(16);
+      if (Integer.bitCount(capacity) != 1
+              || mapped.capacity() != HEADER_BYTES + 8L * capacity) {
+        throw new IllegalArgumentException("Perfect play table is damaged.");
+      }
+      // the mapping stays valid after the channel is closed
+      LongBuffer slots = mapped.position(HEADER_BYTES).slice()
+              .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+      return new PerfectPlayTable(size, positions, slots);
+    }
+  }
+
+  /**
+   * Looks up the given position in this table.
+   *
+   * @param board the board of the position.
+   * @param color the color to move.
+   * @return the slot of the position, which is read with the static getters of this class.
+   * @throws IllegalArgumentException if the color is EMPTY, the board is not the size of
+   *                                  this table, or the position cannot be reached from the
+   *                                  start of a game.
+   */
+  public long probe(Board board, PlayerColor color) {
+    if (color == PlayerColor.EMPTY) {
+      throw new IllegalArgumentException("color cannot be empty");
+    }
+    if (board.getSize() != this.size) {
+      throw new IllegalArgumentException("Board is not the size of this table.");
+    }
+    long position = positionOf(board, color);
+    for (int at = this.slotOf(position); ; at = (at + 1) & this.mask) {
+      long slot = this.slots.get(at);
+      if (slot == 0) {
+        throw new IllegalArgumentException("Position cannot be reached from the start.");
+      }
+      if ((slot & POSITION_MASK) == position) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Returns the size of the board this table is for.
+   *
+   * @return the board size.
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of positions in this table.
+   *
+   * @return the number of positions reachable from the start.
+   */
+  public int getPositionCount() {
+    return this.positions;
+  }
+
+  /**
+   * Returns the value of the position of the given slot.
+   *
+   * @param slot a slot returned by probe.
+   * @return the final difference in tiles for the color to move with perfect play.
+   */
+  public static int getValue(long slot) {
+    return (int) (slot >>> (POSITION_BITS + MOVE_BITS)) - 64;
+  }
+
+  /**
+   * Returns the best move of the position of the given slot.
+   *
+   * @param slot a slot returned by probe.
+   * @return the cell index of the best move, or PASS if the color to move has no move.
+   */
+  public static int getBestMove(long slot) {
+    return (int) ((slot >>> POSITION_BITS) & ((1 << MOVE_BITS) - 1)) - 1;
+  }
+
+  /**
+   * Packs a position with its best move and value into a slot.
+   *
+   * @param position the position.
+   * @param bestMove the cell index of the best move, or PASS.
+   * @param value    the value, which is between -64 and 63.
+   * @return the slot.
+   */
+  private static long pack(long position, int bestMove, int value) {
+    return position | ((long) (bestMove + 1) << POSITION_BITS)
+            | ((long) (value + 64) << (POSITION_BITS + MOVE_BITS));
+  }
+
+  /**
+   * Determines the position of the given board, which is two bits per cell in the order of
+   * the cell indices, 1 for black and 2 for white, then one bit that is set if white is to
+   * move.
+   *
+   * @param board the board.
+   * @param color the color to move.
+   * @return the position, which is never zero.
+   */
+  private static long positionOf(Board board, PlayerColor color) {
+    long position = 0;
+    for (int index = 0; index < board.cellCount(); index++) {
+      PlayerColor at = board.getColorAt(index);
+      if (at != PlayerColor.EMPTY) {
+        position |= (long) ((at == PlayerColor.BLACK) ? 1 : 2) << (2 * index);
+      }
+    }
+    if (color == PlayerColor.WHITE) {
+      position |= 1L << (2 * MAX_CELLS);
+    }
+    return position;
+  }
+
+  /**
+   * Determines the first slot to look for the given position in.
+   *
+   * @param position a position.
+   * @return the index of its first slot.
+   */
+  private int slotOf(long position) {
+    return (int) ((position * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+  }
+}
@@ -0,0 +1,260 @@
+package cs3500.reversi.player;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of the results of searching positions, keyed by the hash of each
+ * position, which lets a search reuse the work it did on a position it reaches again
+ * through a different order of moves. Every entry is packed into one long holding the
+ * score, the depth it was searched to, whether the score is exact or a bound, and the
+ * best move found. Each entry is stored as two longs, the packed entry and the entry
+ * combined with its position's hash by XOR, so that a read can tell if the two halves
+ * belong together. This lets any number of threads read and write the table at the same
+ * time without locks, as a half-written entry is simply treated as missing.
+ * When two positions share a slot, the entry searched deeper is kept, unless the entry
+ * there is left over from an earlier search.
+ */
+public final class TranspositionTable {
+  // the bound of a score that is the exact score of the position
+  public static final int EXACT = 1;
+  // the bound of a score that the position scores at least, as the search was cut off
+  public static final int LOWER = 2;
+  // the bound of a score that the position scores at most, as no move raised alpha
+  public static final int UPPER = 3;
+  // the value returned by a probe that does not find the position
+  public static final long MISSING = 0L;
+  // the best move of an entry that has no best move
+  public static final int NO_MOVE = -1;
+
+  // the deepest depth and the largest search number an entry can hold
+  private static final int MAX_DEPTH = 0xFF;
+  private static final int GENERATIONS = 0x3F;
+
+  // the two longs of every slot, where slot i is at 2 * i and 2 * i + 1
+  private final AtomicLongArray slots;
+  // the number of slots minus one, which is a mask as the number of slots is a power of two
+  private final int mask;
+  // the number of the search being run, which tells entries from earlier searches apart
+  private volatile int generation;
+  // the number of probes that found their position, found nothing, and found another position
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Constructs an empty table that uses at most the given number of megabytes.
+   *
+   * @param megabytes the most memory the table can use.
+   * @throws IllegalArgumentException if the size is not between 1 and 16384 megabytes.
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1 || megabytes > 16384) {
+      throw new IllegalArgumentException("A table must use between 1 and 16384 megabytes.");
+    }
+    // each slot takes two longs, which is 16 bytes
+    long slotCount = Long.highestOneBit(((long) megabytes << 20) / 16);
+    // an array holds fewer than 2^30 slots of two longs
+    slotCount = Math.min(slotCount, 1L << 29);
+    this.slots = new AtomicLongArray((int) (2 * slotCount));
+    this.mask = (int) slotCount - 1;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  /**
+   * Starts a new search, so that the entries of earlier searches are replaced first.
+   */
+  public void newSearch() {
+    this.generation = (this.generation + 1) & GENERATIONS;
+  }
+
+  /**
+   * Looks up the given position in this table.
+   *
+   * @param hash the hash of the position, including the color to move.
+   * @return the packed entry of the position, which is read with the static getters of
+   *         this class, or MISSING if the position is not in the table.
+   */
+  public long probe(long hash) {
+    int slot = this.slotOf(hash);
+    long check = this.slots.getOpaque(slot);
+    long entry = this.slots.getOpaque(slot + 1);
+    if (entry != MISSING && (check ^ entry) == hash) {
+      this.hits.increment();
+      return entry;
+    }
+    this.misses.increment();
+    if (entry != MISSING) {
+      this.collisions.increment();
+    }
+    return MISSING;
+  }
+
+  /**
+   * Stores the result of searching the given position, unless the slot of the position
+   * holds another position from this search that was searched deeper.
+   *
+   * @param hash     the hash of the position, including the color to move.
+   * @param depth    the depth the position was searched to, which is capped at 255.
+   * @param bound    EXACT, LOWER or UPPER.
+   * @param score    the score found for the position.
+   * @param bestMove the cell index of the best move found, or NO_MOVE if there is none.
+   * @throws IllegalArgumentException if the depth is negative, the bound is not one of the
+   *                                  bounds, or the move is not a cell index or NO_MOVE.
+   */
+  public void store(long hash, int depth, int bound, int score, int bestMove) {
+    if (depth < 0 || bound < EXACT || bound > UPPER || bestMove < NO_MOVE
+            || bestMove >= 0xFFFF) {
+      throw new IllegalArgumentException("Invalid entry.");
+    }
+    int slot = this.slotOf(hash);
+    long check = this.slots.getOpaque(slot);
+    long old = this.slots.getOpaque(slot + 1);
+    if (old != MISSING && (check ^ old) != hash && getGeneration(old) == this.generation
+            && getDepth(old) > depth) {
+      return;
+    }
+    long entry = pack(Math.min(depth, MAX_DEPTH), bound, score, bestMove, this.generation);
+    this.slots.setOpaque(slot, hash ^ entry);
+    this.slots.setOpaque(slot + 1, entry);
+  }
+
+  /**
+   * Removes every entry from this table and resets its counters.
+   */
+  public void clear() {
+    for (int i = 0; i < this.slots.length(); i++) {
+      this.slots.setOpaque(i, 0L);
+    }
+    this.resetCounters();
+  }
+
+  /**
+   * Resets the hit, miss and collision counters of this table to zero.
+   */
+  public void resetCounters() {
+    this.hits.reset();
+    this.misses.reset();
+    this.collisions.reset();
+  }
+
+  /**
+   * Returns the number of entries this table can hold.
+   *
+   * @return the number of slots in this table.
+   */
+  public int capacity() {
+    return this.mask + 1;
+  }
+
+  /**
+   * Returns the number of probes that found their position.
+   *
+   * @return the number of hits since the counters were last reset.
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns the number of probes that did not find their position.
+   *
+   * @return the number of misses since the counters were last reset.
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns the number of probes that did not find their position because the slot held
+   * another position, which is counted as a miss as well.
+   *
+   * @return the number of collisions since the counters were last reset.
+   */
+  public long getCollisions() {
+    return this.collisions.sum();
+  }
+
+  /**
+   * Returns the score of the given entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return the score stored in the entry.
+   */
+  public static int getScore(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Returns the cell index of the best move of the given entry.
+   *
+   * @param entry an entry returned by probe.
+   * @return the cell index of the best move, or NO_MOVE if it has none.
+   */
+  public static int getBestMove(long entry) {
+    return (int) ((entry >>> 32) & 0xFFFF) - 1;
+  }
+
+  /**
+   * Returns the depth the position of the given entry was searched to.
+   *
+   * @param entry an entry returned by probe.
+   * @return the depth stored in the entry.
+   */
+  public static int getDepth(long entry) {
+    return (int) ((entry >>> 48) & MAX_DEPTH);
+  }
+
+  /**
+   * Returns whether the score of the given entry is exact or a bound.
+   *
+   * @param entry an entry returned by probe.
+   * @return EXACT, LOWER or UPPER.
+   */
+  public static int getBound(long entry) {
+    return (int) ((entry >>> 56) & 0x3);
+  }
+
+  /**
+   * Returns the number of the search that stored the given entry.
+   *
+   * @param entry an entry of this table.
+   * @return the search number stored in the entry.
+   */
+  private static int getGeneration(long entry) {
+    return (int) (entry >>> 58);
+  }
+
+  /**
+   * Packs the parts of an entry into one long, where the low 32 bits are the score, the
+   * next 16 bits are the best move plus one, then 8 bits of depth, 2 bits of bound and 6 bits
+   * of search number. An entry is never MISSING, as its bound is never zero.
+   *
+   * @param depth      the depth, from 0 to 255.
+   * @param bound      EXACT, LOWER or UPPER.
+   * @param score      the score.
+   * @param bestMove   the cell index of the best move, or NO_MOVE.
+   * @param generation the search number, from 0 to 63.
+   * @return the packed entry.
+   */
+  private static long pack(int depth, int bound, int score, int bestMove, int generation) {
+    return (score & 0xFFFFFFFFL)
+            | ((long) (bestMove + 1) << 32)
+            | ((long) depth << 48)
+            | ((long) bound << 56)
+            | ((long) generation << 58);
+  }
+
+  /**
+   * Determines the position of the first long of the slot of the given hash.
+   *
+   * @param hash the hash of a position.
+   * @return the index of the slot's first long in the array of slots.
+   */
+  private int slotOf(long hash) {
+    // the high bits of the hash are mixed in so that tables of every size use all of it
+    return 2 * ((int) (hash ^ (hash >>> 32)) & this.mask);
+  }
+}
@@ -112,6 +112,8 @@ public class ReversiPanel extends JPanel {
     int colB = 0;
     int colU = row;
     int yPos = 1;
+    // the cells are numbered row by row in the same order they are drawn
+    int index = 0;
     for (int r = -row; r <= row; r++) {
       int count = 0;
       int numSpaces = Math.abs(colU + colB);
@@ -127,10 +129,11 @@ public class ReversiPanel extends JPanel {
         this.cartCoords.add(hexagon);
         // adds the q,r coordinates of the most recently made hexagon to this panel's list
         // of hexagonal axial coordinates
-        this.hexCoords.add(new HexCoordinates(q, r));
+        this.hexCoords.add(this.model.cellAt(index));
         boolean filled = (q == this.cellQ) && (r == this.cellR) && this.fill;
         drawHexagon(g2D, hexagon, filled);
-        addTile(g2D, q, r, x, y);
+        addTile(g2D, index, x, y);
+        index++;
       }
       if (colB == -row) {
         colU = colU - 1;
@@ -142,18 +145,17 @@ public class ReversiPanel extends JPanel {
 
 
   /**
-   * Adds the tile at the hexagon cell at the given q,r coordinate in this panel's reversi board.
-   * The tile is white if the PlayerColor at the given coordinate is WHITE, the tile is black if
-   * the PlayerColor at the given coordinate is BLACK, and no tile is added otherwise.
+   * Adds the tile at the hexagon cell at the given cell index in this panel's reversi board.
+   * The tile is white if the PlayerColor at the given cell is WHITE, the tile is black if
+   * the PlayerColor at the given cell is BLACK, and no tile is added otherwise.
    *
-   * @param g2D the Graphics object used to draw components on the panel.
-   * @param q   the q coordinate of the hexagonal cell on which a tile should be added.
-   * @param r   the r coordinate of the hexagonal cell on which a tile should be added.
-   * @param x   the pixel coordinate of the hexagonal cell to which a tile is being added.
-   * @param y   the pixel coordinate of the hexagonal cell to which a tile is being added.
+   * @param g2D   the Graphics object used to draw components on the panel.
+   * @param index the cell index of the hexagonal cell on which a tile should be added.
+   * @param x     the pixel coordinate of the hexagonal cell to which a tile is being added.
+   * @param y     the pixel coordinate of the hexagonal cell to which a tile is being added.
    */
-  private void addTile(Graphics2D g2D, int q, int r, int x, int y) {
-    PlayerColor color = model.getContentsOfCell(q, r);
+  private void addTile(Graphics2D g2D, int index, int x, int y) {
+    PlayerColor color = model.getContentsOfCell(index);
     if (color == PlayerColor.BLACK) {
       g2D.setColor(Color.BLACK);
       g2D.fillOval(x - 15, y - 15, 30, 30);
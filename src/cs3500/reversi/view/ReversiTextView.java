@@ -1,6 +1,5 @@
 package cs3500.reversi.view;
 
-import cs3500.reversi.model.Board;
 import cs3500.reversi.model.ReadonlyReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.player.PlayerColor;
@@ -33,9 +32,10 @@ public class ReversiTextView implements TextView {
 
   // this should be used to produce a visualization of the board
   public String toString() {
-    Board board = this.model.getBoard();
-    int size = board.getSize();
+    int size = this.model.getSizeOfBoard();
     StringBuilder b = new StringBuilder();
+    // the cells are numbered row by row in the same order they are written
+    int index = 0;
     int row = Math.floorDiv(size, 2);
     int colB = 0;
     int colU = row;
@@ -43,7 +43,7 @@ public class ReversiTextView implements TextView {
       int numSpaces = (((2 * size) - ((colU - colB) * 2)) / 2) + 1;
       b.append(this.getNumSpaces(numSpaces));
       for (int q = colB; q <= colU; q++) {
-        b.append(this.getSymbol(this.model.getContentsOfCell(q, r)));
+        b.append(this.getSymbol(this.model.getContentsOfCell(index++)));
         if (q != colU) {
           b.append(" ");
         }
@@ -0,0 +1,103 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import cs3500.reversi.model.FeaturesModel;
+import cs3500.reversi.model.GameState;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AsyncMachinePlayer;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * Tests for machine players that choose their moves on a background thread.
+ */
+public class TestAsyncMachinePlayer {
+
+  @Test
+  public void testGameIsPlayedOnTheEventThread() throws InterruptedException {
+    ExecutorService searcher = Executors.newSingleThreadExecutor();
+    // stands in for the Swing event thread
+    ExecutorService events = Executors.newSingleThreadExecutor();
+    try {
+      ReversiModel model = new ReversiModelStandard(7);
+      AsyncMachinePlayer black = new AsyncMachinePlayer(model, new CapturePieceStrategy(model),
+          searcher, events);
+      AsyncMachinePlayer white = new AsyncMachinePlayer(model,
+          new CheckCornersStrategy(model), searcher, events);
+      List<String> turnThreads = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch over = new CountDownLatch(1);
+      model.addFeatures(new FeaturesModel() {
+        @Override
+        public void checkTurn() {
+          turnThreads.add(Thread.currentThread().getName());
+          if (!model.isGameOver()) {
+            (model.curPlayer() == PlayerColor.BLACK ? black : white).makeMove();
+            // asking again while the move is being chosen does nothing
+            (model.curPlayer() == PlayerColor.BLACK ? black : white).makeMove();
+          }
+        }
+
+        @Override
+        public void checkGameOver() {
+          if (model.isGameOver()) {
+            over.countDown();
+          }
+        }
+      });
+      events.execute(model::startGame);
+      Assert.assertTrue(over.await(10, TimeUnit.SECONDS));
+      Assert.assertTrue(model.isGameOver());
+      Assert.assertTrue(turnThreads.size() > 20);
+      // every move was made on the event thread
+      Assert.assertEquals(1, turnThreads.stream().distinct().count());
+      Assert.assertFalse(black.isThinking());
+    } finally {
+      searcher.shutdownNow();
+      events.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testCancelInterruptsAndDropsTheMove() throws InterruptedException {
+    ExecutorService searcher = Executors.newSingleThreadExecutor();
+    ReversiModel model = new ReversiModelStandard(7);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    AsyncMachinePlayer player = new AsyncMachinePlayer(model, color -> {
+      started.countDown();
+      try {
+        Thread.sleep(60_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return Optional.empty();
+    }, searcher, Runnable::run);
+    player.makeMove();
+    Assert.assertTrue(player.isThinking());
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    player.cancel();
+    Assert.assertFalse(player.isThinking());
+    Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    searcher.shutdown();
+    Assert.assertTrue(searcher.awaitTermination(5, TimeUnit.SECONDS));
+    // the strategy chose to pass, but the pass was dropped
+    Assert.assertEquals(PlayerColor.BLACK, model.curPlayer());
+    Assert.assertEquals(GameState.PLAYING, model.getStatus());
+    // once the searcher is shut down, asking for a move does nothing
+    player.makeMove();
+    Assert.assertFalse(player.isThinking());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AsyncMachinePlayer(model, null, searcher, Runnable::run));
+  }
+}
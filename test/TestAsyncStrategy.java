@@ -0,0 +1,130 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.AsyncStrategy;
+import cs3500.reversi.player.AsyncStrategyAdapter;
+import cs3500.reversi.player.CancellationToken;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.MultipleStrategies;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Tests for choosing moves asynchronously under deadlines and cancellation.
+ */
+public class TestAsyncStrategy {
+  private ExecutorService executor;
+  private ReversiModel model;
+  // counted down when a strategy is interrupted
+  private CountDownLatch interrupted;
+
+  @Before
+  public void init() {
+    this.executor = Executors.newSingleThreadExecutor();
+    this.model = new ReversiModelStandard(7);
+    this.interrupted = new CountDownLatch(1);
+  }
+
+  @After
+  public void shutDown() {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * Returns a strategy which waits until it is interrupted, and then passes.
+   *
+   * @param started counted down when the strategy starts.
+   * @return the strategy.
+   */
+  private Strategy waitingStrategy(CountDownLatch started) {
+    return color -> {
+      started.countDown();
+      try {
+        Thread.sleep(60_000);
+      } catch (InterruptedException e) {
+        this.interrupted.countDown();
+      }
+      return Optional.empty();
+    };
+  }
+
+  /**
+   * Returns a deadline the given number of milliseconds from now.
+   *
+   * @param millis the milliseconds until the deadline.
+   * @return the deadline as a value of System.nanoTime.
+   */
+  private static long in(long millis) {
+    return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  public void testAdaptersChooseTheSameMoves() throws Exception {
+    List<Strategy> strategies = List.of(new CapturePieceStrategy(this.model),
+        new CheckCornersStrategy(this.model), new MultipleStrategies(List.of(
+            new CheckCornersStrategy(this.model), new CapturePieceStrategy(this.model))));
+    for (Strategy strategy : strategies) {
+      AsyncStrategy async = new AsyncStrategyAdapter(strategy, this.executor);
+      Optional<HexCoordinates> move = async.chooseMoveAsync(PlayerColor.BLACK, in(5000),
+          new CancellationToken()).get(5, TimeUnit.SECONDS);
+      Assert.assertEquals(strategy.chooseMove(PlayerColor.BLACK), move);
+    }
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AsyncStrategyAdapter(strategies.get(0), this.executor)
+            .chooseMoveAsync(PlayerColor.EMPTY, in(5000), new CancellationToken()));
+  }
+
+  @Test
+  public void testCancellingInterruptsTheStrategy() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    AsyncStrategy async = new AsyncStrategyAdapter(this.waitingStrategy(started),
+        this.executor);
+    CancellationToken token = new CancellationToken();
+    CompletableFuture<Optional<HexCoordinates>> move = async.chooseMoveAsync(PlayerColor.BLACK,
+        in(60_000), token);
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    token.cancel();
+    Assert.assertTrue(move.isCancelled());
+    Assert.assertThrows(CancellationException.class, move::join);
+    Assert.assertTrue(this.interrupted.await(5, TimeUnit.SECONDS));
+    // a token already cancelled cancels a move before it starts
+    Assert.assertTrue(async.chooseMoveAsync(PlayerColor.BLACK, in(60_000), token)
+        .isCancelled());
+  }
+
+  @Test
+  public void testDeadlineTimesOutWithoutInterruptingTheNextMove() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    AsyncStrategy async = new AsyncStrategyAdapter(this.waitingStrategy(started),
+        this.executor);
+    CompletableFuture<Optional<HexCoordinates>> move = async.chooseMoveAsync(PlayerColor.BLACK,
+        in(50), new CancellationToken());
+    ExecutionException failure = Assert.assertThrows(ExecutionException.class,
+        () -> move.get(5, TimeUnit.SECONDS));
+    Assert.assertTrue(failure.getCause() instanceof TimeoutException);
+    Assert.assertTrue(this.interrupted.await(5, TimeUnit.SECONDS));
+    // the next move on the same thread starts without the interrupt
+    AsyncStrategy checking = new AsyncStrategyAdapter(color -> Optional.of(
+        new HexCoordinates(Thread.currentThread().isInterrupted() ? 1 : 0, 0)), this.executor);
+    Assert.assertEquals(Optional.of(new HexCoordinates(0, 0)),
+        checking.chooseMoveAsync(PlayerColor.BLACK, in(5000), new CancellationToken())
+            .get(5, TimeUnit.SECONDS));
+  }
+}
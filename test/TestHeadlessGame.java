@@ -0,0 +1,58 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import cs3500.reversi.controller.HeadlessGame;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.model.Scores;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * Tests for playing games between two strategies with no view.
+ */
+public class TestHeadlessGame {
+
+  @Test
+  public void testPlaysAGameToTheEnd() {
+    ReversiModel model = new ReversiModelStandard(7);
+    HeadlessGame game = new HeadlessGame(model, new CapturePieceStrategy(model),
+        new CheckCornersStrategy(model));
+    Scores scores = game.play();
+    Assert.assertTrue(model.isGameOver());
+    Assert.assertEquals(model.getScores().getDifference(PlayerColor.BLACK),
+        scores.getDifference(PlayerColor.BLACK));
+    // the game starts with six tiles, and every move places one more
+    Assert.assertEquals(scores.getScore(PlayerColor.BLACK) + scores.getScore(PlayerColor.WHITE),
+        6 + game.getMoveCount());
+    Assert.assertTrue(game.getPassCount() >= 2);
+    Assert.assertTrue(game.getThinkingNanos(PlayerColor.BLACK) > 0);
+    Assert.assertThrows(IllegalStateException.class, game::play);
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> game.getThinkingNanos(PlayerColor.EMPTY));
+  }
+
+  @Test
+  public void testIllegalMovesAndArguments() {
+    ReversiModel model = new ReversiModelStandard(7);
+    // the center cell captures nothing at the start, so choosing it is not legal
+    HeadlessGame game = new HeadlessGame(model, color -> Optional.of(new HexCoordinates(0, 0)),
+        new CapturePieceStrategy(model));
+    Assert.assertThrows(IllegalStateException.class, game::play);
+    Assert.assertEquals(0, game.getMoveCount());
+    // choosing a cell that already has a tile is not a pass, as only an empty move passes
+    HeadlessGame taken = new HeadlessGame(model,
+        color -> Optional.of(new HexCoordinates(-1, 0)), new CapturePieceStrategy(model));
+    Assert.assertThrows(IllegalStateException.class, taken::play);
+    Assert.assertEquals(0, taken.getPassCount());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new HeadlessGame(null, new CapturePieceStrategy(model),
+            new CapturePieceStrategy(model)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new HeadlessGame(model, null, new CapturePieceStrategy(model)));
+  }
+}
@@ -0,0 +1,64 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.player.MoveOrdering;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.TranspositionTable;
+
+/**
+ * Tests for the ordering of the moves of a search.
+ */
+public class TestMoveOrdering {
+
+  /**
+   * Returns the cell index of the given move.
+   *
+   * @param board the board of the move.
+   * @param move  a legal move.
+   * @return the cell index of the move.
+   */
+  private static int cellOf(Board board, LegalMove move) {
+    return board.indexOf(move.getQ(), move.getR());
+  }
+
+  @Test
+  public void testHashMoveThenKillersFirst() {
+    Board board = new Board(7);
+    MoveOrdering ordering = new MoveOrdering(board, MoveOrdering.ALL);
+    List<LegalMove> moves = board.findLegalMoves(PlayerColor.BLACK);
+    int last = cellOf(board, moves.get(moves.size() - 1));
+    ordering.order(moves, PlayerColor.BLACK, 0, last);
+    Assert.assertEquals(last, cellOf(board, moves.get(0)));
+    int killer = cellOf(board, moves.get(moves.size() - 1));
+    ordering.recordCutoff(killer, PlayerColor.BLACK, 3, 5);
+    ordering.order(moves, PlayerColor.BLACK, 3, TranspositionTable.NO_MOVE);
+    Assert.assertEquals(killer, cellOf(board, moves.get(0)));
+    // the hash move still comes before the killer
+    ordering.order(moves, PlayerColor.BLACK, 3, last);
+    Assert.assertEquals(last, cellOf(board, moves.get(0)));
+    Assert.assertEquals(killer, cellOf(board, moves.get(1)));
+    // a new search forgets the killers, but the history still ranks the move first
+    ordering.newSearch();
+    ordering.order(moves, PlayerColor.BLACK, 3, TranspositionTable.NO_MOVE);
+    Assert.assertEquals(killer, cellOf(board, moves.get(0)));
+    ordering.order(moves, PlayerColor.WHITE, 3, TranspositionTable.NO_MOVE);
+    Assert.assertEquals(board.findLegalMoves(PlayerColor.BLACK).size(), moves.size());
+  }
+
+  @Test
+  public void testTurnedOffHeuristicsKeepTheOrder() {
+    Board board = new Board(7);
+    MoveOrdering ordering = new MoveOrdering(board, 0);
+    List<LegalMove> moves = board.findLegalMoves(PlayerColor.BLACK);
+    ordering.recordCutoff(cellOf(board, moves.get(2)), PlayerColor.BLACK, 0, 9);
+    ordering.order(moves, PlayerColor.BLACK, 0, cellOf(board, moves.get(1)));
+    Assert.assertEquals(board.findLegalMoves(PlayerColor.BLACK), moves);
+    Assert.assertThrows(IllegalArgumentException.class, () -> new MoveOrdering(board, 16));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MoveOrdering(null, MoveOrdering.ALL));
+  }
+}
@@ -0,0 +1,118 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.NTupleEvaluator;
+import cs3500.reversi.player.NTupleTrainer;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Tests for training, saving and scoring with an n-tuple evaluator.
+ */
+public class TestNTupleEvaluator {
+
+  /**
+   * Plays a game where black's first move is the given legal move and every other move is
+   * chosen by the capture strategy.
+   *
+   * @param first the position of black's first move in its list of legal moves.
+   * @return the cell index of every move of the game.
+   */
+  private static List<Integer> playGame(int first) {
+    ReversiModel model = new ReversiModelStandard(7);
+    Strategy strategy = new CapturePieceStrategy(model);
+    List<Integer> moves = new ArrayList<>();
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = moves.isEmpty()
+          ? Optional.of(model.getLegalMoves(color).get(first).getCoordinates())
+          : strategy.chooseMove(color);
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+        moves.add(model.indexOf(move.get().getQ(), move.get().getR()));
+      } else {
+        model.pass(color);
+        moves.add(NTupleTrainer.PASS);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    return moves;
+  }
+
+  /**
+   * Trains a new evaluator on the games with every opening move of black.
+   *
+   * @param threads the number of threads to train on.
+   * @return the trained evaluator.
+   */
+  private static NTupleEvaluator train(int threads) {
+    NTupleEvaluator evaluator = new NTupleEvaluator(7);
+    NTupleTrainer trainer = new NTupleTrainer(evaluator, threads);
+    int openings = new ReversiModelStandard(7).getLegalMoves(PlayerColor.BLACK).size();
+    for (int i = 0; i < openings; i++) {
+      trainer.addGame(playGame(i));
+    }
+    Assert.assertEquals(openings, trainer.getGameCount());
+    double before = trainer.meanSquaredError();
+    double after = trainer.train(50, 0.5);
+    Assert.assertTrue(after < before / 2);
+    return evaluator;
+  }
+
+  @Test
+  public void testTrainingFitsTheGames() throws IOException {
+    NTupleEvaluator untrained = new NTupleEvaluator(7);
+    Board start = new Board(7);
+    Assert.assertEquals(0, untrained.evaluate(start, PlayerColor.BLACK));
+    Assert.assertEquals(24, untrained.getPatternCount());
+    NTupleEvaluator trained = train(3);
+    Board played = new ReversiModelStandard(7).getBoard();
+    Assert.assertEquals(-trained.evaluate(played, PlayerColor.WHITE),
+        trained.evaluate(played, PlayerColor.BLACK));
+    // the errors of the threads are always combined in the same order
+    Assert.assertEquals(trained.evaluate(played, PlayerColor.BLACK),
+        train(3).evaluate(played, PlayerColor.BLACK));
+    Path file = Files.createTempFile("ntuple", ".bin");
+    try {
+      trained.write(file);
+      NTupleEvaluator read = NTupleEvaluator.open(file);
+      Assert.assertEquals(trained.getWeightCount(), read.getWeightCount());
+      Assert.assertEquals(trained.evaluate(played, PlayerColor.BLACK),
+          read.evaluate(played, PlayerColor.BLACK));
+      Files.write(file, new byte[40]);
+      Assert.assertThrows(IllegalArgumentException.class, () -> NTupleEvaluator.open(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testBadGamesAndArguments() {
+    NTupleEvaluator evaluator = new NTupleEvaluator(7);
+    NTupleTrainer trainer = new NTupleTrainer(evaluator, 2);
+    Assert.assertThrows(IllegalArgumentException.class, () -> trainer.addGame(List.of(0)));
+    List<Integer> unfinished = playGame(0).subList(0, 10);
+    Assert.assertThrows(IllegalArgumentException.class, () -> trainer.addGame(unfinished));
+    Assert.assertEquals(0, trainer.getPositionCount());
+    Assert.assertEquals(0, trainer.train(5, 0.5), 0);
+    Assert.assertThrows(IllegalArgumentException.class, () -> trainer.train(5, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> trainer.train(-1, 0.5));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new NTupleTrainer(null, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new NTupleTrainer(evaluator, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new NTupleEvaluator(6));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> evaluator.evaluate(new Board(9), PlayerColor.BLACK));
+  }
+}
@@ -0,0 +1,144 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.OpeningBook;
+import cs3500.reversi.player.OpeningBookBuilder;
+import cs3500.reversi.player.OpeningBookStrategy;
+import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.Strategy;
+
+/**
+ * Tests for building, opening and playing from an opening book.
+ */
+public class TestOpeningBook {
+
+  /**
+   * Plays a game where black's first move is the given legal move and every other move is
+   * chosen by the capture strategy.
+   *
+   * @param first the position of black's first move in its list of legal moves.
+   * @return the cell index of every move of the game.
+   */
+  private static List<Integer> playGame(int first) {
+    ReversiModel model = new ReversiModelStandard(7);
+    Strategy strategy = new CapturePieceStrategy(model);
+    List<Integer> moves = new ArrayList<>();
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = moves.isEmpty()
+          ? Optional.of(model.getLegalMoves(color).get(first).getCoordinates())
+          : strategy.chooseMove(color);
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+        moves.add(model.indexOf(move.get().getQ(), move.get().getR()));
+      } else {
+        model.pass(color);
+        moves.add(OpeningBookBuilder.PASS);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    return moves;
+  }
+
+  /**
+   * Determines the points black scores in the given game, 2 for a win and 1 for a tie.
+   *
+   * @param game the cell index of every move of a finished game.
+   * @return black's points.
+   */
+  private static int blackPoints(List<Integer> game) {
+    ReversiModel model = new ReversiModelStandard(7);
+    PlayerColor color = PlayerColor.BLACK;
+    for (int move : game) {
+      if (move == OpeningBookBuilder.PASS) {
+        model.pass(color);
+      } else {
+        HexCoordinates cell = model.cellAt(move);
+        model.placeTile(color, cell.getQ(), cell.getR());
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    Board end = model.getBoard();
+    return Integer.signum(end.getScore(PlayerColor.BLACK) - end.getScore(PlayerColor.WHITE))
+        + 1;
+  }
+
+  @Test
+  public void testBookPlaysTheBestScoringOpening() throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(7, 4);
+    ReversiModel model = new ReversiModelStandard(7);
+    List<LegalMove> openings = model.getLegalMoves(PlayerColor.BLACK);
+    int[] points = new int[openings.size()];
+    int bestPoints = 0;
+    for (int i = 0; i < openings.size(); i++) {
+      List<Integer> game = playGame(i);
+      builder.addGame(game);
+      points[i] = blackPoints(game);
+      bestPoints = Math.max(bestPoints, points[i]);
+    }
+    Assert.assertEquals(openings.size(), builder.getGameCount());
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      builder.write(file);
+      OpeningBook book = OpeningBook.open(file);
+      Assert.assertEquals(7, book.getSize());
+      long start = new Board(7).getHash(PlayerColor.BLACK);
+      Assert.assertEquals(openings.size(), book.gamesAt(start));
+      Assert.assertEquals(OpeningBook.NO_MOVE, book.bestMove(start, 2));
+      OpeningBookStrategy strategy = new OpeningBookStrategy(model, book,
+          new CapturePieceStrategy(model));
+      HexCoordinates move = strategy.chooseMove(PlayerColor.BLACK).get();
+      Assert.assertTrue(strategy.wasLastInBook());
+      for (int i = 0; i < openings.size(); i++) {
+        if (openings.get(i).getCoordinates().equals(move)) {
+          Assert.assertEquals(bestPoints, points[i]);
+        }
+      }
+      // no move was played in two games, so every position is out of the book
+      OpeningBookStrategy strict = new OpeningBookStrategy(model, book, 2,
+          new CapturePieceStrategy(model));
+      Assert.assertEquals(new CapturePieceStrategy(model).chooseMove(PlayerColor.BLACK),
+          strict.chooseMove(PlayerColor.BLACK));
+      Assert.assertFalse(strict.wasLastInBook());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testBadGamesAndBooks() throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(7, 4);
+    Assert.assertThrows(IllegalArgumentException.class, () -> builder.addGame(List.of(0)));
+    List<Integer> unfinished = playGame(0).subList(0, 10);
+    Assert.assertThrows(IllegalArgumentException.class, () -> builder.addGame(unfinished));
+    Assert.assertEquals(0, builder.getPositionCount());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(6, 4));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new OpeningBookBuilder(7, 0));
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      builder.write(file);
+      OpeningBook empty = OpeningBook.open(file);
+      Assert.assertEquals(0, empty.getEntryCount());
+      Assert.assertThrows(IllegalArgumentException.class,
+          () -> new OpeningBookStrategy(new ReversiModelStandard(9), empty,
+              new CapturePieceStrategy(new ReversiModelStandard(9))));
+      Files.write(file, new byte[40]);
+      Assert.assertThrows(IllegalArgumentException.class, () -> OpeningBook.open(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import cs3500.reversi.model.Board;
+import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.ReversiModel;
+import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.EndgameStrategy;
+import cs3500.reversi.player.PerfectPlayStrategy;
+import cs3500.reversi.player.PerfectPlayTable;
+import cs3500.reversi.player.PlayerColor;
+
+/**
+ * Tests for the table of every position of the size 5 board and the strategy using it.
+ */
+public class TestPerfectPlayTable {
+
+  @Test
+  public void testTableAgreesWithSolverAndSurvivesFile() throws IOException {
+    PerfectPlayTable built = PerfectPlayTable.build(5);
+    Path file = Files.createTempFile("perfect", ".bin");
+    try {
+      built.write(file);
+      PerfectPlayTable table = PerfectPlayTable.open(file);
+      Assert.assertEquals(5, table.getSize());
+      Assert.assertEquals(built.getPositionCount(), table.getPositionCount());
+      ReversiModel model = new ReversiModelStandard(5);
+      EndgameStrategy solver = new EndgameStrategy(model, 13, new CapturePieceStrategy(model));
+      solver.chooseMove(PlayerColor.BLACK);
+      long start = table.probe(new Board(5), PlayerColor.BLACK);
+      Assert.assertEquals(solver.getLastDifferential(), PerfectPlayTable.getValue(start));
+      Assert.assertEquals(built.probe(new Board(5), PlayerColor.BLACK), start);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testPerfectPlayKeepsTheValueOfTheGame() {
+    PerfectPlayTable table = PerfectPlayTable.build(5);
+    ReversiModel model = new ReversiModelStandard(5);
+    PerfectPlayStrategy perfect = new PerfectPlayStrategy(model, table);
+    int value = PerfectPlayTable.getValue(table.probe(new Board(5), PlayerColor.BLACK));
+    PlayerColor color = PlayerColor.BLACK;
+    while (!model.isGameOver()) {
+      Optional<HexCoordinates> move = perfect.chooseMove(color);
+      // the value of the position never changes for black when both colors play perfectly
+      Assert.assertEquals(value, (color == PlayerColor.BLACK) ? perfect.getLastValue()
+          : -perfect.getLastValue());
+      if (move.isPresent()) {
+        model.placeTile(color, move.get().getQ(), move.get().getR());
+      } else {
+        model.pass(color);
+      }
+      color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+    }
+    Board end = model.getBoard();
+    Assert.assertEquals(value, end.getScore(PlayerColor.BLACK) - end.getScore(PlayerColor.WHITE));
+  }
+
+  @Test
+  public void testBadTables() throws IOException {
+    Assert.assertThrows(IllegalArgumentException.class, () -> PerfectPlayTable.build(7));
+    PerfectPlayTable table = PerfectPlayTable.build(5);
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new PerfectPlayStrategy(new ReversiModelStandard(7), table));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.probe(new Board(7), PlayerColor.BLACK));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.probe(new Board(5), PlayerColor.EMPTY));
+    Path file = Files.createTempFile("perfect", ".bin");
+    try {
+      Files.write(file, new byte[64]);
+      Assert.assertThrows(IllegalArgumentException.class, () -> PerfectPlayTable.open(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
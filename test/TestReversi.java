@@ -2,13 +2,23 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import cs3500.reversi.model.Board;
+import cs3500.reversi.model.FeaturesModel;
 import cs3500.reversi.model.GameState;
 import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.MoveRecord;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.model.Scores;
 import cs3500.reversi.player.PlayerColor;
 import cs3500.reversi.view.ReversiTextView;
 
@@ -574,4 +584,283 @@ public class TestReversi {
     mBasic.placeTile(PlayerColor.BLACK, -2, 1);
     Assert.assertEquals(3, mBasic.numTilesCaptured(-3, 2, PlayerColor.WHITE));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetScores() {
+    Assert.assertEquals(new Scores(3, 3), mBasic.getScores());
+    Assert.assertEquals(PlayerColor.EMPTY, mBasic.getScores().getLeader());
+    mBasic.placeTile(PlayerColor.BLACK, -1, -1);
+    mBasic.placeTile(PlayerColor.WHITE, 1, -2);
+    mBasic.placeTile(PlayerColor.BLACK, -2, 1);
+    Scores scores = mBasic.getScores();
+    Assert.assertEquals(mBasic.getScore(PlayerColor.BLACK), scores.getScore(PlayerColor.BLACK));
+    Assert.assertEquals(mBasic.getScore(PlayerColor.WHITE), scores.getScore(PlayerColor.WHITE));
+    Assert.assertEquals(PlayerColor.BLACK, scores.getLeader());
+    Assert.assertEquals(scores.getScore(PlayerColor.BLACK) - scores.getScore(PlayerColor.WHITE),
+            scores.getDifference(PlayerColor.BLACK));
+    Assert.assertThrows(IllegalArgumentException.class, () -> scores.getScore(PlayerColor.EMPTY));
+  }
+
+  @Test
+  public void testLegalMovesCachedUntilTilePlaced() {
+    List<LegalMove> black = mBasic.getLegalMoves(PlayerColor.BLACK);
+    Assert.assertSame(black, mBasic.getLegalMoves(PlayerColor.BLACK));
+    Assert.assertThrows(UnsupportedOperationException.class, () -> black.remove(0));
+    for (LegalMove move : black) {
+      Assert.assertTrue(mBasic.isValidMove(move.getQ(), move.getR(), PlayerColor.BLACK));
+      Assert.assertEquals(move.getNumCaptured(),
+              mBasic.numTilesCaptured(move.getQ(), move.getR(), PlayerColor.BLACK));
+    }
+    Assert.assertFalse(mBasic.isValidMove(0, 0, PlayerColor.BLACK));
+    mBasic.placeTile(PlayerColor.BLACK, -1, -1);
+    Assert.assertNotSame(black, mBasic.getLegalMoves(PlayerColor.BLACK));
+    Assert.assertFalse(mBasic.isValidMove(-1, -1, PlayerColor.BLACK));
+    Assert.assertEquals(mBasic.getBoard().findLegalMoves(PlayerColor.WHITE),
+            mBasic.getLegalMoves(PlayerColor.WHITE));
+    List<LegalMove> white = mBasic.getLegalMoves(PlayerColor.WHITE);
+    mBasic.pass(PlayerColor.WHITE);
+    Assert.assertSame(white, mBasic.getLegalMoves(PlayerColor.WHITE));
+  }
+
+  @Test
+  public void testCellIndices() {
+    Assert.assertEquals(37, mBasic.cellCount());
+    Assert.assertEquals(19, m4.cellCount());
+    // cells are numbered row by row, starting at the top left of the board
+    Assert.assertEquals(new HexCoordinates(0, -3), mBasic.cellAt(0));
+    Assert.assertEquals(new HexCoordinates(1, -3), mBasic.cellAt(1));
+    Assert.assertEquals(new HexCoordinates(-3, 3), mBasic.cellAt(33));
+    for (int index = 0; index < mBasic.cellCount(); index++) {
+      HexCoordinates cell = mBasic.cellAt(index);
+      Assert.assertEquals(index, mBasic.indexOf(cell.getQ(), cell.getR()));
+      Assert.assertEquals(mBasic.getContentsOfCell(cell.getQ(), cell.getR()),
+              mBasic.getContentsOfCell(index));
+    }
+    Assert.assertEquals(-1, mBasic.indexOf(4, 0));
+    Assert.assertEquals(-1, mBasic.indexOf(69, 420));
+    Assert.assertThrows(IllegalArgumentException.class, () -> mBasic.cellAt(-1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> mBasic.cellAt(37));
+    Assert.assertThrows(IllegalArgumentException.class, () -> mBasic.getContentsOfCell(37));
+  }
+
+  @Test
+  public void testPatternCode() {
+    Board board = mBasic.getBoard();
+    int black = mBasic.indexOf(-1, 0);
+    int white = mBasic.indexOf(0, -1);
+    int empty = mBasic.indexOf(0, 0);
+    // each cell is a base 3 digit, most significant first: empty 0, black 1 and white 2
+    Assert.assertEquals(0, board.patternCode(new int[0]));
+    Assert.assertEquals(1 * 9 + 2 * 3 + 0, board.patternCode(new int[] {black, white, empty}));
+    Assert.assertEquals(2 * 9 + 1 * 3 + 1, board.patternCode(new int[] {white, black, black}));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> board.patternCode(new int[] {black, 37}));
+  }
+
+  /**
+   * Adds a feature to the given model which plays the first legal move of the given color
+   * whenever it is that color's turn, as a machine player does, and records the depth of the
+   * stack at each move.
+   *
+   * @param model  the model to play on.
+   * @param color  the color to play.
+   * @param depths the list to add the depth of the stack at each move to.
+   */
+  private static void addMachine(ReversiModel model, PlayerColor color, List<Integer> depths) {
+    model.addFeatures(new FeaturesModel() {
+      @Override
+      public void checkTurn() {
+        if (model.isGameOver() || model.curPlayer() != color) {
+          return;
+        }
+        depths.add(Thread.currentThread().getStackTrace().length);
+        List<LegalMove> moves = model.getLegalMoves(color);
+        if (moves.isEmpty()) {
+          model.pass(color);
+        } else {
+          model.placeTile(color, moves.get(0).getQ(), moves.get(0).getR());
+        }
+      }
+
+      @Override
+      public void checkGameOver() {
+        // nothing to show
+      }
+    });
+  }
+
+  @Test
+  public void testMachineGameKeepsStackDepth() {
+    ReversiModel model = new ReversiModelStandard(21);
+    List<Integer> depths = new ArrayList<>();
+    addMachine(model, PlayerColor.BLACK, depths);
+    addMachine(model, PlayerColor.WHITE, depths);
+    model.startGame();
+    Assert.assertTrue(model.isGameOver());
+    Assert.assertTrue(depths.size() > 200);
+    // every move is made from the turn loop, not from within the move before it
+    Assert.assertEquals(depths.get(0), Collections.max(depths));
+  }
+
+  /**
+   * Records everything a move changes on the given board: the color of every cell, the
+   * score of each color, the frontier tiles of each color and the hash of each color to move.
+   *
+   * @param board the board to record.
+   * @return the record of the board, which equals the record of any board in the same state.
+   */
+  private static List<Object> snapshot(Board board) {
+    List<Object> state = new ArrayList<>();
+    state.add(board.getBoard());
+    for (PlayerColor color : List.of(PlayerColor.BLACK, PlayerColor.WHITE)) {
+      state.add(board.getScore(color));
+      state.add(board.getFrontierTiles(color));
+      state.add(board.getHash(color));
+    }
+    return state;
+  }
+
+  @Test
+  public void testUnmakingRandomGamesRestoresBoard() {
+    Random random = new Random(7);
+    Board board = new Board(7);
+    List<Object> start = snapshot(board);
+    int passes = 0;
+    // the same board plays every game, so later games reuse the records of earlier ones
+    for (int game = 0; game < 20; game++) {
+      List<MoveRecord> records = new ArrayList<>();
+      List<List<Object>> before = new ArrayList<>();
+      PlayerColor color = PlayerColor.BLACK;
+      while (board.hasValidMove(PlayerColor.BLACK) || board.hasValidMove(PlayerColor.WHITE)) {
+        List<LegalMove> moves = board.findLegalMoves(color);
+        if (moves.isEmpty()) {
+          // the color passes, which leaves the board as it is for the other color
+          passes++;
+        } else {
+          LegalMove move = moves.get(random.nextInt(moves.size()));
+          List<Object> state = snapshot(board);
+          MoveRecord record = board.makeUndoableMove(move.getQ(), move.getR(), color);
+          Assert.assertNotEquals(state, snapshot(board));
+          before.add(state);
+          records.add(record);
+        }
+        color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+      }
+      for (int i = records.size() - 1; i >= 0; i--) {
+        board.unmakeMove(records.get(i));
+        Assert.assertEquals(before.get(i), snapshot(board));
+      }
+      Assert.assertEquals(start, snapshot(board));
+      Assert.assertEquals(new Board(7), board);
+    }
+    Assert.assertTrue(passes > 0);
+  }
+
+  @Test
+  public void testUnmakeMoveOnlyInReverseOrder() {
+    List<Object> start = snapshot(b1);
+    MoveRecord first = b1.makeUndoableMove(-1, -1, PlayerColor.BLACK);
+    List<Object> afterFirst = snapshot(b1);
+    MoveRecord second = b1.makeUndoableMove(-1, -2, PlayerColor.WHITE);
+    List<Object> afterSecond = snapshot(b1);
+    MoveRecord third = b1.makeUndoableMove(-2, -1, PlayerColor.BLACK);
+    Assert.assertThrows(IllegalStateException.class, () -> b1.unmakeMove(first));
+    Assert.assertThrows(IllegalStateException.class, () -> b1.unmakeMove(second));
+    b1.unmakeMove(third);
+    Assert.assertEquals(afterSecond, snapshot(b1));
+    Assert.assertThrows(IllegalStateException.class, () -> b1.unmakeMove(third));
+    b1.unmakeMove(second);
+    Assert.assertEquals(afterFirst, snapshot(b1));
+    // the record of an unmade move is reused by the next move made in its place
+    MoveRecord again = b1.makeUndoableMove(-1, -2, PlayerColor.WHITE);
+    Assert.assertSame(second, again);
+    Assert.assertEquals(afterSecond, snapshot(b1));
+    b1.unmakeMove(again);
+    b1.unmakeMove(first);
+    Assert.assertEquals(start, snapshot(b1));
+    Assert.assertThrows(IllegalStateException.class, () -> b1.unmakeMove(first));
+  }
+
+  @Test
+  public void testTranspositionsHaveEqualHashes() {
+    Board other = new Board(7);
+    b1.makeUndoableMove(1, -2, PlayerColor.BLACK);
+    b1.makeUndoableMove(-1, -1, PlayerColor.WHITE);
+    b1.makeUndoableMove(-2, 1, PlayerColor.BLACK);
+    b1.makeUndoableMove(-1, 2, PlayerColor.WHITE);
+    // the same moves of each color in the other order reach the same position
+    other.makeUndoableMove(-2, 1, PlayerColor.BLACK);
+    other.makeUndoableMove(-1, 2, PlayerColor.WHITE);
+    Assert.assertNotEquals(b1, other);
+    other.makeUndoableMove(1, -2, PlayerColor.BLACK);
+    other.makeUndoableMove(-1, -1, PlayerColor.WHITE);
+    Assert.assertEquals(b1.getBoard(), other.getBoard());
+    Assert.assertEquals(b1, other);
+    Assert.assertEquals(other, b1);
+    Assert.assertEquals(b1.hashCode(), other.hashCode());
+    Assert.assertEquals(b1.getHash(PlayerColor.BLACK), other.getHash(PlayerColor.BLACK));
+    Assert.assertEquals(b1.getHash(PlayerColor.WHITE), other.getHash(PlayerColor.WHITE));
+  }
+
+  @Test
+  public void testHashChangesWithEveryMove() {
+    Random random = new Random(11);
+    for (int game = 0; game < 20; game++) {
+      Board board = new Board(7);
+      // every move adds a tile, so no position of a game is ever reached twice
+      Set<Long> seen = new HashSet<>();
+      PlayerColor color = PlayerColor.BLACK;
+      boolean moved = true;
+      while (board.hasValidMove(PlayerColor.BLACK) || board.hasValidMove(PlayerColor.WHITE)) {
+        if (moved) {
+          long black = board.getHash(PlayerColor.BLACK);
+          long white = board.getHash(PlayerColor.WHITE);
+          Assert.assertNotEquals(black, white);
+          Assert.assertTrue(seen.add(black));
+          Assert.assertTrue(seen.add(white));
+        }
+        List<LegalMove> moves = board.findLegalMoves(color);
+        // a pass leaves the tiles as they are, so the position is not new
+        moved = !moves.isEmpty();
+        if (moved) {
+          LegalMove move = moves.get(random.nextInt(moves.size()));
+          board.makeUndoableMove(move.getQ(), move.getR(), color);
+        }
+        color = (color == PlayerColor.BLACK) ? PlayerColor.WHITE : PlayerColor.BLACK;
+      }
+    }
+  }
+
+  @Test
+  public void testCellsPastTheEdgeAreNeverValid() {
+    Random random = new Random(3);
+    for (int game = 0; game < 20; game++) {
+      ReversiModel model = new ReversiModelStandard(5);
+      // the cells one step past the edge of the board, which has radius 2
+      List<HexCoordinates> outside = new ArrayList<>();
+      for (int q = -3; q <= 3; q++) {
+        for (int r = -3; r <= 3; r++) {
+          if (Math.max(Math.max(Math.abs(q), Math.abs(r)), Math.abs(q + r)) == 3) {
+            outside.add(new HexCoordinates(q, r));
+          }
+        }
+      }
+      while (!model.isGameOver()) {
+        PlayerColor color = model.curPlayer();
+        for (HexCoordinates cell : outside) {
+          for (PlayerColor each : List.of(PlayerColor.BLACK, PlayerColor.WHITE)) {
+            Assert.assertFalse(model.isValidMove(cell.getQ(), cell.getR(), each));
+            Assert.assertEquals(0, model.numTilesCaptured(cell.getQ(), cell.getR(), each));
+          }
+        }
+        List<LegalMove> moves = model.getLegalMoves(color);
+        if (moves.isEmpty()) {
+          model.pass(color);
+        } else {
+          LegalMove move = moves.get(random.nextInt(moves.size()));
+          model.placeTile(color, move.getQ(), move.getR());
+        }
+      }
+    }
+  }
+}
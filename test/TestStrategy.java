@@ -4,24 +4,58 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import cs3500.reversi.model.Board;
 import cs3500.reversi.model.FeaturesModel;
 import cs3500.reversi.model.GameState;
 import cs3500.reversi.model.HexCoordinates;
+import cs3500.reversi.model.LegalMove;
+import cs3500.reversi.model.ReadonlyReversiModel;
 import cs3500.reversi.model.ReversiModel;
 import cs3500.reversi.model.ReversiModelStandard;
+import cs3500.reversi.model.Scores;
+import cs3500.reversi.player.AlphaBetaStrategy;
 import cs3500.reversi.player.CapturePieceStrategy;
 import cs3500.reversi.player.CheckCornersStrategy;
+import cs3500.reversi.player.EndgameStrategy;
+import cs3500.reversi.player.FeatureEvaluator;
+import cs3500.reversi.player.MobilityEvaluator;
+import cs3500.reversi.player.MonteCarloStrategy;
 import cs3500.reversi.player.MultipleStrategies;
 import cs3500.reversi.player.PlayerColor;
+import cs3500.reversi.player.TranspositionTable;
 
 /**
  * contains tests for the implemented strategies.
  */
 public class TestStrategy {
 
+  /**
+   * Finds the legal moves of a mock model by asking it about every empty coordinate on its
+   * board, so that the moves a mock reports agree with its other answers.
+   *
+   * @param model a mock model.
+   * @param color the color to find moves for.
+   * @return every coordinate the mock says is valid, with the captures the mock reports.
+   */
+  private static List<LegalMove> legalMovesOf(ReadonlyReversiModel model, PlayerColor color) {
+    List<LegalMove> moves = new ArrayList<>();
+    int size = model.getSizeOfBoard();
+    for (int q = -size + 1; q < size; q++) {
+      for (int r = Math.max(-size + 1, -size - q); r <= Math.min(size - 1, size - q - 1); r++) {
+        if (Math.abs(q) + Math.abs(r) + Math.abs(-q - r) <= (size - 1)
+                && model.getContentsOfCell(q, r) == PlayerColor.EMPTY
+                && model.isValidMove(q, r, color)) {
+          moves.add(new LegalMove(q, r, model.numTilesCaptured(q, r, color)));
+        }
+      }
+    }
+    return moves;
+  }
+
   /**
    * represents a mock class for the Reversi Model. This mock class has a transcript that logs
    * the coordinates that the strategy has inspected, which should be all of the hexagons on board.
@@ -73,11 +107,36 @@ public class TestStrategy {
       return this.board.getColorAt(q, r);
     }
 
+    @Override
+    public int cellCount() {
+      return this.board.cellCount();
+    }
+
+    @Override
+    public HexCoordinates cellAt(int index) {
+      return this.board.cellAt(index);
+    }
+
+    @Override
+    public PlayerColor getContentsOfCell(int index) {
+      return this.board.getColorAt(index);
+    }
+
+    @Override
+    public int indexOf(int q, int r) {
+      return this.board.indexOf(q, r);
+    }
+
     @Override
     public int getScore(PlayerColor color) {
       return 0;
     }
 
+    @Override
+    public Scores getScores() {
+      return new Scores(this.getScore(PlayerColor.BLACK), this.getScore(PlayerColor.WHITE));
+    }
+
     @Override
     public boolean isGameOver() {
       return false;
@@ -99,6 +158,11 @@ public class TestStrategy {
       return 0;
     }
 
+    @Override
+    public List<LegalMove> getLegalMoves(PlayerColor color) {
+      return legalMovesOf(this, color);
+    }
+
     @Override
     public void addFeatures(FeaturesModel f) {
       this.transcript.append("");
@@ -130,6 +194,36 @@ public class TestStrategy {
     }
   }
 
+  /**
+   * mock model for the Reversi Model that logs each time the legal moves of a color are asked
+   * for, where every empty coordinate is a legal move that captures nothing.
+   */
+  public static class LegalMovesMockModel extends MockModel1 {
+
+    /**
+     * the constructor for the mock model.
+     *
+     * @param log  holds the transcript of the colors whose legal moves were asked for
+     * @param size the size of the game board
+     */
+    public LegalMovesMockModel(StringBuilder log, int size) {
+      super(log, size);
+    }
+
+    @Override
+    public List<LegalMove> getLegalMoves(PlayerColor color) {
+      this.transcript.append("getLegalMoves ").append(color).append("\n");
+      List<LegalMove> moves = new ArrayList<>();
+      for (int index = 0; index < this.cellCount(); index++) {
+        if (this.getContentsOfCell(index) == PlayerColor.EMPTY) {
+          HexCoordinates cell = this.cellAt(index);
+          moves.add(new LegalMove(cell.getQ(), cell.getR(), 0));
+        }
+      }
+      return moves;
+    }
+  }
+
   /**
    * mock model for the Reversi Model to be used for testing if the strategy chooses the right
    * coordinates when it's lied to about how many tiles it can flip.
@@ -180,11 +274,36 @@ public class TestStrategy {
       return this.board.getColorAt(q, r);
     }
 
+    @Override
+    public int cellCount() {
+      return this.board.cellCount();
+    }
+
+    @Override
+    public HexCoordinates cellAt(int index) {
+      return this.board.cellAt(index);
+    }
+
+    @Override
+    public PlayerColor getContentsOfCell(int index) {
+      return this.board.getColorAt(index);
+    }
+
+    @Override
+    public int indexOf(int q, int r) {
+      return this.board.indexOf(q, r);
+    }
+
     @Override
     public int getScore(PlayerColor color) {
       return this.score;
     }
 
+    @Override
+    public Scores getScores() {
+      return new Scores(this.getScore(PlayerColor.BLACK), this.getScore(PlayerColor.WHITE));
+    }
+
     @Override
     public boolean isGameOver() {
       return false;
@@ -209,6 +328,11 @@ public class TestStrategy {
       }
     }
 
+    @Override
+    public List<LegalMove> getLegalMoves(PlayerColor color) {
+      return legalMovesOf(this, color);
+    }
+
     @Override
     public void addFeatures(FeaturesModel f) {
       this.score = 0;
@@ -290,11 +414,36 @@ public class TestStrategy {
       return this.board.getColorAt(q, r);
     }
 
+    @Override
+    public int cellCount() {
+      return this.board.cellCount();
+    }
+
+    @Override
+    public HexCoordinates cellAt(int index) {
+      return this.board.cellAt(index);
+    }
+
+    @Override
+    public PlayerColor getContentsOfCell(int index) {
+      return this.board.getColorAt(index);
+    }
+
+    @Override
+    public int indexOf(int q, int r) {
+      return this.board.indexOf(q, r);
+    }
+
     @Override
     public int getScore(PlayerColor color) {
       return 0;
     }
 
+    @Override
+    public Scores getScores() {
+      return new Scores(this.getScore(PlayerColor.BLACK), this.getScore(PlayerColor.WHITE));
+    }
+
     @Override
     public boolean isGameOver() {
       return false;
@@ -316,6 +465,11 @@ public class TestStrategy {
     }
 
 
+    @Override
+    public List<LegalMove> getLegalMoves(PlayerColor color) {
+      return legalMovesOf(this, color);
+    }
+
     @Override
     public void addFeatures(FeaturesModel f) {
       this.transcript.append("");
@@ -462,25 +616,16 @@ public class TestStrategy {
 
   @Test
   public void testStrategyCorners() {
-    Assert.assertEquals("", log.toString());
-    s3.chooseMove(PlayerColor.BLACK);
-    Assert.assertEquals("-3, 0\n"
-                    + "-3, 3\n"
-                    + "0, -3\n"
-                    + "0, 3\n"
-                    + "3, -3\n"
-                    + "3, 0\n",
-            log.toString());
+    // the corner strategy asks for the legal moves once, then looks for corners in them
+    CheckCornersStrategy corners = new CheckCornersStrategy(new LegalMovesMockModel(log, 7));
+    Assert.assertEquals(Optional.of(new HexCoordinates(0, -3)),
+        corners.chooseMove(PlayerColor.BLACK));
+    Assert.assertEquals("getLegalMoves BLACK\n", log.toString());
     this.init();
-    Assert.assertEquals("", log.toString());
-    s3.chooseMove(PlayerColor.WHITE);
-    Assert.assertEquals("-3, 0\n"
-                    + "-3, 3\n"
-                    + "0, -3\n"
-                    + "0, 3\n"
-                    + "3, -3\n"
-                    + "3, 0\n",
-            log.toString());
+    corners = new CheckCornersStrategy(new LegalMovesMockModel(log, 7));
+    Assert.assertEquals(Optional.of(new HexCoordinates(0, -3)),
+        corners.chooseMove(PlayerColor.WHITE));
+    Assert.assertEquals("getLegalMoves WHITE\n", log.toString());
   }
 
   @Test
@@ -580,4 +725,162 @@ public class TestStrategy {
     Assert.assertEquals(Optional.empty(), s7.chooseMove(PlayerColor.BLACK));
     Assert.assertEquals(Optional.empty(), s7.chooseMove(PlayerColor.WHITE));
   }
+
+  @Test
+  public void testAlphaBetaDoesNotChangeModel() {
+    AlphaBetaStrategy search = new AlphaBetaStrategy(rActual, 200);
+    rActual.placeTile(PlayerColor.BLACK, -1, -1);
+    Board before = rActual.getBoard();
+    Optional<HexCoordinates> move = search.chooseMove(PlayerColor.WHITE);
+    Assert.assertTrue(move.isPresent());
+    Assert.assertTrue(rActual.isValidMove(move.get().getQ(), move.get().getR(),
+            PlayerColor.WHITE));
+    Assert.assertEquals(before, rActual.getBoard());
+    Assert.assertTrue(search.getLastDepth() >= 1);
+    Assert.assertTrue(search.getLastNodes() > 0);
+  }
+
+  @Test
+  public void testAlphaBetaOneDepthCapturesMost() {
+    // searching one move ahead while scoring by tiles finds a move that captures the most
+    AlphaBetaStrategy search = new AlphaBetaStrategy(rActualBig, 1000, 1,
+        (board, color) -> board.getScore(color));
+    rActualBig.placeTile(PlayerColor.BLACK, -1, -1);
+    LegalMove reply = rActualBig.getLegalMoves(PlayerColor.WHITE).get(0);
+    rActualBig.placeTile(PlayerColor.WHITE, reply.getQ(), reply.getR());
+    int most = 0;
+    for (LegalMove move : rActualBig.getLegalMoves(PlayerColor.BLACK)) {
+      most = Math.max(most, move.getNumCaptured());
+    }
+    HexCoordinates move = search.chooseMove(PlayerColor.BLACK).get();
+    Assert.assertEquals(most, rActualBig.numTilesCaptured(move.getQ(), move.getR(),
+            PlayerColor.BLACK));
+    Assert.assertEquals(1, search.getLastDepth());
+  }
+
+  @Test
+  public void testAlphaBetaBadArguments() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(rActual, 100).chooseMove(PlayerColor.EMPTY));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new AlphaBetaStrategy(rActual, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(rActual, 100, 0, new MobilityEvaluator()));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new AlphaBetaStrategy(rActual, 100, 5, new MobilityEvaluator(),
+            new TranspositionTable(1), 0));
+  }
+
+  @Test
+  public void testAlphaBetaWithHelperThreads() {
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaStrategy search = new AlphaBetaStrategy(rActualBig, 10_000, 6,
+        new MobilityEvaluator(), table, 3);
+    Board before = rActualBig.getBoard();
+    HexCoordinates move = search.chooseMove(PlayerColor.BLACK).get();
+    Assert.assertTrue(rActualBig.isValidMove(move.getQ(), move.getR(), PlayerColor.BLACK));
+    Assert.assertEquals(before, rActualBig.getBoard());
+    Assert.assertEquals(6, search.getLastDepth());
+    Assert.assertTrue(table.getHits() > 0);
+  }
+
+  @Test
+  public void testMonteCarloPlayoutBudgetIsReproducible() {
+    Board before = rActual.getBoard();
+    MonteCarloStrategy first = new MonteCarloStrategy(rActual, 60_000, 500, 1, 7);
+    MonteCarloStrategy second = new MonteCarloStrategy(rActual, 60_000, 500, 1, 7);
+    HexCoordinates move = first.chooseMove(PlayerColor.BLACK).get();
+    Assert.assertEquals(move, second.chooseMove(PlayerColor.BLACK).get());
+    Assert.assertTrue(rActual.isValidMove(move.getQ(), move.getR(), PlayerColor.BLACK));
+    Assert.assertEquals(before, rActual.getBoard());
+    Assert.assertEquals(500, first.getLastPlayouts());
+    Assert.assertTrue(first.getLastPlayoutsPerSecond() > 0);
+    Assert.assertTrue(first.getLastWinRate() >= 0 && first.getLastWinRate() <= 1);
+  }
+
+  @Test
+  public void testMonteCarloWithHelperThreads() {
+    ReversiModel big = new ReversiModelStandard(15);
+    MonteCarloStrategy search = new MonteCarloStrategy(big, 60_000, 2000, 3, 11);
+    HexCoordinates move = search.chooseMove(PlayerColor.BLACK).get();
+    Assert.assertTrue(big.isValidMove(move.getQ(), move.getR(), PlayerColor.BLACK));
+    Assert.assertEquals(new ReversiModelStandard(15).getBoard(), big.getBoard());
+    Assert.assertEquals(2000, search.getLastPlayouts());
+  }
+
+  @Test
+  public void testMonteCarloBadArguments() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MonteCarloStrategy(null, 100));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MonteCarloStrategy(rActual, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MonteCarloStrategy(rActual, 100, 0, 1, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MonteCarloStrategy(rActual, 100, 10, 0, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new MonteCarloStrategy(rActual, 100).chooseMove(PlayerColor.EMPTY));
+  }
+
+  @Test
+  public void testEndgameSolvesAgreesWithFullSearch() {
+    ReversiModel small = new ReversiModelStandard(5);
+    Board before = small.getBoard();
+    EndgameStrategy solver = new EndgameStrategy(small, 13, new CapturePieceStrategy(small));
+    HexCoordinates move = solver.chooseMove(PlayerColor.BLACK).get();
+    Assert.assertTrue(solver.wasLastSolved());
+    Assert.assertTrue(small.isValidMove(move.getQ(), move.getR(), PlayerColor.BLACK));
+    Assert.assertEquals(before, small.getBoard());
+    // a search deeper than the empty cells also reaches the end of every game, where a
+    // finished game scores a win or loss plus the final difference in tiles
+    AlphaBetaStrategy search = new AlphaBetaStrategy(small, 60_000, 100,
+        new MobilityEvaluator());
+    search.chooseMove(PlayerColor.BLACK);
+    int score = search.getLastScore();
+    int difference = (score > 0) ? score - 1_000_000 : (score < 0) ? score + 1_000_000 : 0;
+    Assert.assertEquals(difference, solver.getLastDifferential());
+    Assert.assertTrue(solver.getLastNodes() > 0);
+  }
+
+  @Test
+  public void testEndgameFallsBackAboveThreshold() {
+    EndgameStrategy solver = new EndgameStrategy(rActual, 0, new CapturePieceStrategy(rActual));
+    Assert.assertEquals(new CapturePieceStrategy(rActual).chooseMove(PlayerColor.BLACK),
+        solver.chooseMove(PlayerColor.BLACK));
+    Assert.assertFalse(solver.wasLastSolved());
+    Assert.assertEquals(0, solver.getLastNodes());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new EndgameStrategy(rActual, -1, new CapturePieceStrategy(rActual)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new EndgameStrategy(rActual, 10, null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> solver.chooseMove(PlayerColor.EMPTY));
+  }
+
+  @Test
+  public void testFeatureEvaluatorWeighsEachFeature() {
+    ReversiModel model = new ReversiModelStandard(7);
+    model.placeTile(PlayerColor.BLACK, -1, -1);
+    Board board = model.getBoard();
+    // only tiles and frontier tiles are weighed, so the score is their weighted difference
+    FeatureEvaluator tilesOnly = new FeatureEvaluator(Map.of(),
+        new FeatureEvaluator.Weights(0, 0, 0, 0, 1));
+    Assert.assertEquals(3, tilesOnly.evaluate(board, PlayerColor.BLACK));
+    Assert.assertEquals(-3, tilesOnly.evaluate(board, PlayerColor.WHITE));
+    FeatureEvaluator frontierOnly = new FeatureEvaluator(Map.of(),
+        new FeatureEvaluator.Weights(0, 1, 0, 0, 0));
+    Assert.assertEquals(board.getFrontierTiles(PlayerColor.WHITE)
+            - board.getFrontierTiles(PlayerColor.BLACK),
+        frontierOnly.evaluate(board, PlayerColor.BLACK));
+    FeatureEvaluator evaluator = new FeatureEvaluator();
+    Assert.assertEquals(-evaluator.evaluate(board, PlayerColor.WHITE),
+        evaluator.evaluate(board, PlayerColor.BLACK));
+    Assert.assertNotSame(evaluator.weightsFor(5), evaluator.weightsFor(7));
+    Assert.assertSame(evaluator.weightsFor(7), evaluator.weightsFor(11));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new FeatureEvaluator.Weights(1, -1, 1, 1, 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new FeatureEvaluator(null, new FeatureEvaluator.Weights(1, 1, 1, 1, 1)));
+    Assert.assertTrue(new AlphaBetaStrategy(model, 1000, 3, evaluator)
+        .chooseMove(PlayerColor.WHITE).isPresent());
+  }
 }
@@ -0,0 +1,111 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import cs3500.reversi.controller.Tournament;
+import cs3500.reversi.model.ReadonlyReversiModel;
+import cs3500.reversi.player.AlphaBetaStrategy;
+import cs3500.reversi.player.CapturePieceStrategy;
+import cs3500.reversi.player.MobilityEvaluator;
+import cs3500.reversi.player.MonteCarloStrategy;
+
+/**
+ * Tests for playing tournaments between strategies.
+ */
+public class TestTournament {
+
+  /**
+   * Makes a tournament between the capture strategy, a two ply search and a Monte Carlo search
+   * of a fixed number of playouts, which all play the same moves from the same seed.
+   *
+   * @param seed the seed of the openings.
+   * @return the tournament.
+   */
+  private static Tournament tournament(long seed) {
+    Tournament tournament = new Tournament(7, 5, 3, seed);
+    tournament.addEntrant("capture", (model, gameSeed) -> new CapturePieceStrategy(model));
+    tournament.addEntrant("search", (model, gameSeed) -> search(model));
+    tournament.addEntrant("mcts", (model, gameSeed) -> new MonteCarloStrategy(model, 60000,
+        200, 1, gameSeed));
+    return tournament;
+  }
+
+  /**
+   * Plays a gauntlet of the capture strategy against a two ply search, and records the
+   * seed every strategy is made with.
+   *
+   * @param seed    the seed of the tournament.
+   * @param threads the number of threads to play the games on.
+   * @return the seed of each strategy made, in order.
+   */
+  private static List<Long> gameSeeds(long seed, int threads) {
+    List<Long> seeds = Collections.synchronizedList(new ArrayList<>());
+    Tournament tournament = new Tournament(7, 5, 3, seed);
+    tournament.addEntrant("capture", (model, gameSeed) -> {
+      seeds.add(gameSeed);
+      return new CapturePieceStrategy(model);
+    });
+    tournament.addEntrant("search", (model, gameSeed) -> search(model));
+    tournament.gauntlet("capture", threads);
+    List<Long> sorted = new ArrayList<>(seeds);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Makes a search of two plies for the given model, which always plays the same moves.
+   *
+   * @param model the model to play.
+   * @return the search.
+   */
+  private static AlphaBetaStrategy search(ReadonlyReversiModel model) {
+    return new AlphaBetaStrategy(model, 60000, 2, new MobilityEvaluator());
+  }
+
+  @Test
+  public void testRoundRobinIsReproducible() {
+    List<Tournament.Record> one = tournament(7).roundRobin(1);
+    List<Tournament.Record> many = tournament(7).roundRobin(4);
+    long differential = 0;
+    for (int i = 0; i < one.size(); i++) {
+      // every entrant plays both others from five openings as each color
+      Assert.assertEquals(20, one.get(i).getGames());
+      Assert.assertEquals(one.get(i).toString(), many.get(i).toString());
+      differential += one.get(i).getDifferential();
+    }
+    Assert.assertEquals(0, differential);
+    Assert.assertEquals("capture", one.get(0).getName());
+  }
+
+  @Test
+  public void testGauntletAndArguments() {
+    List<Tournament.Record> records = tournament(3).gauntlet("search", 2);
+    Assert.assertEquals(20, records.get(1).getGames());
+    Assert.assertEquals(10, records.get(0).getGames());
+    Assert.assertEquals(records.get(1).getWins(),
+        records.get(0).getLosses() + records.get(2).getLosses());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> tournament(3).gauntlet("nobody", 2));
+    Assert.assertThrows(IllegalArgumentException.class, () -> tournament(3).roundRobin(0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> tournament(3).addEntrant("capture",
+            (model, gameSeed) -> new CapturePieceStrategy(model)));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new Tournament(7, 0, 3, 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new Tournament(7, 1, 1, 1).roundRobin(1));
+  }
+
+  @Test
+  public void testEachGameHasItsOwnSeed() {
+    List<Long> seeds = gameSeeds(7, 1);
+    // one seed for each of the ten games, the same however the games are run
+    Assert.assertEquals(10, seeds.size());
+    Assert.assertEquals(10, new HashSet<>(seeds).size());
+    Assert.assertEquals(seeds, gameSeeds(7, 4));
+    Assert.assertNotEquals(seeds, gameSeeds(8, 1));
+  }
+}
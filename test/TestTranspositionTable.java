@@ -0,0 +1,85 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cs3500.reversi.player.TranspositionTable;
+
+/**
+ * Tests for the transposition table used by search strategies.
+ */
+public class TestTranspositionTable {
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    Assert.assertEquals(1 << 16, table.capacity());
+    Assert.assertEquals(TranspositionTable.MISSING, table.probe(12345L));
+    table.store(12345L, 7, TranspositionTable.LOWER, -1_000_042, 36);
+    long entry = table.probe(12345L);
+    Assert.assertEquals(7, TranspositionTable.getDepth(entry));
+    Assert.assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(entry));
+    Assert.assertEquals(-1_000_042, TranspositionTable.getScore(entry));
+    Assert.assertEquals(36, TranspositionTable.getBestMove(entry));
+    table.store(999L, 0, TranspositionTable.EXACT, 0, TranspositionTable.NO_MOVE);
+    Assert.assertEquals(TranspositionTable.NO_MOVE,
+            TranspositionTable.getBestMove(table.probe(999L)));
+    Assert.assertEquals(2, table.getHits());
+    Assert.assertEquals(1, table.getMisses());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> table.store(1L, 1, 0, 0, TranspositionTable.NO_MOVE));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+
+  @Test
+  public void testDeeperEntryKept() {
+    TranspositionTable table = new TranspositionTable(1);
+    // the two hashes share a slot, as they differ only above the bits used to find it
+    long first = 5L;
+    long second = 5L | (1L << 20) | (1L << 52);
+    table.store(first, 9, TranspositionTable.EXACT, 10, 1);
+    table.store(second, 3, TranspositionTable.EXACT, 20, 2);
+    Assert.assertEquals(9, TranspositionTable.getDepth(table.probe(first)));
+    Assert.assertEquals(TranspositionTable.MISSING, table.probe(second));
+    Assert.assertEquals(1, table.getCollisions());
+    // entries of an earlier search are replaced by any depth
+    table.newSearch();
+    table.store(second, 3, TranspositionTable.EXACT, 20, 2);
+    Assert.assertEquals(20, TranspositionTable.getScore(table.probe(second)));
+    Assert.assertEquals(TranspositionTable.MISSING, table.probe(first));
+    table.clear();
+    Assert.assertEquals(TranspositionTable.MISSING, table.probe(second));
+    Assert.assertEquals(1, table.getMisses());
+  }
+
+  @Test
+  public void testThreadsNeverReadTornEntries() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(1);
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int id = t;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          // every thread writes to the same few slots, and each entry's score is its hash
+          long hash = (i % 64) * 0x9E3779B97F4A7C15L + id;
+          table.store(hash, id, TranspositionTable.EXACT, (int) hash, id);
+          long entry = table.probe(hash ^ 1);
+          if (entry != TranspositionTable.MISSING
+                  && TranspositionTable.getScore(entry) != (int) (hash ^ 1)) {
+            synchronized (failures) {
+              failures.add(new AssertionError("read an entry of another position"));
+            }
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertTrue(failures.isEmpty());
+  }
+}